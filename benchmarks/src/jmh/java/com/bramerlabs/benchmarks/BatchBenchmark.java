@@ -0,0 +1,108 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cone;
+import com.bramerlabs.shapes3d.Cylinder;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.BatchBuilder;
+import com.bramerlabs.support.DrawBatch;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+
+    // the amount of shapes in the scene, in 8 colors
+    @Param({"100", "1000"})
+    public int shapes;
+
+    // the colors the shapes are picked from
+    private static final Color[] colors = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.CYAN,
+            Color.MAGENTA, Color.ORANGE, Color.PINK};
+
+    // the meshes of the scene
+    private final ArrayList<MeshBuffer> scene = new ArrayList<>();
+
+    // the buffers the scene is uploaded from, large enough for either layout
+    private ByteBuffer vertices;
+    private ByteBuffer indices;
+
+    /**
+     * builds the scene and the upload buffers
+     */
+    @Setup
+    public void setup() {
+        scene.clear();
+        Random random = new Random(42);
+        int floats = 0;
+        for (int i = 0; i < shapes; i++) {
+            Vector3f p = new Vector3f(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+            Color color = colors[random.nextInt(colors.length)];
+            MeshBuffer mesh;
+            if (i % 3 == 0) {
+                mesh = new Sphere(p, 1, color, 2).getMesh();
+            } else if (i % 3 == 1) {
+                mesh = new Cylinder(p, new Vector3f(p.x, p.y + 2, p.z), 0.5f, color).getMesh();
+            } else {
+                mesh = new Cone(p, new Vector3f(p.x, p.y + 2, p.z), 0.5f, 16, color).getMesh();
+            }
+            scene.add(mesh);
+            floats += MeshWriter.getLength(mesh.getTriangleCount(), true);
+        }
+        vertices = ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder());
+        indices = ByteBuffer.allocateDirect(floats * Integer.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * writes every shape as its own mesh with a color in every vertex, one draw call each
+     * @return - the amount of draw calls
+     */
+    @Benchmark
+    public int perShape() {
+        vertices.clear();
+        for (MeshBuffer mesh : scene) {
+            MeshWriter.writeInterleaved(mesh, vertices, true);
+        }
+        return scene.size();
+    }
+
+    /**
+     * packs the scene into a batch and writes its vertices and indices
+     * @return - the amount of draw calls
+     */
+    @Benchmark
+    public int batched() {
+        BatchBuilder builder = new BatchBuilder();
+        builder.addAll(scene);
+        DrawBatch batch = builder.build();
+        vertices.clear();
+        indices.clear();
+        batch.writeVertices(vertices, true);
+        batch.writeIndices(indices);
+        return batch.getGroupCount();
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.spatial.BoundingVolumeHierarchy;
+import com.bramerlabs.spatial.RayHit;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BvhBenchmark {
+
+    // the amount of spheres in the scene, each with 5120 triangles
+    @Param({"10", "100"})
+    public int spheres;
+
+    // the amount of rays cast per picking benchmark
+    private static final int rays = 64;
+
+    // the meshes of the scene, and every triangle in it as picking used to test them
+    private final ArrayList<MeshBuffer> scene = new ArrayList<>();
+    private final ArrayList<Triangle> faces = new ArrayList<>();
+
+    // the tree over the scene
+    private BoundingVolumeHierarchy tree;
+
+    // the origin and direction of each ray
+    private final Vector3f[] origins = new Vector3f[rays];
+    private final Vector3f[] directions = new Vector3f[rays];
+
+    /**
+     * builds the scene, its tree, and the rays cast into it
+     */
+    @Setup
+    public void setup() {
+        scene.clear();
+        faces.clear();
+        for (int i = 0; i < spheres; i++) {
+            MeshBuffer mesh = new Sphere(new Vector3f(i % 10 * 4, i / 10 * 4, 0), 1.5f, Color.RED, 4).getMesh();
+            scene.add(mesh);
+            faces.addAll(mesh.toTriangles());
+        }
+        tree = BoundingVolumeHierarchy.build(scene);
+
+        Random random = new Random(42);
+        for (int i = 0; i < rays; i++) {
+            origins[i] = new Vector3f(random.nextFloat() * 40 - 2, random.nextFloat() * 40 - 2, 10);
+            directions[i] = new Vector3f(random.nextFloat() * 0.2f - 0.1f, random.nextFloat() * 0.2f - 0.1f, -1);
+        }
+    }
+
+    /**
+     * builds the tree on the calling thread
+     * @return - the tree
+     */
+    @Benchmark
+    public BoundingVolumeHierarchy buildSequential() {
+        return BoundingVolumeHierarchy.build(scene, null);
+    }
+
+    /**
+     * builds the tree in the common pool
+     * @return - the tree
+     */
+    @Benchmark
+    public BoundingVolumeHierarchy buildParallel() {
+        return BoundingVolumeHierarchy.build(scene, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * casts every ray through the tree
+     * @return - the amount of rays that hit something
+     */
+    @Benchmark
+    public int pick() {
+        int hits = 0;
+        for (int i = 0; i < rays; i++) {
+            if (tree.intersect(origins[i], directions[i]) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * casts every ray by testing every triangle of the scene
+     * @return - the amount of rays that hit something
+     */
+    @Benchmark
+    public int pickBruteForce() {
+        int hits = 0;
+        for (int i = 0; i < rays; i++) {
+            Vector3f o = origins[i], d = directions[i];
+            float best = Float.POSITIVE_INFINITY;
+            for (Triangle triangle : faces) {
+                Vector3f v1 = triangle.getV1(), v2 = triangle.getV2(), v3 = triangle.getV3();
+                Vector3f e1 = Vector3f.subtract(v2, v1, new Vector3f(0, 0, 0));
+                Vector3f e2 = Vector3f.subtract(v3, v1, new Vector3f(0, 0, 0));
+                Vector3f p = Vector3f.cross(d, e2);
+                float det = Vector3f.dot(e1, p);
+                if (det == 0) {
+                    continue;
+                }
+                Vector3f s = Vector3f.subtract(o, v1, new Vector3f(0, 0, 0));
+                float u = Vector3f.dot(s, p) / det;
+                if (u < 0 || u > 1) {
+                    continue;
+                }
+                Vector3f q = Vector3f.cross(s, e1);
+                float v = Vector3f.dot(d, q) / det;
+                if (v < 0 || u + v > 1) {
+                    continue;
+                }
+                float distance = Vector3f.dot(e2, q) / det;
+                if (distance >= 0 && distance < best) {
+                    best = distance;
+                }
+            }
+            if (best < Float.POSITIVE_INFINITY) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * finds the triangles near a point, as a collision check would
+     * @return - the amount of triangles found
+     */
+    @Benchmark
+    public int overlapSphere() {
+        int found = 0;
+        for (int i = 0; i < rays; i++) {
+            Vector3f o = origins[i];
+            found += tree.overlapSphere(new Vector3f(o.x, o.y, 1), 0.75f, null);
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.support.TessellationCache;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+public class CacheState {
+
+    // true to let the shapes reuse cached unit meshes, false to tessellate from scratch every time
+    @Param({"false", "true"})
+    public boolean cached;
+
+    // the size limit of the shared cache before the benchmark
+    private long maxBytes;
+
+    /**
+     * empties the shared tessellation cache, and turns it off when not benchmarking the cached path.
+     * a cache with a limit of 0 bytes never keeps a mesh, so every shape generates its own
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        TessellationCache cache = TessellationCache.getShared();
+        maxBytes = cache.getMaxBytes();
+        cache.clear();
+        cache.setMaxBytes(cached ? maxBytes : 0);
+    }
+
+    /**
+     * restores the size limit of the shared tessellation cache
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TessellationCache.getShared().setMaxBytes(maxBytes);
+    }
+
+}
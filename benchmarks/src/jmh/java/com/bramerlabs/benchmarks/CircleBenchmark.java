@@ -0,0 +1,80 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes2d.Circle;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CircleBenchmark {
+
+    // the amount of triangles in the circle
+    @Param({"8", "32", "120", "480"})
+    public int smoothness;
+
+    // where the circle is generated, and the normal of its plane
+    private final Vector3f position = new Vector3f(1, 2, 3);
+    private final Vector3f normal = new Vector3f(1, 1, 1);
+
+    // a circle whose mesh is already generated
+    private Circle circle;
+
+    /**
+     * generates the circle used by getFacesAsFloats()
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        circle = new Circle(position, 2.5f, normal, Color.RED, smoothness);
+        circle.getMesh();
+    }
+
+    /**
+     * generates the mesh of a circle
+     * @param cache - whether the unit mesh is cached
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer mesh(CacheState cache) {
+        return new Circle(position, 2.5f, normal, Color.RED, smoothness).getMesh();
+    }
+
+    /**
+     * generates the mesh of a circle and builds its list of triangles
+     * @param cache - whether the unit mesh is cached
+     * @return - the triangles
+     */
+    @Benchmark
+    public ArrayList<?> faces(CacheState cache) {
+        return new Circle(position, 2.5f, normal, Color.RED, smoothness).getFaces();
+    }
+
+    /**
+     * copies the triangles of an already generated circle into a float array
+     * @return - the float array
+     */
+    @Benchmark
+    public float[] facesAsFloats() {
+        return circle.getFacesAsFloats();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cube;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CubeBenchmark {
+
+    // the center of the cube and the normals of two of its faces
+    private final Vector3f center = new Vector3f(1, 2, 3);
+    private final Vector3f n1 = new Vector3f(0, 0, 1);
+    private final Vector3f n2 = new Vector3f(0, 1, 0);
+
+    /**
+     * generates the mesh of a cube
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer mesh() {
+        return new Cube(center, n1, n2, 2.5f, Color.RED).getMesh();
+    }
+
+    /**
+     * generates the mesh of a cube and builds its list of triangles
+     * @return - the triangles
+     */
+    @Benchmark
+    public ArrayList<?> faces() {
+        return new Cube(center, n1, n2, 2.5f, Color.RED).getFaces();
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cylinder;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.spatial.DrawRange;
+import com.bramerlabs.spatial.Frustum;
+import com.bramerlabs.spatial.FrustumCuller;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CullBenchmark {
+
+    // the amount of shapes in the scene, half spheres with 1280 triangles and half cylinders with 64
+    @Param({"1000", "10000"})
+    public int shapes;
+
+    // the meshes of the scene
+    private final ArrayList<MeshBuffer> scene = new ArrayList<>();
+
+    // the culler over the scene
+    private FrustumCuller culler;
+
+    // the camera, in the middle of the scene
+    private final Vector3f eye = new Vector3f(0, 0, 0);
+    private final Frustum frustum = Frustum.perspective(eye, new Vector3f(0, 0, -1), new Vector3f(0, 1, 0),
+            (float) Math.toRadians(60), 16f / 9, 0.1f, 100);
+
+    /**
+     * scatters the shapes around the camera and finds their bounds
+     */
+    @Setup
+    public void setup() {
+        scene.clear();
+        Random random = new Random(42);
+        for (int i = 0; i < shapes; i++) {
+            Vector3f p = new Vector3f(random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100,
+                    random.nextFloat() * 200 - 100);
+            if (i % 2 == 0) {
+                scene.add(new Sphere(p, 1, Color.RED, 3).getMesh());
+            } else {
+                scene.add(new Cylinder(p, new Vector3f(p.x, p.y + 2, p.z), 0.5f, Color.BLUE).getMesh());
+            }
+        }
+        culler = new FrustumCuller(scene);
+    }
+
+    /**
+     * culls the scene against the frustum in parallel
+     * @return - the visible ranges
+     */
+    @Benchmark
+    public List<DrawRange> frustum() {
+        return culler.cull(frustum, null);
+    }
+
+    /**
+     * culls the scene against the frustum on the calling thread
+     * @return - the visible ranges
+     */
+    @Benchmark
+    public List<DrawRange> frustumSequential() {
+        return culler.cull(frustum, null, null);
+    }
+
+    /**
+     * culls the scene against the frustum and rejects triangles facing away from the camera, in parallel
+     * @return - the visible ranges
+     */
+    @Benchmark
+    public List<DrawRange> backFace() {
+        return culler.cull(frustum, eye);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cylinder;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CylinderBenchmark {
+
+    // the amount of triangles in each end of the cylinder
+    @Param({"8", "32", "120", "480"})
+    public int smoothness;
+
+    // the centers of the ends of the cylinder
+    private final Vector3f p1 = new Vector3f(1, 2, 3);
+    private final Vector3f p2 = new Vector3f(4, 6, 3);
+
+    /**
+     * generates the mesh of a cylinder
+     * @param cache - whether the unit mesh is cached
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer mesh(CacheState cache) {
+        return new Cylinder(p1, p2, 2.5f, Color.RED, smoothness).getMesh();
+    }
+
+    /**
+     * generates the mesh of a cylinder and builds its list of triangles
+     * @param cache - whether the unit mesh is cached
+     * @return - the triangles
+     */
+    @Benchmark
+    public ArrayList<?> faces(CacheState cache) {
+        return new Cylinder(p1, p2, 2.5f, Color.RED, smoothness).getFaces();
+    }
+
+}
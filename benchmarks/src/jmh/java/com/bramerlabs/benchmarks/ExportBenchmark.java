@@ -0,0 +1,144 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.io.MeshExporter;
+import com.bramerlabs.io.ObjExporter;
+import com.bramerlabs.io.PlyExporter;
+import com.bramerlabs.io.StlExporter;
+import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExportBenchmark {
+
+    // the amount of spheres in the scene, each with 5120 triangles
+    @Param({"10", "100"})
+    public int spheres;
+
+    // the meshes of the scene
+    private final ArrayList<MeshBuffer> scene = new ArrayList<>();
+
+    // the exporters, reused by every export as they would be by an application
+    private final MeshExporter stl = new StlExporter();
+    private final MeshExporter ply = new PlyExporter();
+    private final MeshExporter obj = new ObjExporter();
+
+    // a channel that throws away what is written, so only the formatting is measured
+    private final Discard channel = new Discard();
+
+    /**
+     * builds the scene
+     */
+    @Setup
+    public void setup() {
+        scene.clear();
+        for (int i = 0; i < spheres; i++) {
+            scene.add(new Sphere(new Vector3f(i, i * 0.5f, -i), 1.5f, Color.RED, 4, true).getMesh());
+        }
+    }
+
+    /**
+     * exports the scene as binary STL
+     * @return - the amount of bytes written
+     * @throws IOException - never, the channel discards everything
+     */
+    @Benchmark
+    public long stl() throws IOException {
+        channel.bytes = 0;
+        stl.export(channel, scene);
+        return channel.bytes;
+    }
+
+    /**
+     * exports the scene as binary PLY
+     * @return - the amount of bytes written
+     * @throws IOException - never, the channel discards everything
+     */
+    @Benchmark
+    public long ply() throws IOException {
+        channel.bytes = 0;
+        ply.export(channel, scene);
+        return channel.bytes;
+    }
+
+    /**
+     * exports the scene as ASCII OBJ
+     * @return - the amount of bytes written
+     * @throws IOException - never, the channel discards everything
+     */
+    @Benchmark
+    public long obj() throws IOException {
+        channel.bytes = 0;
+        obj.export(channel, scene);
+        return channel.bytes;
+    }
+
+    /**
+     * writes the scene as text through Triangle.toString(), the way it was exported before the exporters
+     * @return - the amount of bytes written
+     * @throws IOException - never, the channel discards everything
+     */
+    @Benchmark
+    public long triangleToString() throws IOException {
+        channel.bytes = 0;
+        for (MeshBuffer mesh : scene) {
+            for (Triangle triangle : mesh.toTriangles()) {
+                channel.write(ByteBuffer.wrap((triangle + "\n").getBytes(StandardCharsets.US_ASCII)));
+            }
+        }
+        return channel.bytes;
+    }
+
+    /**
+     * a channel that counts and throws away the bytes written to it
+     */
+    private static class Discard implements WritableByteChannel {
+
+        // the amount of bytes written
+        private long bytes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            src.position(src.limit());
+            bytes += length;
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.GeodesicSphere;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeodesicSphereBenchmark {
+
+    // the triangle budget of the sphere - 5120 and 81920 match spheres of depth 4 and 6 in SphereBenchmark
+    @Param({"5120", "12000", "81920"})
+    public int triangles;
+
+    // where the sphere is generated
+    private final Vector3f position = new Vector3f(1, 2, 3);
+
+    /**
+     * generates the indexed mesh of a sphere with as many triangles as fit in the budget
+     * @param cache - whether the unit mesh is cached
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer mesh(CacheState cache) {
+        return GeodesicSphere.withBudget(position, 2.5f, Color.RED, triangles).getMesh();
+    }
+
+}
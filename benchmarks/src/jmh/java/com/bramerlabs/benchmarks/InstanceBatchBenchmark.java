@@ -0,0 +1,110 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cylinder;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.InstanceBatch;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstanceBatchBenchmark {
+
+    // the amount of spheres and cylinders, like the atoms and bonds of a ball-and-stick model
+    @Param({"1000", "10000"})
+    public int instances;
+
+    // the instance parameters - packed positions and end points, radii, and colors
+    private float[] p1, p2, radii;
+    private Color[] colors;
+
+    /**
+     * generates random instance parameters
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        p1 = new float[instances * 3];
+        p2 = new float[instances * 3];
+        radii = new float[instances];
+        colors = new Color[instances];
+        for (int i = 0; i < instances * 3; i++) {
+            p1[i] = random.nextFloat() * 100;
+            p2[i] = p1[i] + random.nextFloat() * 2 - 1;
+        }
+        for (int i = 0; i < instances; i++) {
+            radii[i] = 0.25f + random.nextFloat();
+            colors[i] = new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+        }
+    }
+
+    /**
+     * generates every sphere as its own mesh, as before batching
+     * @return - the meshes
+     */
+    @Benchmark
+    public MeshBuffer[] spheres() {
+        MeshBuffer[] meshes = new MeshBuffer[instances];
+        for (int i = 0; i < instances; i++) {
+            Vector3f position = new Vector3f(p1[i * 3], p1[i * 3 + 1], p1[i * 3 + 2]);
+            meshes[i] = new Sphere(position, radii[i], colors[i], 3, true).getMesh();
+        }
+        return meshes;
+    }
+
+    @Benchmark
+    public InstanceBatch sphereBatch() {
+        return Sphere.batch(p1, radii, colors, 3);
+    }
+
+    @Benchmark
+    public MeshBuffer sphereBatchMerged() {
+        return Sphere.batch(p1, radii, colors, 3).toMesh();
+    }
+
+    /**
+     * generates every cylinder as its own mesh, as before batching
+     * @return - the meshes
+     */
+    @Benchmark
+    public MeshBuffer[] cylinders() {
+        MeshBuffer[] meshes = new MeshBuffer[instances];
+        for (int i = 0; i < instances; i++) {
+            Vector3f start = new Vector3f(p1[i * 3], p1[i * 3 + 1], p1[i * 3 + 2]);
+            Vector3f end = new Vector3f(p2[i * 3], p2[i * 3 + 1], p2[i * 3 + 2]);
+            meshes[i] = new Cylinder(start, end, radii[i], colors[i], 24).getMesh();
+        }
+        return meshes;
+    }
+
+    @Benchmark
+    public InstanceBatch cylinderBatch() {
+        return Cylinder.batch(p1, p2, radii, colors, 24);
+    }
+
+    @Benchmark
+    public MeshBuffer cylinderBatchMerged() {
+        return Cylinder.batch(p1, p2, radii, colors, 24).toMesh();
+    }
+
+}
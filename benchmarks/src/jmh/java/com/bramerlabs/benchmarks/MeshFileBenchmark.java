@@ -0,0 +1,99 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.io.MappedMesh;
+import com.bramerlabs.io.MeshFile;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.TessellationCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MeshFileBenchmark {
+
+    // the amount of times each face of the icosahedron is subdivided
+    @Param({"4", "6", "8"})
+    public int depth;
+
+    // the file holding the indexed unit sphere
+    private Path file;
+
+    // the size limit of the shared cache before the benchmark
+    private long maxBytes;
+
+    /**
+     * writes the indexed unit sphere to a temporary file, then turns off the shared tessellation cache
+     * @throws IOException - if the file can't be written
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("sphere", ".osmf");
+        MeshFile.write(file, Sphere.getUnitIndexedMesh(depth), "indexed sphere", depth);
+
+        TessellationCache cache = TessellationCache.getShared();
+        maxBytes = cache.getMaxBytes();
+        cache.clear();
+        cache.setMaxBytes(0);
+    }
+
+    /**
+     * deletes the temporary file and restores the size limit of the shared tessellation cache
+     * @throws IOException - if the file can't be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(file);
+        TessellationCache.getShared().setMaxBytes(maxBytes);
+    }
+
+    /**
+     * tessellates the indexed unit sphere from scratch, which is what the file replaces on startup
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer tessellate() {
+        return Sphere.getUnitIndexedMesh(depth);
+    }
+
+    /**
+     * maps the file without reading the mesh
+     * @return - the mapped mesh
+     * @throws IOException - if the file can't be read
+     */
+    @Benchmark
+    public MappedMesh map() throws IOException {
+        return MeshFile.map(file);
+    }
+
+    /**
+     * maps the file and copies the mesh into a mesh buffer, as preloading a tessellation cache does
+     * @return - the mesh
+     * @throws IOException - if the file can't be read
+     */
+    @Benchmark
+    public MeshBuffer load() throws IOException {
+        return MeshFile.map(file).toMeshBuffer();
+    }
+
+}
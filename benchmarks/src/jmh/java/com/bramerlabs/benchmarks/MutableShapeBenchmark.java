@@ -0,0 +1,82 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cylinder;
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutableShapeBenchmark {
+
+    // the recursion depth of the sphere, and the smoothness of the cylinder
+    @Param({"3", "5"})
+    public int depth;
+
+    // a sphere and cylinder whose meshes are moved in place every frame
+    private Sphere sphere;
+    private Cylinder cylinder;
+
+    // the frame, used to move the shapes somewhere new each time
+    private int frame;
+
+    /**
+     * generates the meshes of the shapes, and fills the tessellation cache for the rebuilt shapes
+     */
+    @Setup
+    public void setup() {
+        sphere = new Sphere(new Vector3f(), 1, Color.RED, depth);
+        sphere.getMesh();
+        cylinder = new Cylinder(new Vector3f(), new Vector3f(0, 1, 0), 1, Color.BLUE, 30 * depth);
+        cylinder.getMesh();
+    }
+
+    @Benchmark
+    public MeshBuffer moveSphere() {
+        frame++;
+        sphere.setPosition(new Vector3f(frame % 7, frame % 5, frame % 3));
+        MeshBuffer mesh = sphere.getMesh();
+        mesh.clearDirty();
+        return mesh;
+    }
+
+    @Benchmark
+    public MeshBuffer rebuildSphere() {
+        frame++;
+        return new Sphere(new Vector3f(frame % 7, frame % 5, frame % 3), 1, Color.RED, depth).getMesh();
+    }
+
+    @Benchmark
+    public MeshBuffer moveCylinder() {
+        frame++;
+        cylinder.setEnds(new Vector3f(), new Vector3f(frame % 7, 1, frame % 3));
+        MeshBuffer mesh = cylinder.getMesh();
+        mesh.clearDirty();
+        return mesh;
+    }
+
+    @Benchmark
+    public MeshBuffer rebuildCylinder() {
+        frame++;
+        return new Cylinder(new Vector3f(), new Vector3f(frame % 7, 1, frame % 3), 1, Color.BLUE, 30 * depth).getMesh();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.GeodesicSphere;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.QuantizedMesh;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuantizedMeshBenchmark {
+
+    // the subdivision frequency of the sphere
+    @Param({"8", "40"})
+    public int frequency;
+
+    // the mesh of the sphere and its packed vertices
+    private MeshBuffer mesh;
+    private QuantizedMesh quantized;
+
+    // the reused buffer the vertices and indices are written to
+    private ByteBuffer buffer;
+
+    /**
+     * generates the sphere and a buffer large enough for its float vertices and indices
+     */
+    @Setup
+    public void setup() {
+        mesh = new GeodesicSphere(new Vector3f(5, 0, -20), 3, Color.CYAN, frequency).getMesh();
+        quantized = QuantizedMesh.encode(mesh);
+        int floats = mesh.getVertexCount() * MeshWriter.STRIDE_WITH_NORMALS;
+        buffer = ByteBuffer.allocateDirect((floats + mesh.getIndexCount()) * Float.BYTES)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * writes the float vertices and 32 bit indices of the sphere
+     * @return - the amount of bytes written
+     */
+    @Benchmark
+    public int writeFloats() {
+        buffer.clear();
+        MeshWriter.writeVertices(mesh, buffer, true);
+        buffer.asIntBuffer().put(mesh.getIndices(), 0, mesh.getIndexCount());
+        return buffer.position() + mesh.getIndexCount() * Integer.BYTES;
+    }
+
+    /**
+     * writes the already packed vertices and indices of the sphere
+     * @return - the amount of bytes written
+     */
+    @Benchmark
+    public int writeQuantized() {
+        buffer.clear();
+        quantized.writeVertices(buffer);
+        quantized.writeIndices(buffer);
+        return buffer.position();
+    }
+
+    /**
+     * packs the sphere, as done once when it is generated
+     * @return - the packed sphere
+     */
+    @Benchmark
+    public QuantizedMesh encode() {
+        return QuantizedMesh.encode(mesh);
+    }
+
+    /**
+     * unpacks the sphere back into floats
+     * @return - the unpacked sphere
+     */
+    @Benchmark
+    public MeshBuffer decode() {
+        return quantized.decode();
+    }
+
+}
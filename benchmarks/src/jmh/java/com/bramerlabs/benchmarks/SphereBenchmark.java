@@ -0,0 +1,90 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.ChunkedTriangleSink;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SphereBenchmark {
+
+    // the amount of times each face of the icosahedron is subdivided
+    @Param({"0", "2", "4", "6"})
+    public int depth;
+
+    // where the sphere is generated
+    private final Vector3f position = new Vector3f(1, 2, 3);
+
+    // receives the streamed triangles, passing each full chunk to the blackhole
+    private ChunkedTriangleSink sink;
+
+    /**
+     * creates the sink
+     * @param blackhole - consumes each chunk
+     */
+    @Setup
+    public void setup(Blackhole blackhole) {
+        sink = new ChunkedTriangleSink(1024, false, blackhole::consume);
+    }
+
+    /**
+     * generates the mesh of a sphere
+     * @param cache - whether the unit mesh is cached
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer mesh(CacheState cache) {
+        return new Sphere(position, 2.5f, Color.RED, depth).getMesh();
+    }
+
+    /**
+     * generates the indexed mesh of a sphere
+     * @param cache - whether the unit mesh is cached
+     * @return - the mesh
+     */
+    @Benchmark
+    public MeshBuffer indexedMesh(CacheState cache) {
+        return new Sphere(position, 2.5f, Color.RED, depth, true).getMesh();
+    }
+
+    /**
+     * generates the mesh of a sphere and builds its list of triangles
+     * @param cache - whether the unit mesh is cached
+     * @return - the triangles
+     */
+    @Benchmark
+    public ArrayList<?> faces(CacheState cache) {
+        return new Sphere(position, 2.5f, Color.RED, depth).getFaces();
+    }
+
+    /**
+     * streams the triangles of a sphere into a reused chunk without building its mesh
+     */
+    @Benchmark
+    public void stream() {
+        new Sphere(position, 2.5f, Color.RED, depth).generate(sink);
+        sink.flush();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Cylinder;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.PrimitiveBuffer;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StripBenchmark {
+
+    // the amount of triangles in each end of the cylinders
+    @Param({"8", "32", "120"})
+    public int smoothness;
+
+    // the amount of cylinders written, like the cables of a scene
+    private static final int count = 256;
+
+    // the meshes and strips of the cylinders
+    private MeshBuffer[] meshes;
+    private PrimitiveBuffer[] strips;
+
+    // the reused buffer the vertices and indices are written to
+    private ByteBuffer buffer;
+
+    /**
+     * generates the cylinders and a buffer large enough for their triangle lists
+     */
+    @Setup
+    public void setup() {
+        meshes = new MeshBuffer[count];
+        strips = new PrimitiveBuffer[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            Cylinder cylinder = new Cylinder(new Vector3f(i, 0, 0), new Vector3f(i, 10, i % 7), 0.2f, Color.GRAY,
+                    smoothness);
+            meshes[i] = cylinder.getMesh();
+            strips[i] = cylinder.getStrips();
+            length += cylinder.getInterleavedLength(true);
+        }
+        buffer = ByteBuffer.allocateDirect(length * Float.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * writes every triangle of every cylinder with its 3 vertices, as drawn with GL_TRIANGLES
+     * @return - the amount of bytes written
+     */
+    @Benchmark
+    public int triangleList() {
+        buffer.clear();
+        for (MeshBuffer mesh : meshes) {
+            MeshWriter.writeInterleaved(mesh, buffer, true);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * writes every vertex of every cylinder once followed by its strip indices, as drawn with GL_TRIANGLE_STRIP
+     * @return - the amount of bytes written
+     */
+    @Benchmark
+    public int strips() {
+        buffer.clear();
+        for (PrimitiveBuffer strip : strips) {
+            MeshWriter.writeVertices(strip.getVertices(), buffer, true);
+            strip.writeIndices(buffer);
+        }
+        return buffer.position();
+    }
+
+}
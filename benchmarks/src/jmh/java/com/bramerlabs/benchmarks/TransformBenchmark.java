@@ -0,0 +1,81 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.support.Transform;
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class TransformBenchmark {
+
+    // the amount of positions transformed
+    @Param({"1000", "1000000"})
+    public int count;
+
+    // the positions, and where the transformed positions are written
+    private float[] src, dst;
+
+    // a rotation with a translation, and a scale with a translation
+    private final Transform affine = Transform.frame(new Vector3f(1, 2, 3),
+            new Vector3f(0, 1, 0), new Vector3f(0, 0, 1), new Vector3f(1, 0, 0));
+    private final Transform translateScale = Transform.translateScale(new Vector3f(1, 2, 3), 2.5f);
+
+    /**
+     * generates random positions
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        src = new float[count * 3];
+        dst = new float[count * 3];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = random.nextFloat() * 2 - 1;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public float[] affine() {
+        affine.apply(src, 0, dst, 0, count);
+        return dst;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dcom.bramerlabs.simd=false"})
+    public float[] affineScalar() {
+        affine.apply(src, 0, dst, 0, count);
+        return dst;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public float[] translateScale() {
+        translateScale.apply(src, 0, dst, 0, count);
+        return dst;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dcom.bramerlabs.simd=false"})
+    public float[] translateScaleScalar() {
+        translateScale.apply(src, 0, dst, 0, count);
+        return dst;
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.support.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Vector3fBenchmark {
+
+    // the operands - v is modified in place by the benchmarks that mutate, and stays close to unit length
+    private final Vector3f v = new Vector3f(0.267f, 0.535f, 0.802f);
+    private final Vector3f u = new Vector3f(-0.5f, 0.25f, 0.125f);
+
+    // destinations for the allocation-free operations
+    private final Vector3f dest = new Vector3f();
+    private final float[] packed = {0.267f, 0.535f, 0.802f, -0.5f, 0.25f, 0.125f, 0, 0, 0};
+
+    @Benchmark
+    public Vector3f cross() {
+        return Vector3f.cross(v, u);
+    }
+
+    @Benchmark
+    public Vector3f crossInto() {
+        return Vector3f.cross(v, u, dest);
+    }
+
+    @Benchmark
+    public float[] crossPacked() {
+        Vector3f.cross(packed, 0, packed, 3, packed, 6);
+        return packed;
+    }
+
+    @Benchmark
+    public float dot() {
+        return Vector3f.dot(v, u);
+    }
+
+    @Benchmark
+    public float distance() {
+        return Vector3f.distance(v, u);
+    }
+
+    @Benchmark
+    public Vector3f addSubtract() {
+        return v.add(u).subtract(u);
+    }
+
+    @Benchmark
+    public Vector3f addInto() {
+        return Vector3f.add(v, u, dest);
+    }
+
+    @Benchmark
+    public float[] addPacked() {
+        Vector3f.add(packed, 0, packed, 3, packed, 6);
+        return packed;
+    }
+
+    @Benchmark
+    public Vector3f scale() {
+        return v.scale(1.0f);
+    }
+
+    @Benchmark
+    public Vector3f normalize() {
+        return v.normalize();
+    }
+
+    @Benchmark
+    public Vector3f normalizeToLength() {
+        return v.normalize(1.0f);
+    }
+
+    @Benchmark
+    public Vector3f normalizeInto() {
+        return Vector3f.normalize(u, dest);
+    }
+
+    @Benchmark
+    public float[] normalizePacked() {
+        Vector3f.normalize(packed, 3, packed, 6);
+        return packed;
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return v.hashCode();
+    }
+
+    @Benchmark
+    public float[] toFloats() {
+        return v.toFloats();
+    }
+
+    @Benchmark
+    public float[] toFloatsInto() {
+        return v.toFloats(packed, 6);
+    }
+
+    @Benchmark
+    public Vector3f copy() {
+        return new Vector3f(v);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.bramerlabs.benchmarks;
+
+import com.bramerlabs.shapes3d.Sphere;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.VertexCacheOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VertexCacheBenchmark {
+
+    // the amount of times each face of the icosahedron is subdivided
+    @Param({"4", "6"})
+    public int depth;
+
+    // the indexed and unindexed meshes of a unit sphere
+    private MeshBuffer indexed, list;
+
+    /**
+     * generates the meshes
+     */
+    @Setup
+    public void setup() {
+        indexed = Sphere.getUnitIndexedMesh(depth);
+        list = Sphere.getUnitMesh(depth);
+    }
+
+    /**
+     * reorders the triangles and vertices of an indexed mesh
+     * @return - the reordered mesh
+     */
+    @Benchmark
+    public MeshBuffer optimizeIndexed() {
+        return VertexCacheOptimizer.optimize(indexed);
+    }
+
+    /**
+     * indexes a triangle list, then reorders its triangles and vertices
+     * @return - the reordered mesh
+     */
+    @Benchmark
+    public MeshBuffer optimizeList() {
+        return VertexCacheOptimizer.optimize(list);
+    }
+
+    /**
+     * measures the ACMR of an indexed mesh
+     * @return - the ACMR
+     */
+    @Benchmark
+    public float acmr() {
+        return VertexCacheOptimizer.getAcmr(indexed);
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.bramerlabs.support;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * transforms positions with the Vector API, a full vector of floats at a time.
+ * positions are packed x, y, z, so a block of 3 vectors always holds whole positions, and the component in each
+ * lane repeats from block to block. requires Java 17 and --add-modules jdk.incubator.vector - Transform only loads it then
+ */
+class VectorTransformKernel implements TransformKernel {
+
+    // the widest vector the cpu supports, and the amount of floats in it
+    private static final VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+    private static final int lanes = species.length();
+
+    // for vector c of a block, the component held by each lane - 0 for x, 1 for y, 2 for z
+    private static final int[][] components = new int[3][lanes];
+
+    // for vector c of a block, the lanes holding a y component and the lanes holding a z component
+    private static final VectorMask<Float>[] holdsY = newMasks(1);
+    private static final VectorMask<Float>[] holdsZ = newMasks(2);
+
+    static {
+        for (int c = 0; c < 3; c++) {
+            for (int k = 0; k < lanes; k++) {
+                components[c][k] = (c * lanes + k) % 3;
+            }
+        }
+    }
+
+    /**
+     * builds the masks of the lanes holding one component, for each vector of a block
+     * @param component - the component, 0 for x, 1 for y, 2 for z
+     * @return - the 3 masks
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static VectorMask<Float>[] newMasks(int component) {
+        VectorMask<Float>[] masks = new VectorMask[3];
+        boolean[] bits = new boolean[lanes];
+        for (int c = 0; c < 3; c++) {
+            for (int k = 0; k < lanes; k++) {
+                bits[k] = (c * lanes + k) % 3 == component;
+            }
+            masks[c] = VectorMask.fromArray(species, bits, 0);
+        }
+        return masks;
+    }
+
+    @Override
+    public void affine(float[] m, int mOffset, float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        // each lane multiplies by the row of the matrix for its component - kept in locals rather than arrays so the
+        // compiler can hold them in registers
+        FloatVector a0 = row(m, mOffset, 0, 0), b0 = row(m, mOffset, 0, 1), c0 = row(m, mOffset, 0, 2), d0 = row(m, mOffset, 0, 3);
+        FloatVector a1 = row(m, mOffset, 1, 0), b1 = row(m, mOffset, 1, 1), c1 = row(m, mOffset, 1, 2), d1 = row(m, mOffset, 1, 3);
+        FloatVector a2 = row(m, mOffset, 2, 0), b2 = row(m, mOffset, 2, 1), c2 = row(m, mOffset, 2, 2), d2 = row(m, mOffset, 2, 3);
+        VectorMask<Float> y0 = holdsY[0], y1 = holdsY[1], y2 = holdsY[2];
+        VectorMask<Float> z0 = holdsZ[0], z1 = holdsZ[1], z2 = holdsZ[2];
+
+        // the first position is done by the scalar loop, so the loads up to 2 floats before a block stay in the array
+        int block = 3 * lanes;
+        int length = count * 3;
+        int i = Math.min(3, length);
+        scalarAffine(m, mOffset, src, srcOffset, dst, dstOffset, 0, i);
+
+        for (; i + block + 2 <= length; i += block) {
+            int offset = srcOffset + i;
+            FloatVector out0 = affine(src, offset, a0, b0, c0, d0, y0, z0);
+            FloatVector out1 = affine(src, offset + lanes, a1, b1, c1, d1, y1, z1);
+            FloatVector out2 = affine(src, offset + 2 * lanes, a2, b2, c2, d2, y2, z2);
+
+            // every lane only reads its own position, but write once the whole block is read in case dst is src
+            out0.intoArray(dst, dstOffset + i);
+            out1.intoArray(dst, dstOffset + i + lanes);
+            out2.intoArray(dst, dstOffset + i + 2 * lanes);
+        }
+
+        // the last few positions that don't fill a block
+        scalarAffine(m, mOffset, src, srcOffset, dst, dstOffset, i, length);
+    }
+
+    /**
+     * transforms one vector of floats
+     * @param src - the positions to transform
+     * @param offset - the index in src of the first float of the vector
+     * @param a - the x coefficient of each lane
+     * @param b - the y coefficient of each lane
+     * @param c - the z coefficient of each lane
+     * @param d - the translation of each lane
+     * @param holdsY - the lanes holding a y component
+     * @param holdsZ - the lanes holding a z component
+     * @return - the transformed floats
+     */
+    private static FloatVector affine(float[] src, int offset, FloatVector a, FloatVector b, FloatVector c, FloatVector d,
+                                      VectorMask<Float> holdsY, VectorMask<Float> holdsZ) {
+        // the floats from 2 before to 2 after each lane - a lane holding component j of a position finds
+        // the x of that position j floats back, the y j - 1 floats back, and the z j - 2 floats back
+        FloatVector back2 = FloatVector.fromArray(species, src, offset - 2);
+        FloatVector back1 = FloatVector.fromArray(species, src, offset - 1);
+        FloatVector here = FloatVector.fromArray(species, src, offset);
+        FloatVector ahead1 = FloatVector.fromArray(species, src, offset + 1);
+        FloatVector ahead2 = FloatVector.fromArray(species, src, offset + 2);
+        FloatVector x = here.blend(back1, holdsY).blend(back2, holdsZ);
+        FloatVector y = ahead1.blend(here, holdsY).blend(back1, holdsZ);
+        FloatVector z = ahead2.blend(ahead1, holdsY).blend(here, holdsZ);
+
+        // same order of operations as the scalar kernel, so both give the same result
+        return x.mul(a).add(y.mul(b)).add(z.mul(c)).add(d);
+    }
+
+    /**
+     * spreads one column of the matrix across the lanes of a vector, following the component of each lane
+     * @param m - the array holding the matrix
+     * @param mOffset - the index in m of the first value of the matrix
+     * @param c - which vector of a block the lanes are in
+     * @param column - the column of the matrix
+     * @return - the vector
+     */
+    private static FloatVector row(float[] m, int mOffset, int c, int column) {
+        float[] values = new float[lanes];
+        for (int k = 0; k < lanes; k++) {
+            values[k] = m[mOffset + components[c][k] * 4 + column];
+        }
+        return FloatVector.fromArray(species, values, 0);
+    }
+
+    /**
+     * transforms the positions in a range of floats one at a time
+     */
+    private static void scalarAffine(float[] m, int mOffset, float[] src, int srcOffset, float[] dst, int dstOffset,
+                                     int from, int to) {
+        float m0 = m[mOffset],     m1 = m[mOffset + 1], m2  = m[mOffset + 2],  m3  = m[mOffset + 3];
+        float m4 = m[mOffset + 4], m5 = m[mOffset + 5], m6  = m[mOffset + 6],  m7  = m[mOffset + 7];
+        float m8 = m[mOffset + 8], m9 = m[mOffset + 9], m10 = m[mOffset + 10], m11 = m[mOffset + 11];
+        for (int i = from; i < to; i += 3) {
+            float x = src[srcOffset + i];
+            float y = src[srcOffset + i + 1];
+            float z = src[srcOffset + i + 2];
+            dst[dstOffset + i]     = m0 * x + m1 * y + m2  * z + m3;
+            dst[dstOffset + i + 1] = m4 * x + m5 * y + m6  * z + m7;
+            dst[dstOffset + i + 2] = m8 * x + m9 * y + m10 * z + m11;
+        }
+    }
+
+    @Override
+    public void scaleTranslate(float sx, float sy, float sz, float tx, float ty, float tz,
+                               float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        // each lane scales and translates by the factors for its component
+        float[] s = {sx, sy, sz};
+        float[] t = {tx, ty, tz};
+        FloatVector s0 = spread(s, 0), s1 = spread(s, 1), s2 = spread(s, 2);
+        FloatVector t0 = spread(t, 0), t1 = spread(t, 1), t2 = spread(t, 2);
+
+        // every lane only reads the float it writes, so the block can be written as it is read
+        int block = 3 * lanes;
+        int length = count * 3;
+        int i = 0;
+        for (; i + block <= length; i += block) {
+            FloatVector.fromArray(species, src, srcOffset + i).mul(s0).add(t0)
+                    .intoArray(dst, dstOffset + i);
+            FloatVector.fromArray(species, src, srcOffset + i + lanes).mul(s1).add(t1)
+                    .intoArray(dst, dstOffset + i + lanes);
+            FloatVector.fromArray(species, src, srcOffset + i + 2 * lanes).mul(s2).add(t2)
+                    .intoArray(dst, dstOffset + i + 2 * lanes);
+        }
+
+        // the last few positions that don't fill a block
+        for (; i < length; i += 3) {
+            dst[dstOffset + i]     = sx * src[srcOffset + i]     + tx;
+            dst[dstOffset + i + 1] = sy * src[srcOffset + i + 1] + ty;
+            dst[dstOffset + i + 2] = sz * src[srcOffset + i + 2] + tz;
+        }
+    }
+
+    /**
+     * spreads one value per component across the lanes of a vector, following the component of each lane
+     * @param values - the x, y, and z values
+     * @param c - which vector of a block the lanes are in
+     * @return - the vector
+     */
+    private static FloatVector spread(float[] values, int c) {
+        float[] lane = new float[lanes];
+        for (int k = 0; k < lanes; k++) {
+            lane[k] = values[components[c][k]];
+        }
+        return FloatVector.fromArray(species, lane, 0);
+    }
+
+}
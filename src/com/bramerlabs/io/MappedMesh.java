@@ -0,0 +1,271 @@
+package com.bramerlabs.io;
+
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.TriangleSink;
+import com.bramerlabs.support.Vector3f;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * a mesh read straight out of a mapped mesh file, without copying or parsing it
+ */
+public class MappedMesh {
+
+    // the type and resolution of the shape, from the header
+    private final String type;
+    private final int resolution;
+
+    // the flags of the file
+    private final int flags;
+
+    // the amount of vertices and indices
+    private final int vertexCount;
+    private final int indexCount;
+
+    // views of the sections of the mapped file - colors, normals, and indices are null if the file doesn't have them
+    private final FloatBuffer positions;
+    private final FloatBuffer colors;
+    private final FloatBuffer normals;
+    private final IntBuffer indices;
+
+    /**
+     * constructor for a mapped mesh file whose header has been checked
+     * @param type - the type of shape
+     * @param resolution - the resolution of the shape
+     * @param flags - the flags of the file
+     * @param vertexCount - the amount of vertices
+     * @param indexCount - the amount of indices
+     * @param file - the whole mapped file, in little-endian order
+     */
+    MappedMesh(String type, int resolution, int flags, int vertexCount, int indexCount, ByteBuffer file) {
+        this.type = type;
+        this.resolution = resolution;
+        this.flags = flags;
+        this.vertexCount = vertexCount;
+        this.indexCount = (flags & MeshFile.FLAG_INDEXED) != 0 ? indexCount : 0;
+
+        int offset = MeshFile.HEADER_BYTES;
+        this.positions = section(file, offset, vertexCount * 3 * Float.BYTES).asFloatBuffer();
+        offset += vertexCount * 3 * Float.BYTES;
+        if ((flags & MeshFile.FLAG_COLORS) != 0) {
+            this.colors = section(file, offset, vertexCount * 3 * Float.BYTES).asFloatBuffer();
+            offset += vertexCount * 3 * Float.BYTES;
+        } else {
+            this.colors = null;
+        }
+        if ((flags & MeshFile.FLAG_NORMALS) != 0) {
+            this.normals = section(file, offset, vertexCount * 3 * Float.BYTES).asFloatBuffer();
+            offset += vertexCount * 3 * Float.BYTES;
+        } else {
+            this.normals = null;
+        }
+        this.indices = (flags & MeshFile.FLAG_INDEXED) != 0 ?
+                section(file, offset, indexCount * Integer.BYTES).asIntBuffer() : null;
+    }
+
+    /**
+     * gets a little-endian slice of a buffer
+     * @param file - the buffer
+     * @param offset - the index of the first byte of the slice
+     * @param length - the amount of bytes in the slice
+     * @return - the slice
+     */
+    private static ByteBuffer section(ByteBuffer file, int offset, int length) {
+        ByteBuffer section = file.duplicate();
+        section.limit(offset + length).position(offset);
+        return section.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * copies this mesh into a new mesh buffer with bulk copies, such as to add it to a tessellation cache.
+     * a file without colors gives black vertices
+     * @return - the new mesh
+     */
+    public MeshBuffer toMeshBuffer() {
+        float[] p = new float[vertexCount * 3];
+        float[] c = new float[vertexCount * 3];
+        positions.duplicate().get(p);
+        if (colors != null) {
+            colors.duplicate().get(c);
+        }
+        float[] n = null;
+        if (normals != null) {
+            n = new float[vertexCount * 3];
+            normals.duplicate().get(n);
+        }
+        int[] i = null;
+        if (indices != null) {
+            i = new int[indexCount];
+            indices.duplicate().get(i);
+        }
+        return new MeshBuffer(p, c, n, i);
+    }
+
+    /**
+     * passes every triangle of this mesh to a sink, expanding the index buffer if it has one, with the normal of each
+     * vertex if the file has normals
+     * @param sink - the sink to pass the triangles to
+     */
+    public void stream(TriangleSink sink) {
+        for (int i = 0; i < getTriangleCount() * 3; i += 3) {
+            int a = getIndex(i) * 3, b = getIndex(i + 1) * 3, d = getIndex(i + 2) * 3;
+            float r = colors == null ? 0 : colors.get(a);
+            float g = colors == null ? 0 : colors.get(a + 1);
+            float bl = colors == null ? 0 : colors.get(a + 2);
+            if (normals != null) {
+                sink.triangle(positions.get(a), positions.get(a + 1), positions.get(a + 2),
+                        positions.get(b), positions.get(b + 1), positions.get(b + 2),
+                        positions.get(d), positions.get(d + 1), positions.get(d + 2),
+                        normals.get(a), normals.get(a + 1), normals.get(a + 2),
+                        normals.get(b), normals.get(b + 1), normals.get(b + 2),
+                        normals.get(d), normals.get(d + 1), normals.get(d + 2), r, g, bl);
+            } else {
+                sink.triangle(positions.get(a), positions.get(a + 1), positions.get(a + 2),
+                        positions.get(b), positions.get(b + 1), positions.get(b + 2),
+                        positions.get(d), positions.get(d + 1), positions.get(d + 2), r, g, bl);
+            }
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the type of shape, such as "sphere"
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * getter method
+     * @return - the resolution of the shape, such as the depth of a sphere
+     */
+    public int getResolution() {
+        return this.resolution;
+    }
+
+    /**
+     * getter method
+     * @return - the flags of the file
+     */
+    public int getFlags() {
+        return this.flags;
+    }
+
+    /**
+     * getter method
+     * @return - true if this mesh has an index buffer
+     */
+    public boolean isIndexed() {
+        return this.indices != null;
+    }
+
+    /**
+     * getter method
+     * @return - true if this mesh has a normal for each vertex
+     */
+    public boolean hasNormals() {
+        return this.normals != null;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of vertices in this mesh
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of indices in this mesh, 0 for a triangle list
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles in this mesh
+     */
+    public int getTriangleCount() {
+        return (indices == null ? vertexCount : indexCount) / 3;
+    }
+
+    /**
+     * gets the vertex used by a corner of a triangle
+     * @param i - the corner, 3 * triangle + 0, 1, or 2
+     * @return - the index of the vertex
+     */
+    public int getIndex(int i) {
+        return indices == null ? i : indices.get(i);
+    }
+
+    /**
+     * gets the position of a vertex
+     * @param i - the index of the vertex
+     * @return - a new vector holding the position
+     */
+    public Vector3f getPosition(int i) {
+        return new Vector3f(positions.get(i * 3), positions.get(i * 3 + 1), positions.get(i * 3 + 2));
+    }
+
+    /**
+     * gets the color of a vertex
+     * @param i - the index of the vertex
+     * @return - a new vector holding the color, black if the file has no colors
+     */
+    public Vector3f getColor(int i) {
+        if (colors == null) {
+            return new Vector3f();
+        }
+        return new Vector3f(colors.get(i * 3), colors.get(i * 3 + 1), colors.get(i * 3 + 2));
+    }
+
+    /**
+     * gets the normal of a vertex
+     * @param i - the index of the vertex
+     * @return - a new vector holding the unit normal, or null if the file has no normals
+     */
+    public Vector3f getNormal(int i) {
+        if (normals == null) {
+            return null;
+        }
+        return new Vector3f(normals.get(i * 3), normals.get(i * 3 + 1), normals.get(i * 3 + 2));
+    }
+
+    /**
+     * getter method - a read-only view of the mapped file, shared by every call, so use absolute gets or duplicate()
+     * @return - the packed x, y, z positions of this mesh
+     */
+    public FloatBuffer getPositions() {
+        return this.positions;
+    }
+
+    /**
+     * getter method - a read-only view of the mapped file, shared by every call, so use absolute gets or duplicate()
+     * @return - the packed r, g, b colors of this mesh, or null if the file has no colors
+     */
+    public FloatBuffer getColors() {
+        return this.colors;
+    }
+
+    /**
+     * getter method - a read-only view of the mapped file, shared by every call, so use absolute gets or duplicate()
+     * @return - the packed x, y, z unit normals of this mesh, or null if the file has no normals
+     */
+    public FloatBuffer getNormals() {
+        return this.normals;
+    }
+
+    /**
+     * getter method - a read-only view of the mapped file, shared by every call, so use absolute gets or duplicate()
+     * @return - the index buffer of this mesh, or null for a triangle list
+     */
+    public IntBuffer getIndices() {
+        return this.indices;
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.bramerlabs.io;
+
+import com.bramerlabs.support.MeshBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * writes meshes to a file format through a channel. the file is built in a large direct buffer that is written to the
+ * channel whenever it fills up and reused by every export, so exporting allocates nothing per triangle.
+ * an exporter is not thread safe
+ */
+public abstract class MeshExporter {
+
+    // the default size of the buffer - 1 MB
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    // the smallest buffer allowed, enough for the largest single record of any format
+    private static final int minBufferBytes = 256;
+
+    // the buffer the file is built in
+    protected final ByteBuffer buffer;
+
+    // the channel being exported to - only set during an export
+    private WritableByteChannel channel;
+
+    // scratch space for writing numbers as text
+    private final byte[] digits = new byte[20];
+
+    /**
+     * default constructor
+     * @param bufferBytes - the size of the buffer, at least 256 bytes
+     * @param order - the byte order of the binary values of the format
+     */
+    protected MeshExporter(int bufferBytes, ByteOrder order) {
+        if (bufferBytes < minBufferBytes) {
+            throw new IllegalArgumentException("the buffer must be at least " + minBufferBytes + " bytes");
+        }
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes).order(order);
+    }
+
+    /**
+     * exports meshes to a file, replacing the file if it exists
+     * @param file - the file to write to
+     * @param meshes - the meshes to export, such as the meshes of the shapes in a scene
+     * @throws IOException - if the file can't be written
+     */
+    public void export(Path file, Iterable<MeshBuffer> meshes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            export(channel, meshes);
+        }
+    }
+
+    /**
+     * exports meshes to a channel. the channel is left open
+     * @param channel - the channel to write to
+     * @param meshes - the meshes to export, such as the meshes of the shapes in a scene
+     * @throws IOException - if the channel can't be written
+     */
+    public void export(WritableByteChannel channel, Iterable<MeshBuffer> meshes) throws IOException {
+        this.channel = channel;
+        buffer.clear();
+        try {
+            write(meshes);
+            flush();
+        } finally {
+            this.channel = null;
+        }
+    }
+
+    /**
+     * writes meshes in the format of this exporter, using ensure() before putting each record into the buffer
+     * @param meshes - the meshes to write
+     * @throws IOException - if the channel can't be written
+     */
+    protected abstract void write(Iterable<MeshBuffer> meshes) throws IOException;
+
+    /**
+     * makes sure the buffer has room for an amount of bytes, writing it to the channel if it doesn't
+     * @param bytes - the amount of bytes, at most 256
+     * @throws IOException - if the channel can't be written
+     */
+    protected void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    /**
+     * writes everything in the buffer to the channel and empties the buffer
+     * @throws IOException - if the channel can't be written
+     */
+    protected void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * puts text made of ASCII characters into the buffer
+     * @param text - the text
+     * @throws IOException - if the channel can't be written
+     */
+    protected void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            ensure(1);
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * puts a whole number into the buffer as text. the caller makes sure there is room for 20 bytes
+     * @param value - the number, at least 0
+     */
+    protected void putDecimal(long value) {
+        int i = digits.length;
+        do {
+            digits[--i] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, i, digits.length - i);
+    }
+
+    /**
+     * puts a float into the buffer as text with at most 6 decimal places, without trailing zeros.
+     * values too large for that fall back to Float.toString(). the caller makes sure there is room for 24 bytes
+     * @param value - the float
+     * @throws IOException - if the channel can't be written
+     */
+    protected void putDecimal(float value) throws IOException {
+        if (!(Math.abs(value) < 1e12f)) {
+            putAscii(Float.toString(value));
+            return;
+        }
+
+        long scaled = Math.round(Math.abs((double) value) * 1e6);
+        if (value < 0 && scaled != 0) {
+            buffer.put((byte) '-');
+        }
+        putDecimal(scaled / 1000000);
+
+        int fraction = (int) (scaled % 1000000);
+        if (fraction != 0) {
+            int places = 6;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                places--;
+            }
+            buffer.put((byte) '.');
+            int i = digits.length;
+            for (int p = 0; p < places; p++) {
+                digits[--i] = (byte) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            buffer.put(digits, i, places);
+        }
+    }
+
+}
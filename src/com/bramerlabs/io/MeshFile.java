@@ -0,0 +1,172 @@
+package com.bramerlabs.io;
+
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.TessellationCache;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * reads and writes meshes in a binary format that is loaded by mapping the file into memory, so loading a mesh
+ * costs page faults rather than parsing. every value is little-endian, and the file is laid out as
+ * <pre>
+ *   0  magic "OSMF"
+ *   4  int version
+ *   8  int flags - which of the sections below are present
+ *  12  int resolution of the shape, such as the depth of a sphere
+ *  16  int vertex count
+ *  20  int index count, 0 if the mesh is not indexed
+ *  24  the type of shape, such as "sphere", in UTF-8 padded with zeros to 24 bytes
+ *  48  reserved, zero
+ *  64  float positions, x, y, z per vertex
+ *      float colors, r, g, b per vertex, if FLAG_COLORS is set
+ *      float normals, x, y, z per vertex, if FLAG_NORMALS is set
+ *      int indices, if FLAG_INDEXED is set
+ * </pre>
+ */
+public class MeshFile {
+
+    // the first 4 bytes of every mesh file
+    private static final int magic = 'O' | 'S' << 8 | 'M' << 16 | 'F' << 24;
+
+    // the version written by this class
+    public static final int VERSION = 1;
+
+    // the size of the header in bytes, which keeps the sections after it aligned
+    public static final int HEADER_BYTES = 64;
+
+    // the most bytes the type of shape may take up
+    private static final int typeBytes = 24;
+
+    // set if the file has an index section
+    public static final int FLAG_INDEXED = 1;
+
+    // set if the file has a color section
+    public static final int FLAG_COLORS = 1 << 1;
+
+    // set if the file has a normal section
+    public static final int FLAG_NORMALS = 1 << 2;
+
+    /**
+     * writes a mesh to a file, replacing the file if it exists
+     * @param file - the file to write to
+     * @param mesh - the mesh to write
+     * @param type - the type of shape, such as "sphere", at most 24 bytes of UTF-8
+     * @param resolution - the resolution of the shape, such as the depth of a sphere
+     * @throws IOException - if the file can't be written
+     */
+    public static void write(Path file, MeshBuffer mesh, String type, int resolution) throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.UTF_8);
+        if (name.length > typeBytes) {
+            throw new IllegalArgumentException("the type of shape must be at most " + typeBytes + " bytes");
+        }
+        int flags = FLAG_COLORS | (mesh.isIndexed() ? FLAG_INDEXED : 0) | (mesh.hasNormals() ? FLAG_NORMALS : 0);
+        int vertexCount = mesh.getVertexCount();
+        int indexCount = mesh.getIndexCount();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    getLength(flags, vertexCount, indexCount));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(magic).putInt(VERSION).putInt(flags).putInt(resolution).putInt(vertexCount).putInt(indexCount);
+            buffer.put(name).position(HEADER_BYTES);
+
+            // bulk puts into the little-endian views, which are plain copies on little-endian hardware
+            buffer.asFloatBuffer().put(mesh.getPositions(), 0, vertexCount * 3);
+            buffer.position(buffer.position() + vertexCount * 3 * Float.BYTES);
+            buffer.asFloatBuffer().put(mesh.getColors(), 0, vertexCount * 3);
+            buffer.position(buffer.position() + vertexCount * 3 * Float.BYTES);
+            if (mesh.hasNormals()) {
+                buffer.asFloatBuffer().put(mesh.getNormals(), 0, vertexCount * 3);
+                buffer.position(buffer.position() + vertexCount * 3 * Float.BYTES);
+            }
+            if (mesh.isIndexed()) {
+                buffer.asIntBuffer().put(mesh.getIndices(), 0, indexCount);
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * maps a mesh file into memory. the mesh reads straight from the mapping, which stays valid after the file is closed
+     * @param file - the file to map
+     * @return - the mapped mesh
+     * @throws IOException - if the file can't be read or isn't a valid mesh file
+     */
+    public static MappedMesh map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is too short to be a mesh file");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != magic) {
+            throw new IOException(file + " is not a mesh file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " has unsupported version " + buffer.getInt(4));
+        }
+        int flags = buffer.getInt(8);
+        int resolution = buffer.getInt(12);
+        int vertexCount = buffer.getInt(16);
+        int indexCount = buffer.getInt(20);
+        if (vertexCount < 0 || indexCount < 0 || buffer.capacity() < getLength(flags, vertexCount, indexCount)) {
+            throw new IOException(file + " is truncated");
+        }
+
+        byte[] name = new byte[typeBytes];
+        buffer.position(24);
+        buffer.get(name);
+        int length = 0;
+        while (length < typeBytes && name[length] != 0) {
+            length++;
+        }
+        String type = new String(name, 0, length, StandardCharsets.UTF_8);
+
+        return new MappedMesh(type, resolution, flags, vertexCount, indexCount, buffer);
+    }
+
+    /**
+     * maps a mesh file and adds it to a tessellation cache under the type and resolution in its header, so shapes
+     * of that type and resolution skip tessellation
+     * @param cache - the cache to add the mesh to, such as TessellationCache.getShared()
+     * @param file - the file to load
+     * @return - the mesh in the cache
+     * @throws IOException - if the file can't be read or isn't a valid mesh file
+     */
+    public static MeshBuffer preload(TessellationCache cache, Path file) throws IOException {
+        MappedMesh mapped = map(file);
+        return cache.get(mapped.getType(), mapped.getResolution(), mapped::toMeshBuffer);
+    }
+
+    /**
+     * gets the length of a mesh file
+     * @param flags - the flags of the file
+     * @param vertexCount - the amount of vertices
+     * @param indexCount - the amount of indices
+     * @return - the length in bytes
+     */
+    static long getLength(int flags, int vertexCount, int indexCount) {
+        long length = HEADER_BYTES + (long) vertexCount * 3 * Float.BYTES;
+        if ((flags & FLAG_COLORS) != 0) {
+            length += (long) vertexCount * 3 * Float.BYTES;
+        }
+        if ((flags & FLAG_NORMALS) != 0) {
+            length += (long) vertexCount * 3 * Float.BYTES;
+        }
+        if ((flags & FLAG_INDEXED) != 0) {
+            length += (long) indexCount * Integer.BYTES;
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.bramerlabs.io;
+
+import com.bramerlabs.support.MeshBuffer;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+/**
+ * exports meshes as ASCII Wavefront OBJ - one object per mesh, with its vertices, its normals if it has them, and then
+ * its triangles as 1-based indices into every vertex written so far. indexed meshes keep their shared vertices.
+ * colors are written after the position of each vertex, which most tools that read OBJ understand
+ */
+public class ObjExporter extends MeshExporter {
+
+    /**
+     * constructor with a 1 MB buffer
+     */
+    public ObjExporter() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * constructor for a buffer size
+     * @param bufferBytes - the size of the buffer, at least 256 bytes
+     */
+    public ObjExporter(int bufferBytes) {
+        super(bufferBytes, ByteOrder.nativeOrder());
+    }
+
+    @Override
+    protected void write(Iterable<MeshBuffer> meshes) throws IOException {
+        putAscii("# written by open-shapes\n");
+
+        // OBJ indices start at 1 and count every vertex or normal in the file
+        long offset = 1;
+        long normalOffset = 1;
+        int object = 0;
+        for (MeshBuffer mesh : meshes) {
+            putAscii("o shape" + object++ + "\n");
+
+            float[] p = mesh.getPositions();
+            float[] c = mesh.getColors();
+            for (int i = 0; i < mesh.getVertexCount() * 3; i += 3) {
+                // "v" and 6 numbers with a separator each
+                ensure(2 + 6 * 25);
+                buffer.put((byte) 'v');
+                putValue(p[i]);
+                putValue(p[i + 1]);
+                putValue(p[i + 2]);
+                putValue(c[i]);
+                putValue(c[i + 1]);
+                putValue(c[i + 2]);
+                buffer.put((byte) '\n');
+            }
+
+            float[] n = mesh.getNormals();
+            for (int i = 0; n != null && i < mesh.getVertexCount() * 3; i += 3) {
+                // "vn" and 3 numbers with a separator each
+                ensure(3 + 3 * 25);
+                buffer.put((byte) 'v').put((byte) 'n');
+                putValue(n[i]);
+                putValue(n[i + 1]);
+                putValue(n[i + 2]);
+                buffer.put((byte) '\n');
+            }
+
+            for (int i = 0; i < mesh.getTriangleCount() * 3; i += 3) {
+                // "f" and 3 corners of 2 indices with separators each
+                ensure(2 + 3 * 43);
+                buffer.put((byte) 'f');
+                putCorner(offset, n != null ? normalOffset : 0, mesh.getIndex(i));
+                putCorner(offset, n != null ? normalOffset : 0, mesh.getIndex(i + 1));
+                putCorner(offset, n != null ? normalOffset : 0, mesh.getIndex(i + 2));
+                buffer.put((byte) '\n');
+            }
+            offset += mesh.getVertexCount();
+            if (n != null) {
+                normalOffset += mesh.getVertexCount();
+            }
+        }
+    }
+
+    /**
+     * puts a space and then a corner of a face into the buffer - the index of the vertex, then "//" and the index of
+     * its normal if the mesh has normals
+     * @param offset - the index in the file of the first vertex of the mesh
+     * @param normalOffset - the index in the file of the first normal of the mesh, or 0 if it has no normals
+     * @param index - the index of the vertex in the mesh
+     */
+    private void putCorner(long offset, long normalOffset, int index) {
+        buffer.put((byte) ' ');
+        putDecimal(offset + index);
+        if (normalOffset != 0) {
+            buffer.put((byte) '/').put((byte) '/');
+            putDecimal(normalOffset + index);
+        }
+    }
+
+    /**
+     * puts a space and then a float into the buffer
+     * @param value - the float
+     * @throws IOException - if the channel can't be written
+     */
+    private void putValue(float value) throws IOException {
+        buffer.put((byte) ' ');
+        putDecimal(value);
+    }
+
+}
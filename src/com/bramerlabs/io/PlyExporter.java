@@ -0,0 +1,102 @@
+package com.bramerlabs.io;
+
+import com.bramerlabs.support.MeshBuffer;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+/**
+ * exports meshes as binary little-endian PLY - every vertex with its position, normal, and 8 bit color, then every
+ * triangle as indices into the vertices. indexed meshes keep their shared vertices. normals are only written if every
+ * mesh has them
+ */
+public class PlyExporter extends MeshExporter {
+
+    // the bytes in each vertex - 3 or 6 floats and 3 unsigned bytes
+    private static final int vertexBytes = 15;
+    private static final int vertexBytesWithNormals = 27;
+
+    // the bytes in each face - the amount of indices as an unsigned byte, then 3 ints
+    private static final int faceBytes = 13;
+
+    /**
+     * constructor with a 1 MB buffer
+     */
+    public PlyExporter() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * constructor for a buffer size
+     * @param bufferBytes - the size of the buffer, at least 256 bytes
+     */
+    public PlyExporter(int bufferBytes) {
+        super(bufferBytes, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    protected void write(Iterable<MeshBuffer> meshes) throws IOException {
+        long vertexCount = 0, faceCount = 0;
+        boolean normals = true;
+        for (MeshBuffer mesh : meshes) {
+            vertexCount += mesh.getVertexCount();
+            faceCount += mesh.getTriangleCount();
+            normals &= mesh.hasNormals();
+        }
+        if (vertexCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("PLY indices are ints, so there can be at most 2^31 - 1 vertices");
+        }
+
+        putAscii("ply\n" +
+                "format binary_little_endian 1.0\n" +
+                "comment written by open-shapes\n" +
+                "element vertex " + vertexCount + "\n" +
+                "property float x\n" +
+                "property float y\n" +
+                "property float z\n" +
+                (normals ? "property float nx\nproperty float ny\nproperty float nz\n" : "") +
+                "property uchar red\n" +
+                "property uchar green\n" +
+                "property uchar blue\n" +
+                "element face " + faceCount + "\n" +
+                "property list uchar int vertex_indices\n" +
+                "end_header\n");
+
+        for (MeshBuffer mesh : meshes) {
+            float[] p = mesh.getPositions();
+            float[] c = mesh.getColors();
+            float[] n = mesh.getNormals();
+            for (int i = 0; i < mesh.getVertexCount() * 3; i += 3) {
+                ensure(normals ? vertexBytesWithNormals : vertexBytes);
+                buffer.putFloat(p[i]).putFloat(p[i + 1]).putFloat(p[i + 2]);
+                if (normals) {
+                    buffer.putFloat(n[i]).putFloat(n[i + 1]).putFloat(n[i + 2]);
+                }
+                buffer.put(toByte(c[i])).put(toByte(c[i + 1])).put(toByte(c[i + 2]));
+            }
+        }
+
+        // the vertices of each mesh follow the vertices of the meshes before it
+        int offset = 0;
+        for (MeshBuffer mesh : meshes) {
+            for (int i = 0; i < mesh.getTriangleCount() * 3; i += 3) {
+                ensure(faceBytes);
+                buffer.put((byte) 3);
+                buffer.putInt(offset + mesh.getIndex(i));
+                buffer.putInt(offset + mesh.getIndex(i + 1));
+                buffer.putInt(offset + mesh.getIndex(i + 2));
+            }
+            offset += mesh.getVertexCount();
+        }
+    }
+
+    /**
+     * converts a color component to an unsigned byte
+     * @param component - the component, between 0 and 1
+     * @return - the component between 0 and 255
+     */
+    private static byte toByte(float component) {
+        return (byte) Math.round(Math.min(Math.max(component, 0), 1) * 255);
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.bramerlabs.io;
+
+import com.bramerlabs.support.MeshBuffer;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * exports meshes as binary STL - an 80 byte header, the amount of triangles, then the face normal and the 3 vertices of
+ * each triangle. STL has no colors, so they are left out
+ */
+public class StlExporter extends MeshExporter {
+
+    // the header of every file - it must not start with "solid", which marks an ASCII STL file
+    private static final byte[] header = "binary STL written by open-shapes".getBytes(StandardCharsets.US_ASCII);
+
+    // the bytes in each triangle - 12 floats and a 2 byte attribute
+    private static final int triangleBytes = 50;
+
+    /**
+     * constructor with a 1 MB buffer
+     */
+    public StlExporter() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * constructor for a buffer size
+     * @param bufferBytes - the size of the buffer, at least 256 bytes
+     */
+    public StlExporter(int bufferBytes) {
+        super(bufferBytes, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    protected void write(Iterable<MeshBuffer> meshes) throws IOException {
+        long triangleCount = 0;
+        for (MeshBuffer mesh : meshes) {
+            triangleCount += mesh.getTriangleCount();
+        }
+        if (triangleCount > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("binary STL can hold at most 2^32 - 1 triangles");
+        }
+
+        ensure(84);
+        buffer.put(header).put(new byte[80 - header.length]);
+        buffer.putInt((int) triangleCount);
+
+        for (MeshBuffer mesh : meshes) {
+            float[] p = mesh.getPositions();
+            for (int i = 0; i < mesh.getTriangleCount() * 3; i += 3) {
+                int a = mesh.getIndex(i) * 3, b = mesh.getIndex(i + 1) * 3, c = mesh.getIndex(i + 2) * 3;
+                float x1 = p[a], y1 = p[a + 1], z1 = p[a + 2];
+                float x2 = p[b], y2 = p[b + 1], z2 = p[b + 2];
+                float x3 = p[c], y3 = p[c + 1], z3 = p[c + 2];
+
+                // face normal - (v2 - v1) x (v3 - v1), left at 0 for degenerate triangles
+                float ax = x2 - x1, ay = y2 - y1, az = z2 - z1;
+                float bx = x3 - x1, by = y3 - y1, bz = z3 - z1;
+                float nx = ay * bz - az * by;
+                float ny = az * bx - ax * bz;
+                float nz = ax * by - ay * bx;
+                float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length > 0) {
+                    nx /= length;
+                    ny /= length;
+                    nz /= length;
+                }
+
+                ensure(triangleBytes);
+                buffer.putFloat(nx).putFloat(ny).putFloat(nz);
+                buffer.putFloat(x1).putFloat(y1).putFloat(z1);
+                buffer.putFloat(x2).putFloat(y2).putFloat(z2);
+                buffer.putFloat(x3).putFloat(y3).putFloat(z3);
+                buffer.putShort((short) 0);
+            }
+        }
+    }
+
+}
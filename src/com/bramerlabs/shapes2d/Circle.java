@@ -2,9 +2,21 @@ package com.bramerlabs.shapes2d;
 
 
 import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.support.LevelOfDetail;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.PrimitiveBuffer;
+import com.bramerlabs.support.RingTable;
+import com.bramerlabs.support.TessellationCache;
+import com.bramerlabs.support.TessellationEvent;
+import com.bramerlabs.support.TessellationMetrics;
+import com.bramerlabs.support.Transform;
+import com.bramerlabs.support.TriangleSink;
 import com.bramerlabs.support.Vector3f;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 public class Circle {
@@ -24,15 +36,24 @@ public class Circle {
     // the number of triangles used to make this circle - default 20
     private int numTriangles = 120;
 
-    // ArrayList of triangles in the mesh of this circle
-    private ArrayList<Triangle> faces = new ArrayList<>();
+    // the mesh of this circle - the focus followed by the vertices around the edge, only generated when asked for
+    private MeshBuffer mesh;
 
-    // ArrayList of vertices
-    private ArrayList<Vector3f> vertices = new ArrayList<>();
+    // ArrayList of triangles in the mesh of this circle - only built when asked for
+    private ArrayList<Triangle> faces;
+
+    // ArrayList of vertices - only built when asked for
+    private ArrayList<Vector3f> vertices;
+
+    // the tessellation counters of every circle
+    private static final TessellationMetrics metrics = TessellationMetrics.forType("circle");
 
     // golden ratio
     private static final float phi = 1.6180339f;
 
+    // the levels of detail of circles, by amount of triangles
+    private static final LevelOfDetail levelsOfDetail = LevelOfDetail.forRings(6, 8, 12, 16, 24, 32, 48, 64, 96, 120);
+
     /**
      * constructor for specified position and color with radius 1
      * generates a circle in the xy-plane
@@ -42,7 +63,6 @@ public class Circle {
     public Circle(Vector3f position, Color color) {
         this.position = position;
         this.color = color;
-        generateTriangles();
     }
 
     /**
@@ -59,39 +79,136 @@ public class Circle {
         this.normal = normal;
         this.color = color;
         this.numTriangles = numTriangles;
-        generateTriangles();
     }
 
     /**
-     * populates this.faces with a list of triangles
+     * populates this.mesh by moving, rotating, and scaling the cached unit circle with the same amount of triangles
      */
     private void generateTriangles() {
-        // generate the vertices
-        vertices = generateVertices();
+        TessellationEvent event = metrics.start();
 
         // convert the color to a bramerlabs Vector3f
         Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
         c.scale((float)1/255);
 
-        // create numTriangles-1 bramerlabs triangles using consecutive radial vertices
-        for (int i = 1; i < numTriangles; i++) {
-            this.faces.add(new Triangle(vertices.get(i), vertices.get(0), vertices.get(i+1), c));
+        mesh = getUnitMesh(numTriangles).transformed(getTransform(), c);
+
+        metrics.end(event, numTriangles, mesh.getTriangleCount());
+    }
+
+    /**
+     * passes the triangles of this circle to a sink as they are produced, without building the mesh of this circle.
+     * if the mesh has already been generated, its triangles are passed on instead
+     * @param sink - the sink to pass the triangles to
+     */
+    public void generate(TriangleSink sink) {
+        TessellationEvent event = metrics.start();
+        if (this.mesh != null) {
+            this.mesh.stream(sink);
+            metrics.end(event, numTriangles, this.mesh.getTriangleCount());
+            return;
         }
+        Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
+        c.scale((float)1/255);
+        MeshBuffer unit = getUnitMesh(numTriangles);
+        unit.stream(sink.transformed(getTransform(), c));
+        metrics.end(event, numTriangles, unit.getTriangleCount());
+    }
 
-        // create the last triangle using the first and last radial vertices
-        this.faces.add(new Triangle(vertices.get(numTriangles), vertices.get(0), vertices.get(1), c));
+    /**
+     * gets the transform from the unit circle to this circle
+     * @return - the transform
+     */
+    private Transform getTransform() {
+        // map the unit circle in the xy-plane onto the plane of this circle
+        Vector3f[] basis = getBasis(normal, radius);
+        return Transform.frame(position, basis[0], basis[1], normal);
+    }
+
+    /**
+     * gets a circle of radius 1 around the origin in the xy-plane from the shared tessellation cache.
+     * the first vertex is the origin, and vertex i is at angle (i - 1) * 2pi / numTriangles from the x axis.
+     * the mesh is shared and must not be modified
+     * @param numTriangles - the amount of triangles in the circle
+     * @return - the mesh of the unit circle
+     */
+    public static MeshBuffer getUnitMesh(int numTriangles) {
+        return TessellationCache.getShared().get("circle", numTriangles, () -> generateUnitMesh(numTriangles));
+    }
+
+    /**
+     * generates a circle of radius 1 around the origin in the xy-plane
+     * @param numTriangles - the amount of triangles in the circle
+     * @return - the mesh of the unit circle
+     */
+    private static MeshBuffer generateUnitMesh(int numTriangles) {
+        TessellationEvent event = metrics.start();
+
+        MeshBuffer unit = new MeshBuffer(numTriangles + 1, numTriangles * 3);
+        addDisc(unit, numTriangles, new Vector3f(0, 0, 0), new Vector3f(1, 0, 0), new Vector3f(0, 1, 0),
+                new Vector3f(0, 0, 1));
+
+        metrics.endTessellation(event, numTriangles, unit.getTriangleCount());
+        return unit;
     }
 
     /**
-     * generates a list of vertices based on the amount of triangles specified - default 20
-     * @return a list of vertices of triangles in the sphere. First vertex is the origin.
+     * adds a flat circle to an indexed mesh - the focus, then the ring of vertices around the edge from RingTable,
+     * then a fan of triangles. the vertices are black
+     * @param mesh - the indexed mesh to add the circle to
+     * @param numTriangles - the amount of triangles in the circle
+     * @param center - the focus of the circle
+     * @param u - the vector from the focus to the first vertex on the edge
+     * @param v - the vector from the focus to the vertex on the edge a quarter turn from the first
+     * @param normal - the unit normal of every vertex, the side of the circle it faces
+     * @return - the index of the focus, which is followed by the vertices on the edge
      */
-    private ArrayList<Vector3f> generateVertices() {
+    public static int addDisc(MeshBuffer mesh, int numTriangles, Vector3f center, Vector3f u, Vector3f v,
+                              Vector3f normal) {
+        Vector3f black = new Vector3f();
+        int focus = mesh.addVertex(center, black, normal);
+        RingTable.addRing(mesh, numTriangles, center, u, v, black, normal);
 
-        ArrayList<Vector3f> vertices = new ArrayList<>();
-        vertices.add(position);
+        // create numTriangles-1 triangles using consecutive radial vertices
+        for (int i = focus + 1; i < focus + numTriangles; i++) {
+            mesh.addTriangle(i, focus, i+1);
+        }
+
+        // create the last triangle using the first and last radial vertices
+        mesh.addTriangle(focus + numTriangles, focus, focus + 1);
+        return focus;
+    }
 
-        // generate two orthogonal vectors, v1 and v2, on the plane described by the normal vector
+    /**
+     * adds a circle added with addDisc() to a buffer of triangle strips. the strip zigzags across the vertices on the
+     * edge - the first, the second, the last, the third, the second to last, and so on - so it needs no focus and draws
+     * numTriangles - 2 triangles with numTriangles indices
+     * @param strips - the buffer of triangle strips, over the mesh the circle was added to
+     * @param numTriangles - the amount of triangles in the circle
+     * @param focus - the index of the focus, from addDisc()
+     * @param reversed - false to face the way u x v points, true to face the other way
+     */
+    public static void addDiscStrip(PrimitiveBuffer strips, int numTriangles, int focus, boolean reversed) {
+        if (numTriangles < 3) {
+            return;
+        }
+        strips.restart();
+        strips.add(focus + 1);
+        for (int i = 1, j = numTriangles - 1; i <= j; i++, j--) {
+            strips.add(focus + 1 + (reversed ? j : i));
+            if (i != j) {
+                strips.add(focus + 1 + (reversed ? i : j));
+            }
+        }
+    }
+
+    /**
+     * generates two orthogonal vectors on the plane described by a normal vector
+     * @param normal - the normal vector of the plane
+     * @param radius - the length of the vectors
+     * @return - the two vectors, v1 and v2, where v2 = normal x v1
+     */
+    public static Vector3f[] getBasis(Vector3f normal, float radius) {
         // take some random vector v0 non-parallel to the normal vector
         Vector3f v0 = new Vector3f(1, 0, 1);
         if (Vector3f.cross(normal, v0).equals(new Vector3f(0, 0, 0), 0.00001f)) {
@@ -102,22 +219,46 @@ public class Circle {
         Vector3f v2 = Vector3f.cross(normal, v1);
         v1.normalize(radius);
         v2.normalize(radius);
+        return new Vector3f[]{v1, v2};
+    }
 
-        // determine the change in t corresponding to the amount of triangles required
-        float dt = ((float)Math.PI * 2)/numTriangles;
-
-        // generate the vertices using the parametric equation
-        // r(t) = c + r*cos(t)*i + r*sin(t)*j, where i, j are v1, v2 and r is radius
-        // r(t) for 0 <= t <= 2pi
-        for (int i = 0; i < numTriangles; i++) {
-            Vector3f v = (new Vector3f(v1)).scale((float) (radius * Math.cos(i * dt)));
-            v.add((new Vector3f(v2)).scale((float) (radius * Math.sin(i * dt))));
-            v.normalize(radius);
-            v.add(position);
-            vertices.add(v);
-        }
+    /**
+     * getter method
+     * @return - the levels of detail of circles, by amount of triangles
+     */
+    public static LevelOfDetail getLevelsOfDetail() {
+        return levelsOfDetail;
+    }
+
+    /**
+     * creates a copy of this circle at a level of detail
+     * @param level - the level, from getLevelsOfDetail()
+     * @return - a new circle with the amount of triangles of the level
+     */
+    public Circle atLevel(int level) {
+        return new Circle(position, radius, normal, color, levelsOfDetail.getResolution(level));
+    }
+
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this circle by at most a tolerance
+     * @param tolerance - the largest acceptable error, in the same units as the radius
+     * @return - the level
+     */
+    public int selectLevel(float tolerance) {
+        return getLevelsOfDetail().selectByError(radius, tolerance);
+    }
 
-        return vertices;
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this circle by at most a tolerance on screen
+     * @param distance - the distance from the camera to this circle
+     * @param fovY - the vertical field of view of the camera in radians
+     * @param viewportHeight - the height of the viewport in pixels
+     * @param pixelTolerance - the largest acceptable error in pixels
+     * @return - the level
+     */
+    public int selectLevel(float distance, float fovY, int viewportHeight, float pixelTolerance) {
+        float projectedRadius = LevelOfDetail.getProjectedRadius(radius, distance, fovY, viewportHeight);
+        return getLevelsOfDetail().selectByScreenSize(projectedRadius, pixelTolerance);
     }
 
     /**
@@ -125,14 +266,103 @@ public class Circle {
      * @return - the ArrayList of triangles making up the mesh of this circle
      */
     public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
         return this.faces;
     }
 
+    /**
+     * getter method
+     * @return - the mesh of this circle, the focus followed by the vertices around the edge, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * discards the mesh of this circle so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+        this.vertices = null;
+    }
+
+    /**
+     * discards the mesh of this circle and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * gets the amount of floats needed to write this circle with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this circle into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this circle into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * gets the triangles of this circle as a single triangle strip over the vertices of its mesh, facing the way its
+     * normal points. the strip has 2 triangles fewer than the mesh, as it doesn't use the focus
+     * @return - the triangle strip
+     */
+    public PrimitiveBuffer getStrips() {
+        PrimitiveBuffer strips = new PrimitiveBuffer(getMesh(), PrimitiveBuffer.TRIANGLE_STRIP, numTriangles);
+        addDiscStrip(strips, numTriangles, 0, false);
+        return strips;
+    }
+
+    /**
+     * gets the triangles of this circle as a single triangle fan around its focus, facing the way its normal points
+     * @return - the triangle fan
+     */
+    public PrimitiveBuffer getFan() {
+        PrimitiveBuffer fan = new PrimitiveBuffer(getMesh(), PrimitiveBuffer.TRIANGLE_FAN, numTriangles + 2);
+        for (int i = 0; i <= numTriangles; i++) {
+            fan.add(i);
+        }
+        fan.add(1);
+        return fan;
+    }
+
     /**
      * getter method
      * @return - the ArrayList of vertices in this circle
      */
     public ArrayList<Vector3f> getVertices() {
+        if (this.vertices == null) {
+            MeshBuffer mesh = getMesh();
+            this.vertices = new ArrayList<>(mesh.getVertexCount());
+            for (int i = 0; i < mesh.getVertexCount(); i++) {
+                this.vertices.add(mesh.getPosition(i));
+            }
+        }
         return this.vertices;
     }
 
@@ -142,16 +372,13 @@ public class Circle {
      */
     public float[] getFacesAsFloats() {
         float[] f = new float[numTriangles*9];
-        for (int i = 0; i < numTriangles; i++) {
-            f[i * 9] = faces.get(i).getV1().toFloats()[0];
-            f[i * 9 + 1] = faces.get(i).getV1().toFloats()[1];
-            f[i * 9 + 2] = faces.get(i).getV1().toFloats()[2];
-            f[i * 9 + 3] = faces.get(i).getV2().toFloats()[0];
-            f[i * 9 + 4] = faces.get(i).getV2().toFloats()[1];
-            f[i * 9 + 5] = faces.get(i).getV2().toFloats()[2];
-            f[i * 9 + 6] = faces.get(i).getV3().toFloats()[0];
-            f[i * 9 + 7] = faces.get(i).getV3().toFloats()[1];
-            f[i * 9 + 8] = faces.get(i).getV3().toFloats()[2];
+        MeshBuffer mesh = getMesh();
+        float[] p = mesh.getPositions();
+        for (int i = 0; i < numTriangles * 3; i++) {
+            int v = mesh.getIndex(i) * 3;
+            f[i * 3] = p[v];
+            f[i * 3 + 1] = p[v + 1];
+            f[i * 3 + 2] = p[v + 2];
         }
         return f;
     }
@@ -1,8 +1,13 @@
 package com.bramerlabs.shapes2d;
 
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.TriangleSink;
 import com.bramerlabs.support.Vector3f;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 public class Square {
@@ -19,11 +24,14 @@ public class Square {
     // the color of this square
     private Color color;
 
-    // the triangles that make up the mesh of this square
-    private ArrayList<Triangle> faces = new ArrayList<>();
+    // the mesh of this square - the 4 corners and 2 triangles, only generated when asked for
+    private MeshBuffer mesh;
 
-    // list of vertices making up the mesh
-    private ArrayList<Vector3f> vertices = new ArrayList<>();
+    // the triangles that make up the mesh of this square - only built when asked for
+    private ArrayList<Triangle> faces;
+
+    // list of vertices making up the mesh - only built when asked for
+    private ArrayList<Vector3f> vertices;
 
     /**
      * constructor for specified position and color
@@ -36,7 +44,6 @@ public class Square {
         this.corner = corner;
         this.normal = normal;
         this.color = color;
-        generateTriangles();
     }
 
     public Square(Vector3f c1, Vector3f c2, Vector3f c3) {
@@ -47,35 +54,52 @@ public class Square {
      * generates a list of triangles making the mesh of this square
      */
     public void generateTriangles() {
-        generateVertices();
+        // a square made from three corners isn't supported yet, so it has an empty mesh
+        if (color == null) {
+            mesh = new MeshBuffer(0, 0);
+            return;
+        }
 
         Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
         c.scale((float)1/255);
 
-        this.faces.add(new Triangle(vertices.get(0), vertices.get(1), vertices.get(2), c));
-        this.faces.add(new Triangle(vertices.get(2), vertices.get(3), vertices.get(0), c));
+        mesh = new MeshBuffer(4, 6);
+        faces = null;
+        vertices = null;
+        generateVertices(c);
+
+        mesh.addTriangle(0, 1, 2);
+        mesh.addTriangle(2, 3, 0);
     }
 
     /**
-     * generates a list of vertices - the 4 corners of the square
+     * adds the 4 corners of the square to the mesh
+     * @param c - the color of the vertices
      */
-    private void generateVertices() {
+    private void generateVertices(Vector3f c) {
         float size = Vector3f.distance(corner, center);
-        Vector3f c1 = Vector3f.cross(normal, corner);
-        Vector3f c2 = Vector3f.cross(normal, c1);
-        Vector3f c3 = Vector3f.cross(normal, c2);
-        Vector3f c4 = Vector3f.cross(normal, c3);
-        c1.normalize(size).add(center);
-        c2.normalize(size).add(center);
-        c3.normalize(size).add(center);
-        c4.normalize(size).add(center);
-        vertices.add(c1);
-        vertices.add(c2);
-        vertices.add(c3);
-        vertices.add(c4);
+
+        // each corner is a quarter turn from the last - turn the direction in place and move a copy out to the corner
+        Vector3f direction = new Vector3f(corner);
+        Vector3f vertex = new Vector3f();
+        for (int i = 0; i < 4; i++) {
+            Vector3f.cross(normal, direction, direction);
+            mesh.addVertex(vertex.set(direction).normalize(size).add(center), c);
+        }
     }
 
+    /**
+     * getter method
+     * @return - an ArrayList of the 4 corners of this square
+     */
     public ArrayList<Vector3f> getVertices() {
+        if (this.vertices == null) {
+            MeshBuffer mesh = getMesh();
+            this.vertices = new ArrayList<>(mesh.getVertexCount());
+            for (int i = 0; i < mesh.getVertexCount(); i++) {
+                this.vertices.add(mesh.getPosition(i));
+            }
+        }
         return this.vertices;
     }
 
@@ -84,6 +108,72 @@ public class Square {
      * @return - an ArrayList of triangles making up the mesh of this square
      */
     public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
         return this.faces;
     }
+
+    /**
+     * getter method
+     * @return - the mesh of this square, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * passes the triangles of this square to a sink. a square only has 2 triangles, so its mesh is generated as usual
+     * @param sink - the sink to pass the triangles to
+     */
+    public void generate(TriangleSink sink) {
+        getMesh().stream(sink);
+    }
+
+    /**
+     * discards the mesh of this square so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+        this.vertices = null;
+    }
+
+    /**
+     * discards the mesh of this square and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * gets the amount of floats needed to write this square with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this square into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the face normal with each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this square into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the face normal with each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
 }
\ No newline at end of file
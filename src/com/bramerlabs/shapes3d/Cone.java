@@ -2,9 +2,21 @@ package com.bramerlabs.shapes3d;
 
 import com.bramerlabs.shapes2d.Circle;
 import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.support.LevelOfDetail;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.PrimitiveBuffer;
+import com.bramerlabs.support.RingTable;
+import com.bramerlabs.support.TessellationCache;
+import com.bramerlabs.support.TessellationEvent;
+import com.bramerlabs.support.TessellationMetrics;
+import com.bramerlabs.support.Transform;
+import com.bramerlabs.support.TriangleSink;
 import com.bramerlabs.support.Vector3f;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 public class Cone {
@@ -24,14 +36,15 @@ public class Cone {
     // the color of this square
     private Color color;
 
-    // the circular face;
-    private Circle circle;
+    // the mesh of this cone - the vertices of the circular face, then the vertices of the side, only generated
+    // when asked for
+    private MeshBuffer mesh;
 
-    // the triangles that make up the mesh of this cone
-    private ArrayList<Triangle> faces = new ArrayList<>();
+    // the triangles that make up the mesh of this cone - only built when asked for
+    private ArrayList<Triangle> faces;
 
-    // list of vertices making up the mesh of this cone
-    private ArrayList<Vector3f> vertices = new ArrayList<>();
+    // the tessellation counters of every cone
+    private static final TessellationMetrics metrics = TessellationMetrics.forType("cone");
 
     /**
      * constructor for specified point, vertex, and color
@@ -43,7 +56,6 @@ public class Cone {
         this.vertex = vertex;
         this.point = point;
         this.color = color;
-        generateTriangles();
     }
 
     /**
@@ -60,43 +72,149 @@ public class Cone {
         this.radius = radius;
         this.smoothness = smoothness;
         this.color = color;
-        generateTriangles();
     }
 
     /**
-     * generates a list of triangles making up the mesh of this cone
+     * generates the mesh of this cone by moving, rotating, and scaling the cached unit cone with the same smoothness
      */
     private void generateTriangles() {
-        // generate vertices
-        generateVertices();
+        TessellationEvent event = metrics.start();
 
         // convert the color to a com.bramerlabs.support.Vector3f
         Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
         c.scale((float)1/255);
 
-        // get the triangular faces
-        this.faces.addAll(circle.getFaces());
+        mesh = getUnitMesh(smoothness).transformed(getTransform(), c);
+
+        metrics.end(event, smoothness, mesh.getTriangleCount());
+    }
+
+    /**
+     * passes the triangles of this cone to a sink as they are produced, without building the mesh of this cone.
+     * if the mesh has already been generated, its triangles are passed on instead
+     * @param sink - the sink to pass the triangles to
+     */
+    public void generate(TriangleSink sink) {
+        TessellationEvent event = metrics.start();
+        if (this.mesh != null) {
+            this.mesh.stream(sink);
+            metrics.end(event, smoothness, this.mesh.getTriangleCount());
+            return;
+        }
+        Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
+        c.scale((float)1/255);
+        MeshBuffer unit = getUnitMesh(smoothness);
+        unit.stream(sink.transformed(getTransform(), c));
+        metrics.end(event, smoothness, unit.getTriangleCount());
+    }
+
+    /**
+     * gets the transform from the unit cone to this cone
+     * @return - the transform
+     */
+    private Transform getTransform() {
+        // normal vector to circular face, which is also the axis from the focus of the circular face to the vertex
+        Vector3f n = new Vector3f(vertex).subtract(point);
+        Vector3f[] basis = Circle.getBasis(n, radius);
+        return Transform.frame(point, basis[0], basis[1], n);
+    }
+
+    /**
+     * gets a cone of radius 1 from the shared tessellation cache. its circular face is the unit circle
+     * centered on (0, 0, 0) and its vertex is (0, 0, 1). the mesh is shared and must not be modified
+     * @param smoothness - the amount of triangles used to approximate the circular face
+     * @return - the mesh of the unit cone
+     */
+    public static MeshBuffer getUnitMesh(int smoothness) {
+        return TessellationCache.getShared().get("cone", smoothness, () -> generateUnitMesh(smoothness));
+    }
+
+    /**
+     * generates a cone of radius 1 with its circular face centered on (0, 0, 0) and its vertex at (0, 0, 1)
+     * @param smoothness - the amount of triangles used to approximate the circular face
+     * @return - the mesh of the unit cone
+     */
+    private static MeshBuffer generateUnitMesh(int smoothness) {
+        TessellationEvent event = metrics.start();
+
+        // get the triangular faces, with the circular face facing away from the vertex
+        MeshBuffer unit = new MeshBuffer(3 * smoothness + 1, 6 * smoothness);
+        Vector3f origin = new Vector3f(0, 0, 0);
+        Vector3f x = new Vector3f(1, 0, 0);
+        Vector3f y = new Vector3f(0, 1, 0);
+        Circle.addDisc(unit, smoothness, origin, x, y, new Vector3f(0, 0, -1));
+
+        // the side has its own ring at the same positions, with normals perpendicular to the slant - for a radius
+        // of 1 and a height of 1, that is the direction away from the axis tilted up by 45 degrees
+        Vector3f black = new Vector3f();
+        int ring = RingTable.addRadialRing(unit, smoothness, origin, x, y, new Vector3f(0, 0, 1), black);
+
+        // and a vertex of the cone for each triangle, with the normal of the slant halfway between the corners at its
+        // base, since the normal at the vertex itself is different for every direction it is approached from
+        int tip = ring + smoothness;
+        for (int i = 0; i < smoothness; i++) {
+            float[] p = unit.getPositions();
+            int a = (ring + i) * 3, b = (ring + (i + 1) % smoothness) * 3;
+            float dx = p[a] + p[b], dy = p[a + 1] + p[b + 1];
+            if (dx * dx + dy * dy < 1e-12f) {
+                // opposite corners, when there are only 2 - halfway between them is a quarter turn from the first
+                dx = -p[a + 1];
+                dy = p[a];
+            }
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            float nx = dx / length, ny = dy / length;
+
+            // the direction away from the axis has a length of 1 again, so tilting it up by 45 degrees adds 1
+            float slant = (float) Math.sqrt(nx * nx + ny * ny + 1);
+            unit.addVertex(0, 0, 1, 0, 0, 0, nx / slant, ny / slant, 1 / slant);
+        }
 
         // create the other part of the mesh
-        for (int i = 1; i < smoothness; i++) {
-            this.faces.add(new Triangle(vertices.get(i), vertices.get(smoothness+1), vertices.get(i + 1), c));
+        for (int i = 0; i < smoothness; i++) {
+            unit.addTriangle(ring + i, tip + i, ring + (i + 1) % smoothness);
         }
-        this.faces.add(new Triangle(vertices.get(smoothness), vertices.get(smoothness + 1), vertices.get(1), c));
 
+        metrics.endTessellation(event, smoothness, unit.getTriangleCount());
+        return unit;
     }
 
     /**
-     * generates a list of vertices to make up the mesh of this cone
+     * getter method
+     * @return - the levels of detail of cones, by smoothness - the same as the levels of their circular faces
      */
-    private void generateVertices() {
-        // normal vector to circular face
-        Vector3f n = new Vector3f(vertex).subtract(point);
+    public static LevelOfDetail getLevelsOfDetail() {
+        return Circle.getLevelsOfDetail();
+    }
 
-        // the circular face
-        circle = new Circle(point, radius, n, color, smoothness);
+    /**
+     * creates a copy of this cone at a level of detail
+     * @param level - the level, from getLevelsOfDetail()
+     * @return - a new cone with the smoothness of the level
+     */
+    public Cone atLevel(int level) {
+        return new Cone(vertex, point, radius, getLevelsOfDetail().getResolution(level), color);
+    }
 
-        this.vertices.addAll(circle.getVertices());
-        this.vertices.add(vertex);
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this cone by at most a tolerance
+     * @param tolerance - the largest acceptable error, in the same units as the radius
+     * @return - the level
+     */
+    public int selectLevel(float tolerance) {
+        return getLevelsOfDetail().selectByError(radius, tolerance);
+    }
+
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this cone by at most a tolerance on screen
+     * @param distance - the distance from the camera to this cone
+     * @param fovY - the vertical field of view of the camera in radians
+     * @param viewportHeight - the height of the viewport in pixels
+     * @param pixelTolerance - the largest acceptable error in pixels
+     * @return - the level
+     */
+    public int selectLevel(float distance, float fovY, int viewportHeight, float pixelTolerance) {
+        float projectedRadius = LevelOfDetail.getProjectedRadius(radius, distance, fovY, viewportHeight);
+        return getLevelsOfDetail().selectByScreenSize(projectedRadius, pixelTolerance);
     }
 
     /**
@@ -104,6 +222,160 @@ public class Cone {
      * @return - an ArrayList of triangles making up the mesh of this square
      */
     public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
         return this.faces;
     }
+
+    /**
+     * getter method
+     * @return - the mesh of this cone, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * discards the mesh of this cone so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+    }
+
+    /**
+     * discards the mesh of this cone and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * moves, rotates, or stretches this cone. a generated mesh is transformed in place from the unit cone without
+     * tessellating again, and its vertices are marked dirty
+     * @param vertex - the new vertex of the cone
+     * @param point - the new focus of the circular face
+     */
+    public void setEnds(Vector3f vertex, Vector3f point) {
+        this.vertex = vertex;
+        this.point = point;
+        update();
+    }
+
+    /**
+     * resizes the circular face of this cone. a generated mesh is scaled in place from the unit cone without
+     * tessellating again, and its vertices are marked dirty
+     * @param radius - the new radius of the circular face
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+        update();
+    }
+
+    /**
+     * changes the smoothness of this cone. the mesh is discarded and generated again when asked for, so it has to be
+     * uploaded again in full
+     * @param smoothness - the new amount of triangles used to approximate the circular face
+     */
+    public void setSmoothness(int smoothness) {
+        if (smoothness != this.smoothness) {
+            this.smoothness = smoothness;
+            invalidate();
+        }
+    }
+
+    /**
+     * moves the generated mesh of this cone to its current vertex, point, and radius
+     */
+    private void update() {
+        this.faces = null;
+        if (this.mesh != null) {
+            this.mesh.transformFrom(getUnitMesh(smoothness), getTransform());
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the vertex of this cone
+     */
+    public Vector3f getVertex() {
+        return this.vertex;
+    }
+
+    /**
+     * getter method
+     * @return - the focus of the circular face
+     */
+    public Vector3f getPoint() {
+        return this.point;
+    }
+
+    /**
+     * getter method
+     * @return - the radius of the circular face
+     */
+    public float getRadius() {
+        return this.radius;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles used to approximate the circular face
+     */
+    public int getSmoothness() {
+        return this.smoothness;
+    }
+
+    /**
+     * gets the triangles of this cone as triangle strips over the vertices of its mesh, separated by a restart - the
+     * circular face as a strip zigzagging across its edge, then the side as one strip around the axis. the side
+     * alternates between the ring and the copies of the vertex, so every other triangle of it has no area
+     * @return - the triangle strips
+     */
+    public PrimitiveBuffer getStrips() {
+        PrimitiveBuffer strips = new PrimitiveBuffer(getMesh(), PrimitiveBuffer.TRIANGLE_STRIP, 3 * smoothness + 2);
+        Circle.addDiscStrip(strips, smoothness, 0, true);
+        strips.restart();
+
+        // the side ring follows the circular face, and the copies of the vertex follow the ring
+        int ring = smoothness + 1, tip = ring + smoothness;
+        strips.add(ring);
+        for (int i = smoothness - 1; i >= 0; i--) {
+            strips.add(tip + i);
+            strips.add(ring + i);
+        }
+        return strips;
+    }
+
+    /**
+     * gets the amount of floats needed to write this cone with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this cone into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this cone into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
 }
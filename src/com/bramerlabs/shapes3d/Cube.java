@@ -2,9 +2,17 @@ package com.bramerlabs.shapes3d;
 
 import com.bramerlabs.shapes2d.Square;
 import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.PrimitiveBuffer;
+import com.bramerlabs.support.TessellationEvent;
+import com.bramerlabs.support.TessellationMetrics;
+import com.bramerlabs.support.TriangleSink;
 import com.bramerlabs.support.Vector3f;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 public class Cube {
@@ -21,8 +29,18 @@ public class Cube {
     // the color of this cube
     private Color color;
 
-    // the triangles that make up the mesh of this square
-    private ArrayList<Triangle> faces = new ArrayList<>();
+    // the mesh of this cube - the 8 corners and 12 triangles, only generated when asked for
+    private MeshBuffer mesh;
+
+    // the triangles that make up the mesh of this cube - only built when asked for
+    private ArrayList<Triangle> faces;
+
+    // the tessellation counters of every cube
+    private static final TessellationMetrics metrics = TessellationMetrics.forType("cube");
+
+    // a single triangle strip over the 8 corners covering each of the 6 faces exactly once with 12 triangles split
+    // along a diagonal, wound counter-clockwise from outside
+    private static final int[] strip = {0, 1, 2, 4, 3, 7, 6, 4, 5, 1, 6, 0, 3, 2};
 
     /**
      * constructor for specified center, two normal vectors, radius, and color.
@@ -38,67 +56,80 @@ public class Cube {
         this.n2 = n2;
         this.radius = radius;
         this.color = color;
-        generateTriangles();
     }
 
     /**
      * generates a list of triangles making the mesh of this cube
      */
     public void generateTriangles() {
+        TessellationEvent event = metrics.start();
+
+        // a cube has no unit mesh, so its triangles are tessellated from scratch every time
+        TessellationEvent tessellation = metrics.start();
+
         ArrayList<Vector3f> vertices = generateVertices();
         Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
         c.scale((float)1/255);
 
+        mesh = new MeshBuffer(8, 36);
+        faces = null;
+        for (Vector3f v : vertices) {
+            mesh.addVertex(v, c);
+        }
+
         // face 1
-        faces.add(new Triangle(vertices.get(0), vertices.get(1), vertices.get(2), c));
-        faces.add(new Triangle(vertices.get(0), vertices.get(3), vertices.get(2), c));
+        mesh.addTriangle(0, 1, 2);
+        mesh.addTriangle(0, 3, 2);
 
         // face 2
-        faces.add(new Triangle(vertices.get(0), vertices.get(1), vertices.get(5), c));
-        faces.add(new Triangle(vertices.get(0), vertices.get(6), vertices.get(5), c));
+        mesh.addTriangle(0, 1, 5);
+        mesh.addTriangle(0, 6, 5);
 
         // face 3
-        faces.add(new Triangle(vertices.get(0), vertices.get(3), vertices.get(6), c));
-        faces.add(new Triangle(vertices.get(6), vertices.get(7), vertices.get(3), c));
+        mesh.addTriangle(0, 3, 6);
+        mesh.addTriangle(6, 7, 3);
 
         // face 4
-        faces.add(new Triangle(vertices.get(3), vertices.get(7), vertices.get(2), c));
-        faces.add(new Triangle(vertices.get(2), vertices.get(4), vertices.get(7), c));
+        mesh.addTriangle(3, 7, 2);
+        mesh.addTriangle(2, 4, 7);
 
         // face 5
-        faces.add(new Triangle(vertices.get(2), vertices.get(4), vertices.get(1), c));
-        faces.add(new Triangle(vertices.get(1), vertices.get(5), vertices.get(4), c));
+        mesh.addTriangle(2, 4, 1);
+        mesh.addTriangle(1, 5, 4);
 
         // face 6
-        faces.add(new Triangle(vertices.get(4), vertices.get(5), vertices.get(6), c));
-        faces.add(new Triangle(vertices.get(4), vertices.get(7), vertices.get(6), c));
+        mesh.addTriangle(4, 5, 6);
+        mesh.addTriangle(4, 7, 6);
+
+        metrics.endTessellation(tessellation, 0, mesh.getTriangleCount());
+        metrics.end(event, 0, mesh.getTriangleCount());
     }
 
     /**
      * generates a list of vertices of this cube
      */
     public ArrayList<Vector3f> generateVertices() {
-        n1.normalize(radius);
-        n2.normalize(radius);
-        Vector3f n3 = Vector3f.cross(n1, n2).normalize(radius);
+        // scale copies of the normals, so that changing the radius later scales from the normals as they were given
+        Vector3f a = new Vector3f(n1).normalize(radius);
+        Vector3f b = new Vector3f(n2).normalize(radius);
+        Vector3f n3 = Vector3f.cross(a, b).normalize(radius);
 
-        Vector3f c1 = (new Vector3f(n1).add(n2)).add(n3);
-        Vector3f c2 = (new Vector3f(n1).add(n2)).subtract(n3);
+        Vector3f c1 = (new Vector3f(a).add(b)).add(n3);
+        Vector3f c2 = (new Vector3f(a).add(b)).subtract(n3);
 
+        // the squares generate their meshes later, so each one needs its own copy of n3
         Square s1 = new Square(n3, c1, n3, color);
-        Square s2 = new Square(n3.invert(), c2, n3, color);
+        Vector3f n4 = new Vector3f(n3).invert();
+        Square s2 = new Square(n4, c2, n4, color);
 
 
         ArrayList<Vector3f> result = new ArrayList<>();
 
-        result.addAll(s1.getVertices());
-        result.addAll(s2.getVertices());
-
         for (Vector3f v : s1.getVertices()) {
-            v.add(center);
+            result.add(new Vector3f(v).add(center));
         }
         for (Vector3f v : s2.getVertices()) {
-            v.add(center);
+            result.add(new Vector3f(v).add(center));
         }
 
         return result;
@@ -109,7 +140,152 @@ public class Cube {
      * @return - a list of triangular faces making up the mesh of this cube
      */
     public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
         return this.faces;
     }
 
+    /**
+     * getter method
+     * @return - the mesh of this cube, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * passes the triangles of this cube to a sink. a cube only has 12 triangles, so its mesh is generated as usual
+     * @param sink - the sink to pass the triangles to
+     */
+    public void generate(TriangleSink sink) {
+        if (this.mesh == null) {
+            // generating the mesh counts this cube
+            generateTriangles();
+            this.mesh.stream(sink);
+            return;
+        }
+        TessellationEvent event = metrics.start();
+        this.mesh.stream(sink);
+        metrics.end(event, 0, this.mesh.getTriangleCount());
+    }
+
+    /**
+     * discards the mesh of this cube so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+    }
+
+    /**
+     * discards the mesh of this cube and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * moves this cube. a generated mesh is moved in place and its vertices are marked dirty
+     * @param center - the new center of the cube
+     */
+    public void setCenter(Vector3f center) {
+        this.center = center;
+        update();
+    }
+
+    /**
+     * rotates this cube. a generated mesh is updated in place and its vertices are marked dirty
+     * @param n1 - one normal vector of the cube
+     * @param n2 - a different normal vector of the cube
+     */
+    public void setOrientation(Vector3f n1, Vector3f n2) {
+        this.n1 = n1;
+        this.n2 = n2;
+        update();
+    }
+
+    /**
+     * resizes this cube. a generated mesh is updated in place and its vertices are marked dirty
+     * @param radius - the new radius of the cube
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+        update();
+    }
+
+    /**
+     * moves the 8 corners of the generated mesh of this cube to where they now are
+     */
+    private void update() {
+        this.faces = null;
+        if (this.mesh != null) {
+            ArrayList<Vector3f> vertices = generateVertices();
+            for (int i = 0; i < vertices.size(); i++) {
+                Vector3f v = vertices.get(i);
+                mesh.setPosition(i, v.x, v.y, v.z);
+            }
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the center of the cube
+     */
+    public Vector3f getCenter() {
+        return this.center;
+    }
+
+    /**
+     * getter method
+     * @return - the radius of the cube
+     */
+    public float getRadius() {
+        return this.radius;
+    }
+
+    /**
+     * gets the triangles of this cube as a single triangle strip of 14 indices over the 8 corners of its mesh. each
+     * face is split along a diagonal that may differ from the one used by its mesh
+     * @return - the triangle strip
+     */
+    public PrimitiveBuffer getStrips() {
+        PrimitiveBuffer strips = new PrimitiveBuffer(getMesh(), PrimitiveBuffer.TRIANGLE_STRIP, strip.length);
+        for (int index : strip) {
+            strips.add(index);
+        }
+        return strips;
+    }
+
+    /**
+     * gets the amount of floats needed to write this cube with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this cube into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the face normal with each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this cube into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the face normal with each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
 }
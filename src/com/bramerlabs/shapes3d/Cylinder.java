@@ -2,9 +2,22 @@ package com.bramerlabs.shapes3d;
 
 import com.bramerlabs.shapes2d.Circle;
 import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.support.InstanceBatch;
+import com.bramerlabs.support.LevelOfDetail;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.PrimitiveBuffer;
+import com.bramerlabs.support.RingTable;
+import com.bramerlabs.support.TessellationCache;
+import com.bramerlabs.support.TessellationEvent;
+import com.bramerlabs.support.TessellationMetrics;
+import com.bramerlabs.support.Transform;
+import com.bramerlabs.support.TriangleSink;
 import com.bramerlabs.support.Vector3f;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 public class Cylinder {
@@ -20,11 +33,15 @@ public class Cylinder {
     // the smoothness of the cylinder - default 120
     private int smoothness = 120;
 
-    // the circular faces
-    private Circle c1, c2;
+    // the mesh of this cylinder - the vertices of the circular faces at p1 and p2, then the vertices of the side,
+    // only generated when asked for
+    private MeshBuffer mesh;
 
-    // the faces of the triangles making the cylinder
-    private ArrayList<Triangle> faces = new ArrayList<>();
+    // the faces of the triangles making the cylinder - only built when asked for
+    private ArrayList<Triangle> faces;
+
+    // the tessellation counters of every cylinder
+    private static final TessellationMetrics metrics = TessellationMetrics.forType("cylinder");
 
     /**
      * Constructor based on two points in the center of the circular faces, radius, and color
@@ -38,7 +55,6 @@ public class Cylinder {
         this.p2 = p2;
         this.radius = radius;
         this.color = color;
-        generateTriangles();
     }
 
     /**
@@ -55,39 +71,165 @@ public class Cylinder {
         this.radius = radius;
         this.color = color;
         this.smoothness = smoothness;
-        generateTriangles();
     }
 
     /**
-     * generates a list of triangles making up the mesh of this cylinder
+     * generates the mesh of this cylinder by moving, rotating, and scaling the cached unit cylinder with the same smoothness
      */
     private void generateTriangles() {
-        generateCircles();
+        TessellationEvent event = metrics.start();
+
+        Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
+        c.scale((float)1/255);
 
-        faces.addAll(c1.getFaces());
-        faces.addAll(c2.getFaces());
+        mesh = getUnitMesh(smoothness).transformed(getTransform(p1, p2, radius), c);
 
-        ArrayList<Vector3f> v1 = c1.getVertices();
-        ArrayList<Vector3f> v2 = c2.getVertices();
+        metrics.end(event, smoothness, mesh.getTriangleCount());
+    }
 
+    /**
+     * passes the triangles of this cylinder to a sink as they are produced, without building the mesh of this cylinder.
+     * if the mesh has already been generated, its triangles are passed on instead
+     * @param sink - the sink to pass the triangles to
+     */
+    public void generate(TriangleSink sink) {
+        TessellationEvent event = metrics.start();
+        if (this.mesh != null) {
+            this.mesh.stream(sink);
+            metrics.end(event, smoothness, this.mesh.getTriangleCount());
+            return;
+        }
         Vector3f c = new Vector3f(color.getRed(), color.getGreen(), color.getBlue());
         c.scale((float)1/255);
+        MeshBuffer unit = getUnitMesh(smoothness);
+        unit.stream(sink.transformed(getTransform(p1, p2, radius), c));
+        metrics.end(event, smoothness, unit.getTriangleCount());
+    }
+
+    /**
+     * gets the transform from the unit cylinder to a cylinder
+     * @param p1 - the point in the center of the first circular face
+     * @param p2 - the point in the center of the second circular face
+     * @param radius - the radius of the cylinder
+     * @return - the transform
+     */
+    private static Transform getTransform(Vector3f p1, Vector3f p2, float radius) {
+        // the circular faces lie in the plane normal to the axis, and the unit cylinder runs from z = 0 at p1 to z = 1 at p2
+        Vector3f normal = new Vector3f(p1).subtract(p2);
+        Vector3f[] basis = Circle.getBasis(normal, radius);
+        Vector3f axis = new Vector3f(p2).subtract(p1);
+        return Transform.frame(p1, basis[0], basis[1], axis);
+    }
+
+    /**
+     * creates a batch of cylinders that share one mesh and differ only in their end points, radius, and color.
+     * the base mesh is the cached unit cylinder, and each instance maps it onto its own axis
+     * @param p1 - the packed x, y, z center of the first circular face of each cylinder
+     * @param p2 - the packed x, y, z center of the second circular face of each cylinder
+     * @param radii - the radius of each cylinder
+     * @param colors - the color of each cylinder
+     * @param smoothness - the amount of triangles in each circular face, the same for every cylinder
+     * @return - the batch
+     */
+    public static InstanceBatch batch(float[] p1, float[] p2, float[] radii, Color[] colors, int smoothness) {
+        if (p1.length != radii.length * 3 || p2.length != radii.length * 3 || colors.length != radii.length) {
+            throw new IllegalArgumentException("expected 3 values for each end point, 1 radius, and 1 color per cylinder");
+        }
 
-        for (int i = 1; i < c1.getVertices().size() - 1; i++) {
-            this.faces.add(new Triangle(v1.get(i), v2.get(i), v1.get(i+1), c));
-            this.faces.add(new Triangle(v2.get(i), v1.get(i+1), v2.get(i+1), c));
+        InstanceBatch batch = new InstanceBatch(getUnitMesh(smoothness), radii.length);
+        Vector3f start = new Vector3f();
+        Vector3f end = new Vector3f();
+        Vector3f c = new Vector3f();
+        for (int i = 0; i < radii.length; i++) {
+            Color color = colors[i];
+            start.set(p1[i * 3], p1[i * 3 + 1], p1[i * 3 + 2]);
+            end.set(p2[i * 3], p2[i * 3 + 1], p2[i * 3 + 2]);
+            c.set(color.getRed(), color.getGreen(), color.getBlue()).scale((float)1/255);
+            batch.setInstance(i, getTransform(start, end, radii[i]), c);
         }
-        this.faces.add(new Triangle(v1.get(smoothness), v2.get(smoothness), v1.get(1), c));
-        this.faces.add(new Triangle(v2.get(smoothness), v1.get(1), v2.get(1), c));
+        return batch;
     }
 
     /**
-     * generates the two circular faces of the cylinder
+     * gets a cylinder of radius 1 from the shared tessellation cache. its circular faces are unit circles
+     * centered on (0, 0, 0) and (0, 0, 1). the mesh is shared and must not be modified
+     * @param smoothness - the amount of triangles in each circular face
+     * @return - the mesh of the unit cylinder
      */
-    private void generateCircles() {
-        Vector3f normal = new Vector3f(p1).subtract(p2);
-        c1 = new Circle(p1, radius, normal, color, smoothness);
-        c2 = new Circle(p2, radius, normal, color, smoothness);
+    public static MeshBuffer getUnitMesh(int smoothness) {
+        return TessellationCache.getShared().get("cylinder", smoothness, () -> generateUnitMesh(smoothness));
+    }
+
+    /**
+     * generates a cylinder of radius 1 with circular faces centered on (0, 0, 0) and (0, 0, 1)
+     * @param smoothness - the amount of triangles in each circular face
+     * @return - the mesh of the unit cylinder
+     */
+    private static MeshBuffer generateUnitMesh(int smoothness) {
+        TessellationEvent event = metrics.start();
+
+        MeshBuffer unit = new MeshBuffer(4 * smoothness + 2, 12 * smoothness);
+
+        // the circular faces, each made of smoothness + 1 vertices and smoothness triangles, facing out of the ends
+        Vector3f x = new Vector3f(1, 0, 0);
+        Vector3f y = new Vector3f(0, 1, 0);
+        Vector3f bottom = new Vector3f(0, 0, 0);
+        Vector3f top = new Vector3f(0, 0, 1);
+        Circle.addDisc(unit, smoothness, bottom, x, y, new Vector3f(0, 0, -1));
+        Circle.addDisc(unit, smoothness, top, x, y, new Vector3f(0, 0, 1));
+
+        // the side has its own rings at the same positions, with normals pointing straight out from the axis
+        Vector3f black = new Vector3f();
+        int v1 = RingTable.addRadialRing(unit, smoothness, bottom, x, y, black, black);
+        int v2 = RingTable.addRadialRing(unit, smoothness, top, x, y, black, black);
+        for (int i = 0; i < smoothness - 1; i++) {
+            unit.addTriangle(v1 + i, v2 + i, v1 + i+1);
+            unit.addTriangle(v2 + i, v1 + i+1, v2 + i+1);
+        }
+        unit.addTriangle(v1 + smoothness-1, v2 + smoothness-1, v1);
+        unit.addTriangle(v2 + smoothness-1, v1, v2);
+
+        metrics.endTessellation(event, smoothness, unit.getTriangleCount());
+        return unit;
+    }
+
+    /**
+     * getter method
+     * @return - the levels of detail of cylinders, by smoothness - the same as the levels of their circular faces
+     */
+    public static LevelOfDetail getLevelsOfDetail() {
+        return Circle.getLevelsOfDetail();
+    }
+
+    /**
+     * creates a copy of this cylinder at a level of detail
+     * @param level - the level, from getLevelsOfDetail()
+     * @return - a new cylinder with the smoothness of the level
+     */
+    public Cylinder atLevel(int level) {
+        return new Cylinder(p1, p2, radius, color, getLevelsOfDetail().getResolution(level));
+    }
+
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this cylinder by at most a tolerance
+     * @param tolerance - the largest acceptable error, in the same units as the radius
+     * @return - the level
+     */
+    public int selectLevel(float tolerance) {
+        return getLevelsOfDetail().selectByError(radius, tolerance);
+    }
+
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this cylinder by at most a tolerance on screen
+     * @param distance - the distance from the camera to this cylinder
+     * @param fovY - the vertical field of view of the camera in radians
+     * @param viewportHeight - the height of the viewport in pixels
+     * @param pixelTolerance - the largest acceptable error in pixels
+     * @return - the level
+     */
+    public int selectLevel(float distance, float fovY, int viewportHeight, float pixelTolerance) {
+        float projectedRadius = LevelOfDetail.getProjectedRadius(radius, distance, fovY, viewportHeight);
+        return getLevelsOfDetail().selectByScreenSize(projectedRadius, pixelTolerance);
     }
 
     /**
@@ -95,7 +237,160 @@ public class Cylinder {
      * @return - the ArrayList of triangles
      */
     public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
         return this.faces;
     }
 
+    /**
+     * getter method
+     * @return - the mesh of this cylinder, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * discards the mesh of this cylinder so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+    }
+
+    /**
+     * discards the mesh of this cylinder and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * moves, rotates, or stretches this cylinder. a generated mesh is transformed in place from the unit cylinder
+     * without tessellating again, and its vertices are marked dirty
+     * @param p1 - the new point in the center of the first circular face
+     * @param p2 - the new point in the center of the second circular face
+     */
+    public void setEnds(Vector3f p1, Vector3f p2) {
+        this.p1 = p1;
+        this.p2 = p2;
+        update();
+    }
+
+    /**
+     * resizes this cylinder. a generated mesh is scaled in place from the unit cylinder without tessellating again,
+     * and its vertices are marked dirty
+     * @param radius - the new radius of this cylinder
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+        update();
+    }
+
+    /**
+     * changes the smoothness of this cylinder. the mesh is discarded and generated again when asked for, so it has to
+     * be uploaded again in full
+     * @param smoothness - the new smoothness
+     */
+    public void setSmoothness(int smoothness) {
+        if (smoothness != this.smoothness) {
+            this.smoothness = smoothness;
+            invalidate();
+        }
+    }
+
+    /**
+     * moves the generated mesh of this cylinder to its current end points and radius
+     */
+    private void update() {
+        this.faces = null;
+        if (this.mesh != null) {
+            this.mesh.transformFrom(getUnitMesh(smoothness), getTransform(p1, p2, radius));
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the point in the center of the first circular face
+     */
+    public Vector3f getP1() {
+        return this.p1;
+    }
+
+    /**
+     * getter method
+     * @return - the point in the center of the second circular face
+     */
+    public Vector3f getP2() {
+        return this.p2;
+    }
+
+    /**
+     * getter method
+     * @return - the radius of this cylinder
+     */
+    public float getRadius() {
+        return this.radius;
+    }
+
+    /**
+     * getter method
+     * @return - the smoothness of this cylinder
+     */
+    public int getSmoothness() {
+        return this.smoothness;
+    }
+
+    /**
+     * gets the triangles of this cylinder as triangle strips over the vertices of its mesh, separated by restarts -
+     * the side as one strip around the axis, then each circular face as a strip zigzagging across its edge
+     * @return - the triangle strips
+     */
+    public PrimitiveBuffer getStrips() {
+        PrimitiveBuffer strips = new PrimitiveBuffer(getMesh(), PrimitiveBuffer.TRIANGLE_STRIP, 4 * smoothness + 4);
+
+        // the unit cylinder is mirrored onto this one, so the strips are wound clockwise in the unit cylinder. the side
+        // rings follow the two circular faces, the ring at p1 and then the ring at p2
+        int side = 2 * smoothness + 2;
+        for (int i = 0; i <= smoothness; i++) {
+            strips.add(side + i % smoothness);
+            strips.add(side + smoothness + i % smoothness);
+        }
+        Circle.addDiscStrip(strips, smoothness, 0, false);
+        Circle.addDiscStrip(strips, smoothness, smoothness + 1, true);
+        return strips;
+    }
+
+    /**
+     * gets the amount of floats needed to write this cylinder with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this cylinder into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this cylinder into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
 }
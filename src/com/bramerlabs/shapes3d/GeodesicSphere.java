@@ -0,0 +1,492 @@
+package com.bramerlabs.shapes3d;
+
+import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.PrimitiveBuffer;
+import com.bramerlabs.support.TessellationCache;
+import com.bramerlabs.support.TessellationEvent;
+import com.bramerlabs.support.TessellationMetrics;
+import com.bramerlabs.support.Transform;
+import com.bramerlabs.support.TriangleSink;
+import com.bramerlabs.support.Vector3f;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * a sphere made by splitting each face of an icosahedron into a triangular grid of any frequency n, giving 20 * n^2
+ * triangles. where Sphere can only split each face into 4, so its triangle count grows 4 times with each depth, the
+ * frequency can be chosen to fit a triangle budget closely. a frequency of 2^d has as many triangles as a Sphere of
+ * depth d, but its vertices are spread a little differently
+ */
+public class GeodesicSphere {
+
+    // the highest frequency, so that the 60 * n^2 indices of the mesh fit in an array
+    private static final int maxFrequency = 5000;
+
+    // position of the sphere
+    private Vector3f position;
+
+    // radius of the sphere - default 1
+    private float radius = 1.0f;
+
+    // color of the sphere
+    private Color color;
+
+    // the amount of segments each edge of the icosahedron is split into
+    private int frequency;
+
+    // the indexed mesh of this sphere - only generated when asked for
+    private MeshBuffer mesh;
+
+    // a list of triangles in this sphere - only built when asked for
+    private ArrayList<Triangle> faces;
+
+    // the tessellation counters of every geodesic sphere
+    private static final TessellationMetrics metrics = TessellationMetrics.forType("geodesic sphere");
+
+    /**
+     * constructor for all specified values
+     * @param position - the position of the focus of this sphere
+     * @param radius - the radius of the sphere
+     * @param color - the color of this sphere
+     * @param frequency - the amount of segments each edge of the icosahedron is split into, at least 1
+     */
+    public GeodesicSphere(Vector3f position, float radius, Color color, int frequency) {
+        checkFrequency(frequency);
+        this.position = position;
+        this.radius = radius;
+        this.color = color;
+        this.frequency = frequency;
+    }
+
+    /**
+     * creates a sphere with as many triangles as fit in a budget
+     * @param position - the position of the focus of the sphere
+     * @param radius - the radius of the sphere
+     * @param color - the color of the sphere
+     * @param triangles - the most triangles the sphere may have, at least 20
+     * @return - the sphere
+     */
+    public static GeodesicSphere withBudget(Vector3f position, float radius, Color color, int triangles) {
+        return new GeodesicSphere(position, radius, color, getFrequency(triangles));
+    }
+
+    /**
+     * gets the highest frequency whose sphere has at most a certain amount of triangles. the next frequency adds
+     * 20 * (2n + 1) triangles, so the sphere falls short of the budget by less than 2 / n of it - under 5% for any
+     * budget over 32000 triangles
+     * @param triangles - the most triangles the sphere may have, at least 20
+     * @return - the frequency
+     */
+    public static int getFrequency(int triangles) {
+        if (triangles < 20) {
+            throw new IllegalArgumentException("a geodesic sphere has at least 20 triangles, not " + triangles);
+        }
+        int frequency = (int) Math.sqrt(triangles / 20.0);
+
+        // correct for rounding in the square root
+        while (frequency < maxFrequency && getTriangleCount(frequency + 1) <= triangles) {
+            frequency++;
+        }
+        while (getTriangleCount(frequency) > triangles) {
+            frequency--;
+        }
+        return Math.min(frequency, maxFrequency);
+    }
+
+    /**
+     * gets the amount of triangles in a sphere of a frequency
+     * @param frequency - the frequency
+     * @return - 20 * frequency^2
+     */
+    public static int getTriangleCount(int frequency) {
+        return 20 * frequency * frequency;
+    }
+
+    /**
+     * gets the amount of unique vertices in a sphere of a frequency
+     * @param frequency - the frequency
+     * @return - 10 * frequency^2 + 2
+     */
+    public static int getVertexCount(int frequency) {
+        return 10 * frequency * frequency + 2;
+    }
+
+    /**
+     * checks that a frequency can be generated
+     * @param frequency - the frequency
+     */
+    private static void checkFrequency(int frequency) {
+        if (frequency < 1 || frequency > maxFrequency) {
+            throw new IllegalArgumentException("frequency must be from 1 to " + maxFrequency + ", not " + frequency);
+        }
+    }
+
+    /**
+     * generates the mesh of this sphere by moving and scaling the cached unit sphere of the same frequency
+     */
+    private void generateTriangles() {
+        TessellationEvent event = metrics.start();
+
+        Vector3f c = new Vector3f(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f);
+        mesh = getUnitMesh(frequency).transformed(Transform.translateScale(position, radius), c);
+
+        metrics.end(event, frequency, mesh.getTriangleCount());
+    }
+
+    /**
+     * passes the triangles of this sphere to a sink, from its mesh if it has been generated and from the cached unit
+     * sphere otherwise
+     * @param sink - the sink to pass the triangles to
+     */
+    public void generate(TriangleSink sink) {
+        TessellationEvent event = metrics.start();
+        if (this.mesh != null) {
+            this.mesh.stream(sink);
+            metrics.end(event, frequency, this.mesh.getTriangleCount());
+            return;
+        }
+        Vector3f c = new Vector3f(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f);
+        MeshBuffer unit = getUnitMesh(frequency);
+        unit.stream(sink.transformed(Transform.translateScale(position, radius), c));
+        metrics.end(event, frequency, unit.getTriangleCount());
+    }
+
+    /**
+     * gets a sphere of radius 1 at the origin as an indexed mesh from the shared tessellation cache.
+     * the mesh is shared and must not be modified
+     * @param frequency - the amount of segments each edge of the icosahedron is split into
+     * @return - the indexed mesh of the unit sphere
+     */
+    public static MeshBuffer getUnitMesh(int frequency) {
+        checkFrequency(frequency);
+        return TessellationCache.getShared().get("geodesic sphere", frequency, () -> generateUnitMesh(frequency));
+    }
+
+    /**
+     * generates a sphere of radius 1 at the origin as an indexed mesh. the 12 corners of the icosahedron come first,
+     * then the n - 1 vertices inside each of its 30 edges, then the vertices inside each face, so vertices on an edge
+     * are made once and shared by both faces on it. each face is filled row by row from a barycentric grid, without
+     * recursion
+     * @param frequency - the amount of segments each edge of the icosahedron is split into
+     * @return - the indexed mesh of the unit sphere
+     */
+    private static MeshBuffer generateUnitMesh(int frequency) {
+        TessellationEvent event = metrics.start();
+
+        int n = frequency;
+        float[] corners = Sphere.generateVertices();
+        int[] faces = Sphere.icosahedronFaces;
+        MeshBuffer unit = new MeshBuffer(getVertexCount(n), getTriangleCount(n) * 3);
+        float[] p = new float[3];
+        for (int i = 0; i < corners.length; i += 3) {
+            unit.addVertex(corners[i], corners[i + 1], corners[i + 2], 0, 0, 0, corners[i], corners[i + 1], corners[i + 2]);
+        }
+
+        // the vertices inside each edge, in the order getEdges() numbers them
+        int[] edges = getEdges(n);
+        for (int f = 0; f < faces.length; f += 3) {
+            for (int e = 0; e < 3; e++) {
+                int a = Math.min(faces[f + e], faces[f + (e + 1) % 3]);
+                int b = Math.max(faces[f + e], faces[f + (e + 1) % 3]);
+                if (edges[a * 12 + b] != unit.getVertexCount()) {
+                    continue;
+                }
+                for (int k = 1; k < n; k++) {
+                    addPoint(unit, p, corners, a * 3, n - k, b * 3, k, b * 3, 0);
+                }
+            }
+        }
+
+        int[] grid = new int[(n + 1) * (n + 1)];
+        for (int f = 0; f < faces.length; f += 3) {
+            int a = faces[f], b = faces[f + 1], c = faces[f + 2];
+            fillGrid(grid, edges, n, a, b, c, unit.getVertexCount());
+            for (int i = 1; i < n; i++) {
+                for (int j = 1; j < n - i; j++) {
+                    addPoint(unit, p, corners, a * 3, n - i - j, b * 3, i, c * 3, j);
+                }
+            }
+
+            // each cell of the grid has a triangle pointing the same way as the face, and all but the last of each row
+            // have one pointing the other way, both wound the same way as the face
+            for (int i = 0; i < n; i++) {
+                int row = i * (n + 1), next = row + n + 1;
+                for (int j = 0; j < n - i; j++) {
+                    unit.addTriangle(grid[row + j], grid[next + j], grid[row + j + 1]);
+                    if (j < n - i - 1) {
+                        unit.addTriangle(grid[next + j], grid[next + j + 1], grid[row + j + 1]);
+                    }
+                }
+            }
+        }
+
+        metrics.endTessellation(event, frequency, unit.getTriangleCount());
+        return unit;
+    }
+
+    /**
+     * adds the triangles of a sphere generated by generateUnitMesh() to a buffer of triangle strips, one strip for each
+     * row of the grid of each face. each strip zigzags between two rows in the same order as the triangles of the mesh,
+     * so the strips draw exactly the triangles of the mesh
+     * @param strips - the buffer of triangle strips
+     * @param frequency - the amount of segments each edge of the icosahedron is split into
+     */
+    private static void addStrips(PrimitiveBuffer strips, int frequency) {
+        int n = frequency;
+        int[] faces = Sphere.icosahedronFaces;
+        int[] edges = getEdges(n);
+        int[] grid = new int[(n + 1) * (n + 1)];
+        int interior = 12 + 30 * (n - 1);
+        for (int f = 0; f < faces.length; f += 3) {
+            interior = fillGrid(grid, edges, n, faces[f], faces[f + 1], faces[f + 2], interior);
+            for (int i = 0; i < n; i++) {
+                int row = i * (n + 1), next = row + n + 1;
+                strips.restart();
+                for (int j = 0; j < n - i; j++) {
+                    strips.add(grid[row + j]);
+                    strips.add(grid[next + j]);
+                }
+                strips.add(grid[row + n - i]);
+            }
+        }
+    }
+
+    /**
+     * numbers the vertices inside the edges of the icosahedron. the 12 corners come first, then the n - 1 vertices
+     * inside each edge in the order the edges are first found in the faces
+     * @param n - the frequency
+     * @return - the first vertex inside the edge between corners a < b at [a * 12 + b], running from a to b
+     */
+    private static int[] getEdges(int n) {
+        int[] faces = Sphere.icosahedronFaces;
+        int[] edges = new int[144];
+        Arrays.fill(edges, -1);
+        int next = 12;
+        for (int f = 0; f < faces.length; f += 3) {
+            for (int e = 0; e < 3; e++) {
+                int a = Math.min(faces[f + e], faces[f + (e + 1) % 3]);
+                int b = Math.max(faces[f + e], faces[f + (e + 1) % 3]);
+                if (edges[a * 12 + b] < 0) {
+                    edges[a * 12 + b] = next;
+                    next += n - 1;
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * fills the grid of a face with the indices of its vertices. the vertex at i steps from the first corner towards
+     * the second and j towards the third is at grid[i * (n + 1) + j]. vertices on the edges come from the edge table,
+     * and the vertices inside the face are numbered in order of i and then j
+     * @param grid - the grid to fill, with room for (n + 1)^2 indices
+     * @param edges - the first vertex inside each edge, from getEdges()
+     * @param n - the frequency
+     * @param a - the first corner of the face
+     * @param b - the second corner of the face
+     * @param c - the third corner of the face
+     * @param interior - the index of the first vertex inside the face
+     * @return - the index after the last vertex inside the face
+     */
+    private static int fillGrid(int[] grid, int[] edges, int n, int a, int b, int c, int interior) {
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n - i; j++) {
+                int vertex;
+                if (j == 0) {
+                    vertex = i == 0 ? a : i == n ? b : getEdgeVertex(edges, n, a, b, i);
+                } else if (i == 0) {
+                    vertex = j == n ? c : getEdgeVertex(edges, n, a, c, j);
+                } else if (i + j == n) {
+                    vertex = getEdgeVertex(edges, n, b, c, j);
+                } else {
+                    vertex = interior++;
+                }
+                grid[i * (n + 1) + j] = vertex;
+            }
+        }
+        return interior;
+    }
+
+    /**
+     * adds a vertex at a weighted sum of 3 corners of the icosahedron, moved out onto the unit sphere
+     * @param unit - the mesh being filled
+     * @param p - scratch array of 3 floats
+     * @param corners - the packed corners of the icosahedron
+     * @param a - the index of the x of the first corner
+     * @param wa - the weight of the first corner
+     * @param b - the index of the x of the second corner
+     * @param wb - the weight of the second corner
+     * @param c - the index of the x of the third corner
+     * @param wc - the weight of the third corner
+     */
+    private static void addPoint(MeshBuffer unit, float[] p, float[] corners, int a, int wa, int b, int wb, int c, int wc) {
+        for (int axis = 0; axis < 3; axis++) {
+            p[axis] = corners[a + axis] * wa + corners[b + axis] * wb + corners[c + axis] * wc;
+        }
+        Vector3f.normalize(p, 0, p, 0);
+
+        // on the unit sphere the normal of a vertex is its position
+        unit.addVertex(p[0], p[1], p[2], 0, 0, 0, p[0], p[1], p[2]);
+    }
+
+    /**
+     * gets a vertex inside an edge of the icosahedron
+     * @param edges - the first vertex inside each edge
+     * @param n - the frequency
+     * @param from - the corner the steps are counted from
+     * @param to - the corner at the other end of the edge
+     * @param step - the amount of steps from the first corner, from 1 to n - 1
+     * @return - the index of the vertex
+     */
+    private static int getEdgeVertex(int[] edges, int n, int from, int to, int step) {
+        return from < to ? edges[from * 12 + to] + step - 1 : edges[to * 12 + from] + n - step - 1;
+    }
+
+    /**
+     * getter method
+     * @return - the ArrayList of triangles
+     */
+    public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
+        return this.faces;
+    }
+
+    /**
+     * getter method
+     * @return - the indexed mesh of this sphere, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * discards the mesh of this sphere so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+    }
+
+    /**
+     * discards the mesh of this sphere and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * moves this sphere. a generated mesh is moved in place from the unit sphere and its vertices are marked dirty
+     * @param position - the new position of the focus of this sphere
+     */
+    public void setPosition(Vector3f position) {
+        this.position = position;
+        update();
+    }
+
+    /**
+     * resizes this sphere. a generated mesh is scaled in place from the unit sphere and its vertices are marked dirty
+     * @param radius - the new radius of this sphere
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+        update();
+    }
+
+    /**
+     * changes the frequency of this sphere. the mesh is discarded and generated again when asked for
+     * @param frequency - the new amount of segments each edge of the icosahedron is split into
+     */
+    public void setFrequency(int frequency) {
+        checkFrequency(frequency);
+        if (frequency != this.frequency) {
+            this.frequency = frequency;
+            invalidate();
+        }
+    }
+
+    /**
+     * moves the generated mesh of this sphere to its current position and radius
+     */
+    private void update() {
+        this.faces = null;
+        if (this.mesh != null) {
+            this.mesh.transformFrom(getUnitMesh(frequency), Transform.translateScale(position, radius));
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the position of the focus of this sphere
+     */
+    public Vector3f getPosition() {
+        return this.position;
+    }
+
+    /**
+     * getter method
+     * @return - the radius of this sphere
+     */
+    public float getRadius() {
+        return this.radius;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of segments each edge of the icosahedron is split into
+     */
+    public int getFrequency() {
+        return this.frequency;
+    }
+
+    /**
+     * gets the triangles of this sphere as triangle strips over the vertices of its mesh, separated by restarts - one
+     * strip for each of the n rows of each face, using about 1 index per triangle instead of 3
+     * @return - the triangle strips
+     */
+    public PrimitiveBuffer getStrips() {
+        PrimitiveBuffer strips = new PrimitiveBuffer(getMesh(), PrimitiveBuffer.TRIANGLE_STRIP,
+                20 * (frequency * frequency + 3 * frequency));
+        addStrips(strips, frequency);
+        return strips;
+    }
+
+    /**
+     * gets the amount of floats needed to write this sphere with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this sphere into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this sphere into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+}
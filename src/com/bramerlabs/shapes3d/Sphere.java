@@ -1,10 +1,24 @@
 package com.bramerlabs.shapes3d;
 
 import com.bramerlabs.shapes2d.Triangle;
+import com.bramerlabs.support.InstanceBatch;
+import com.bramerlabs.support.LevelOfDetail;
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.MeshWriter;
+import com.bramerlabs.support.TessellationCache;
+import com.bramerlabs.support.TessellationEvent;
+import com.bramerlabs.support.TessellationMetrics;
+import com.bramerlabs.support.Transform;
+import com.bramerlabs.support.TriangleSink;
 import com.bramerlabs.support.Vector3f;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class Sphere {
 
@@ -21,12 +35,63 @@ public class Sphere {
     // the amount of times to recursively subdivide faces
     private int depth = 4;
 
-    // a list of triangles in this sphere
-    private ArrayList<Triangle> faces = new ArrayList<>();
+    // whether this sphere is generated as an indexed mesh with shared vertices
+    private boolean indexed = false;
+
+    // the pool used to generate this sphere in parallel - null to generate on the calling thread
+    private ForkJoinPool pool;
+
+    // the mesh of this sphere - only generated when asked for
+    private MeshBuffer mesh;
+
+    // a list of triangles in this sphere - only built when asked for
+    private ArrayList<Triangle> faces;
+
+    // the indexed mesh of a sphere not built in indexed mode - only built when asked for
+    private MeshBuffer indexedMesh;
 
     // the golden ratio
     private static final float phi = 1.6180339f;
 
+    // the 20 faces of the icosahedron, as indices into the vertices from generateVertices()
+    static final int[] icosahedronFaces = {
+            0,  2,  10,
+            0,  10, 5,
+            0,  5,  4,
+            0,  4,  8,
+            0,  8,  2,
+            3,  1,  11,
+            3,  11, 7,
+            3,  7,  6,
+            3,  6,  9,
+            3,  9,  1,
+            2,  6,  7,
+            2,  7,  10,
+            10, 7,  11,
+            10, 11, 5,
+            5,  11, 1,
+            5,  1,  4,
+            4,  1,  9,
+            4,  9,  8,
+            8,  9,  6,
+            8,  6,  2
+    };
+
+    // the deepest sphere, whose 20 * 4^10 triangles still fit in an array of interleaved floats with normals
+    private static final int maxDepth = 10;
+
+    // subtrees of at most this depth are subdivided by a single task when generating in parallel
+    private static final int sequentialDepth = 5;
+
+    // the depths of the levels of detail of spheres
+    private static final int[] levelDepths = {0, 1, 2, 3, 4, 5, 6};
+
+    // the levels of detail of spheres, by depth - only measured when asked for
+    private static LevelOfDetail levelsOfDetail;
+
+    // the tessellation counters of every sphere
+    private static final TessellationMetrics metrics = TessellationMetrics.forType("sphere");
+
     /**
      * constructor for specified position and color with radius 1
      * @param position - the position of the focus of this sphere
@@ -36,7 +101,6 @@ public class Sphere {
     public Sphere(Vector3f position, Color color) {
         this.position = position;
         this.color = color;
-        generateTriangles();
     }
 
     /**
@@ -44,101 +108,438 @@ public class Sphere {
      * @param position - the position of the focus of this sphere
      * @param radius - the radius of the sphere
      * @param color - the color of this sphere
-     * @param depth - the amount of times to recursively subdivide faces for smoothing
+     * @param depth - the amount of times to recursively subdivide faces for smoothing, from 0 to 10
      */
     public Sphere(Vector3f position, float radius, Color color, int depth) {
+        checkDepth(depth);
         this.position = position;
         this.radius = radius;
         this.color = color;
         this.depth = depth;
-        generateTriangles();
     }
 
     /**
-     * generates a list of triangles making up the mesh of this sphere
+     * constructor for all specified values and mesh mode
+     * @param position - the position of the focus of this sphere
+     * @param radius - the radius of the sphere
+     * @param color - the color of this sphere
+     * @param depth - the amount of times to recursively subdivide faces for smoothing, from 0 to 10
+     * @param indexed - true to generate an indexed mesh where neighbouring triangles share vertices
+     */
+    public Sphere(Vector3f position, float radius, Color color, int depth, boolean indexed) {
+        checkDepth(depth);
+        this.position = position;
+        this.radius = radius;
+        this.color = color;
+        this.depth = depth;
+        this.indexed = indexed;
+    }
+
+    /**
+     * constructor for all specified values, generating the mesh in parallel.
+     * each face is written to a fixed range of the mesh, so the result is the same as generating on one thread
+     * @param position - the position of the focus of this sphere
+     * @param radius - the radius of the sphere
+     * @param color - the color of this sphere
+     * @param depth - the amount of times to recursively subdivide faces for smoothing, from 0 to 10
+     * @param pool - the pool to split the subdivision of the faces across
+     */
+    public Sphere(Vector3f position, float radius, Color color, int depth, ForkJoinPool pool) {
+        checkDepth(depth);
+        this.position = position;
+        this.radius = radius;
+        this.color = color;
+        this.depth = depth;
+        this.pool = pool;
+    }
+
+    /**
+     * checks that a depth is in range
+     * @param depth - the amount of times to recursively subdivide faces
+     */
+    private static void checkDepth(int depth) {
+        if (depth < 0 || depth > maxDepth) {
+            throw new IllegalArgumentException("depth must be from 0 to " + maxDepth + ", not " + depth);
+        }
+    }
+
+    /**
+     * generates the mesh of this sphere by moving and scaling the cached unit sphere of the same depth
      */
     private void generateTriangles() {
-        Vector3f[] vertices = generateVertices();
+        TessellationEvent event = metrics.start();
+
+        Vector3f c = new Vector3f(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f);
+        mesh = getUnit().transformed(Transform.translateScale(position, radius), c);
+
+        metrics.end(event, depth, mesh.getTriangleCount());
+    }
+
+    /**
+     * gets the cached unit sphere this sphere is generated from
+     * @return - the unit mesh, indexed if this sphere is
+     */
+    private MeshBuffer getUnit() {
+        return indexed ? getUnitIndexedMesh(depth) :
+                TessellationCache.getShared().get("sphere", depth, () -> generateUnitMesh(depth, pool));
+    }
+
+    /**
+     * passes the triangles of this sphere to a sink as they are produced, in the same order as getMesh(). nothing is
+     * cached and the mesh of this sphere is not built, so only a few floats per level of depth are held at a time,
+     * whatever the depth. if the mesh has already been generated, its triangles are passed on instead
+     * @param sink - the sink to pass the triangles to, called on this thread
+     */
+    public void generate(TriangleSink sink) {
+        TessellationEvent event = metrics.start();
+        if (this.mesh != null) {
+            this.mesh.stream(sink);
+            metrics.end(event, depth, this.mesh.getTriangleCount());
+            return;
+        }
+        Vector3f c = new Vector3f(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f);
+        TriangleSink target = sink.transformed(Transform.translateScale(position, radius), c);
+
+        // nothing is cached, so the triangles are tessellated from scratch on every call
+        TessellationEvent tessellation = metrics.start();
+        float[] vertices = Arrays.copyOf(generateVertices(), 36 + 9 * depth);
+        for (int i = 0; i < icosahedronFaces.length; i += 3) {
+            subdivide(target, vertices, icosahedronFaces[i] * 3, icosahedronFaces[i + 1] * 3, icosahedronFaces[i + 2] * 3,
+                    depth, 36);
+        }
+        long triangles = 20L << (2 * depth);
+        metrics.endTessellation(tessellation, depth, triangles);
+        metrics.end(event, depth, triangles);
+    }
+
+    /**
+     * gets a sphere of radius 1 at the origin as a list of triangles from the shared tessellation cache.
+     * the mesh is shared and must not be modified
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the mesh of the unit sphere
+     */
+    public static MeshBuffer getUnitMesh(int depth) {
+        checkDepth(depth);
+        return TessellationCache.getShared().get("sphere", depth, () -> generateUnitMesh(depth, null));
+    }
+
+    /**
+     * gets a sphere of radius 1 at the origin as an indexed mesh from the shared tessellation cache.
+     * the mesh is shared and must not be modified
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the indexed mesh of the unit sphere
+     */
+    public static MeshBuffer getUnitIndexedMesh(int depth) {
+        checkDepth(depth);
+        return TessellationCache.getShared().get("indexed sphere", depth, () -> generateIndexedMesh(depth));
+    }
+
+    /**
+     * creates a batch of spheres that share one mesh and differ only in position, radius, and color.
+     * the base mesh is the cached indexed unit sphere, and each instance scales it by its radius and moves it to its position
+     * @param positions - the packed x, y, z position of each sphere
+     * @param radii - the radius of each sphere
+     * @param colors - the color of each sphere
+     * @param depth - the amount of times to recursively subdivide faces, the same for every sphere
+     * @return - the batch
+     */
+    public static InstanceBatch batch(float[] positions, float[] radii, Color[] colors, int depth) {
+        if (positions.length != radii.length * 3 || colors.length != radii.length) {
+            throw new IllegalArgumentException("expected 3 position values, 1 radius, and 1 color per sphere");
+        }
+
+        InstanceBatch batch = new InstanceBatch(getUnitIndexedMesh(depth), radii.length);
+        Vector3f position = new Vector3f();
+        Vector3f c = new Vector3f();
+        for (int i = 0; i < radii.length; i++) {
+            Color color = colors[i];
+            position.set(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+            c.set(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f);
+            batch.setInstance(i, Transform.translateScale(position, radii[i]), c);
+        }
+        return batch;
+    }
+
+    /**
+     * generates a sphere of radius 1 at the origin as a list of triangles
+     * @param depth - the amount of times to recursively subdivide faces
+     * @param pool - the pool to generate the faces in parallel with, or null to generate on the calling thread
+     * @return - the mesh of the unit sphere
+     */
+    private static MeshBuffer generateUnitMesh(int depth, ForkJoinPool pool) {
+        TessellationEvent event = metrics.start();
+
+        // the 12 vertices of the icosahedron, followed by room for the 3 midpoints made at each level of recursion
+        float[] vertices = Arrays.copyOf(generateVertices(), 36 + 9 * depth);
+
+        // a sphere of depth d has 20 * 4^d faces with 3 vertices each, and face f fills triangles f * 4^d and up
+        int leaves = 1 << (2 * depth);
+        MeshBuffer unit = new MeshBuffer(60 * leaves).enableNormals();
+        unit.setVertexCount(60 * leaves);
+
+        if (pool != null) {
+            SubdivideTask[] tasks = new SubdivideTask[20];
+            for (int i = 0; i < icosahedronFaces.length; i += 3) {
+                float[] triangle = new float[9];
+                System.arraycopy(vertices, icosahedronFaces[i] * 3, triangle, 0, 3);
+                System.arraycopy(vertices, icosahedronFaces[i + 1] * 3, triangle, 3, 3);
+                System.arraycopy(vertices, icosahedronFaces[i + 2] * 3, triangle, 6, 3);
+                tasks[i / 3] = new SubdivideTask(unit, triangle, depth, i / 3 * leaves);
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } else {
+            // subdivide each triangular face (20 total) recursively
+            for (int i = 0; i < icosahedronFaces.length; i += 3) {
+                subdivide(unit, vertices, icosahedronFaces[i] * 3, icosahedronFaces[i + 1] * 3,
+                        icosahedronFaces[i + 2] * 3, depth, i / 3 * leaves, 36);
+            }
+        }
+
+        metrics.endTessellation(event, depth, unit.getTriangleCount());
+        return unit;
+    }
+
+    /**
+     * generates a sphere of radius 1 at the origin as a list of unique vertices and an index buffer.
+     * each edge midpoint is created and normalized only once, and is shared by both faces on that edge
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the indexed mesh of the unit sphere
+     */
+    private static MeshBuffer generateIndexedMesh(int depth) {
+        TessellationEvent event = metrics.start();
+
+        float[] base = generateVertices();
+
+        // an icosphere of depth d has 10 * 4^d + 2 unique vertices and 20 * 4^d faces
+        int leaves = 1 << (2 * depth);
+        MeshBuffer unit = new MeshBuffer(10 * leaves + 2, 60 * leaves);
+        for (int i = 0; i < base.length; i += 3) {
+            unit.addVertex(base[i], base[i + 1], base[i + 2], 0, 0, 0, base[i], base[i + 1], base[i + 2]);
+        }
 
         // subdivide each triangular face (20 total) recursively
-        subdivide(vertices[0],  vertices[2],  vertices[10], depth);
-        subdivide(vertices[0],  vertices[10], vertices[5],  depth);
-        subdivide(vertices[0],  vertices[5],  vertices[4],  depth);
-        subdivide(vertices[0],  vertices[4],  vertices[8],  depth);
-        subdivide(vertices[0],  vertices[8],  vertices[2],  depth);
-        subdivide(vertices[3],  vertices[1],  vertices[11], depth);
-        subdivide(vertices[3],  vertices[11], vertices[7],  depth);
-        subdivide(vertices[3],  vertices[7],  vertices[6],  depth);
-        subdivide(vertices[3],  vertices[6],  vertices[9],  depth);
-        subdivide(vertices[3],  vertices[9],  vertices[1],  depth);
-        subdivide(vertices[2],  vertices[6],  vertices[7],  depth);
-        subdivide(vertices[2],  vertices[7],  vertices[10], depth);
-        subdivide(vertices[10], vertices[7],  vertices[11], depth);
-        subdivide(vertices[10], vertices[11], vertices[5],  depth);
-        subdivide(vertices[5],  vertices[11], vertices[1],  depth);
-        subdivide(vertices[5],  vertices[1],  vertices[4],  depth);
-        subdivide(vertices[4],  vertices[1],  vertices[9],  depth);
-        subdivide(vertices[4],  vertices[9],  vertices[8],  depth);
-        subdivide(vertices[8],  vertices[9],  vertices[6],  depth);
-        subdivide(vertices[8],  vertices[6],  vertices[2],  depth);
+        EdgeCache edges = new EdgeCache(10 * leaves + 2);
+        for (int i = 0; i < icosahedronFaces.length; i += 3) {
+            subdivideIndexed(unit, edges, icosahedronFaces[i], icosahedronFaces[i + 1], icosahedronFaces[i + 2], depth);
+        }
+
+        metrics.endTessellation(event, depth, unit.getTriangleCount());
+        return unit;
     }
 
     /**
      * generates a list of vertices based on the depth - default 4. Recursively subdivides each triangle to
      * form more vertices.
-     * @return - a list of vertices of triangles in the sphere.
+     * @return - the packed x, y, z positions of the 12 vertices of the icosahedron in the unit sphere.
      */
-    private Vector3f[] generateVertices() {
+    static float[] generateVertices() {
 
         // define a regular icosahedron using 12 vertices
-        Vector3f[] vertices = new Vector3f[12];
-        vertices[0]  = new Vector3f( 0.5f * radius, 0,  phi/2 * radius);
-        vertices[1]  = new Vector3f( 0.5f * radius, 0, -phi/2 * radius);
-        vertices[2]  = new Vector3f(-0.5f * radius, 0,  phi/2 * radius);
-        vertices[3]  = new Vector3f(-0.5f * radius, 0, -phi/2 * radius);
-        vertices[4]  = new Vector3f( phi/2 * radius,  0.5f * radius, 0);
-        vertices[5]  = new Vector3f( phi/2 * radius, -0.5f * radius, 0);
-        vertices[6]  = new Vector3f(-phi/2 * radius,  0.5f * radius, 0);
-        vertices[7]  = new Vector3f(-phi/2 * radius, -0.5f * radius, 0);
-        vertices[8]  = new Vector3f(0,  phi/2 * radius, 0.5f * radius);
-        vertices[9]  = new Vector3f(0,  phi/2 * radius,-0.5f * radius);
-        vertices[10] = new Vector3f(0, -phi/2 * radius, 0.5f * radius);
-        vertices[11] = new Vector3f(0, -phi/2 * radius,-0.5f * radius);
+        float[] vertices = {
+                 0.5f, 0,  phi/2,
+                 0.5f, 0, -phi/2,
+                -0.5f, 0,  phi/2,
+                -0.5f, 0, -phi/2,
+                 phi/2,  0.5f, 0,
+                 phi/2, -0.5f, 0,
+                -phi/2,  0.5f, 0,
+                -phi/2, -0.5f, 0,
+                0,  phi/2, 0.5f,
+                0,  phi/2,-0.5f,
+                0, -phi/2, 0.5f,
+                0, -phi/2,-0.5f
+        };
+
+        // the icosahedron above has a circumradius of about 0.951, so move its vertices out onto the unit sphere
+        for (int i = 0; i < vertices.length; i += 3) {
+            Vector3f.normalize(vertices, i, vertices, i);
+        }
         return vertices;
     }
 
     /**
-     * recursively subdivides a triangle into 4 triangles, and then normalizes each new vertex to a radius of 1
-     * @param v1 - the first vertex of the triangle
-     * @param v2 - the second vertex of the triangle
-     * @param v3 - the third vertex of the triangle
+     * recursively subdivides a triangle into 4 triangles, and then normalizes each new vertex to a radius of 1.
+     * the new vertices are written to the scratch array rather than allocated, 3 per level of recursion
+     * @param unit - the mesh being filled
+     * @param v - scratch array holding the vertices of the triangle, with room for 9 floats per remaining level
+     * @param v1 - the index in v of the first vertex of the triangle
+     * @param v2 - the index in v of the second vertex of the triangle
+     * @param v3 - the index in v of the third vertex of the triangle
+     * @param depth - the current depth of recursion
+     * @param triangle - the index in the mesh of the first triangle produced from this triangle
+     * @param free - the index in v where the midpoints of this level can be written
+     */
+    private static void subdivide(MeshBuffer unit, float[] v, int v1, int v2, int v3, int depth, int triangle, int free) {
+
+        // default condition
+        if (depth == 0) {
+            // on the unit sphere the normal of a vertex is its position
+            int i = triangle * 3;
+            unit.setVertex(i,     v[v1], v[v1 + 1], v[v1 + 2], 0, 0, 0, v[v1], v[v1 + 1], v[v1 + 2]);
+            unit.setVertex(i + 1, v[v2], v[v2 + 1], v[v2 + 2], 0, 0, 0, v[v2], v[v2 + 1], v[v2 + 2]);
+            unit.setVertex(i + 2, v[v3], v[v3 + 1], v[v3 + 2], 0, 0, 0, v[v3], v[v3 + 1], v[v3 + 2]);
+            return;
+        }
+
+        // create new vertices for each face and normalize them to retain spherical radius
+        int v12 = free, v23 = free + 3, v31 = free + 6;
+        midpoint(v, v1, v2, v12);
+        midpoint(v, v2, v3, v23);
+        midpoint(v, v3, v1, v31);
+
+        // recursive part - each of the 4 triangles fills a quarter of the range of this triangle
+        int quarter = 1 << (2 * (depth - 1));
+        subdivide(unit, v, v1, v12, v31, depth-1, triangle, free + 9);
+        subdivide(unit, v, v2, v23, v12, depth-1, triangle + quarter, free + 9);
+        subdivide(unit, v, v3, v31, v23, depth-1, triangle + 2 * quarter, free + 9);
+        subdivide(unit, v, v12, v23, v31,depth-1, triangle + 3 * quarter, free + 9);
+    }
+
+    /**
+     * recursively subdivides a triangle the same way as subdivide(), passing each triangle to a sink instead of a mesh
+     * @param sink - the sink to pass the triangles to
+     * @param v - scratch array holding the vertices of the triangle, with room for 9 floats per remaining level
+     * @param v1 - the index in v of the first vertex of the triangle
+     * @param v2 - the index in v of the second vertex of the triangle
+     * @param v3 - the index in v of the third vertex of the triangle
      * @param depth - the current depth of recursion
+     * @param free - the index in v where the midpoints of this level can be written
      */
-    private void subdivide(Vector3f v1, Vector3f v2, Vector3f v3, long depth) {
+    private static void subdivide(TriangleSink sink, float[] v, int v1, int v2, int v3, int depth, int free) {
 
         // default condition
         if (depth == 0) {
+            // on the unit sphere, the position of a vertex is also its normal
+            sink.triangle(v[v1], v[v1 + 1], v[v1 + 2], v[v2], v[v2 + 1], v[v2 + 2], v[v3], v[v3 + 1], v[v3 + 2],
+                    v[v1], v[v1 + 1], v[v1 + 2], v[v2], v[v2 + 1], v[v2 + 2], v[v3], v[v3 + 1], v[v3 + 2], 0, 0, 0);
+            return;
+        }
+
+        int v12 = free, v23 = free + 3, v31 = free + 6;
+        midpoint(v, v1, v2, v12);
+        midpoint(v, v2, v3, v23);
+        midpoint(v, v3, v1, v31);
+
+        subdivide(sink, v, v1, v12, v31, depth-1, free + 9);
+        subdivide(sink, v, v2, v23, v12, depth-1, free + 9);
+        subdivide(sink, v, v3, v31, v23, depth-1, free + 9);
+        subdivide(sink, v, v12, v23, v31,depth-1, free + 9);
+    }
 
-            // create new vectors to modify
-            Vector3f v1p = new Vector3f(v1).add(position);
-            Vector3f v2p = new Vector3f(v2).add(position);
-            Vector3f v3p = new Vector3f(v3).add(position);
+    /**
+     * finds the point on the unit sphere halfway between two vertices
+     * @param v - the array holding the vertices
+     * @param a - the index of the first vertex
+     * @param b - the index of the second vertex
+     * @param dest - the index to write the midpoint to
+     */
+    private static void midpoint(float[] v, int a, int b, int dest) {
+        Vector3f.add(v, a, v, b, v, dest);
+        Vector3f.normalize(v, dest, v, dest);
+    }
 
-            faces.add(new Triangle(v1p, v2p, v3p, new Vector3f(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f)));
+    /**
+     * recursively subdivides a triangle of the indexed mesh into 4 triangles
+     * @param indexedMesh - the mesh being filled
+     * @param edges - the midpoints created so far
+     * @param i1 - the index of the first vertex of the triangle
+     * @param i2 - the index of the second vertex of the triangle
+     * @param i3 - the index of the third vertex of the triangle
+     * @param depth - the current depth of recursion
+     */
+    private static void subdivideIndexed(MeshBuffer indexedMesh, EdgeCache edges, int i1, int i2, int i3, int depth) {
 
+        // default condition
+        if (depth == 0) {
+            indexedMesh.addTriangle(i1, i2, i3);
             return;
         }
 
-        // create new vertices for each face and normalize them to retain spherical radius
-        Vector3f v12 = new Vector3f(v1.x + v2.x, v1.y + v2.y, v1.z + v2.z).normalize(radius);
-        Vector3f v23 = new Vector3f(v2.x + v3.x, v2.y + v3.y, v2.z + v3.z).normalize(radius);
-        Vector3f v31 = new Vector3f(v3.x + v1.x, v3.y + v1.y, v3.z + v1.z).normalize(radius);
+        // look up or create the midpoint of each edge
+        int i12 = edges.midpoint(indexedMesh, i1, i2);
+        int i23 = edges.midpoint(indexedMesh, i2, i3);
+        int i31 = edges.midpoint(indexedMesh, i3, i1);
 
         // recursive part
-        subdivide(v1, v12, v31, depth-1);
-        subdivide(v2, v23, v12, depth-1);
-        subdivide(v3, v31, v23, depth-1);
-        subdivide(v12, v23, v31,depth-1);
+        subdivideIndexed(indexedMesh, edges, i1, i12, i31, depth-1);
+        subdivideIndexed(indexedMesh, edges, i2, i23, i12, depth-1);
+        subdivideIndexed(indexedMesh, edges, i3, i31, i23, depth-1);
+        subdivideIndexed(indexedMesh, edges, i12, i23, i31, depth-1);
+    }
+
+    /**
+     * getter method
+     * @return - the levels of detail of spheres, by depth
+     */
+    public static synchronized LevelOfDetail getLevelsOfDetail() {
+        if (levelsOfDetail == null) {
+            float[] errors = new float[levelDepths.length];
+            for (int i = 0; i < levelDepths.length; i++) {
+                errors[i] = getUnitError(levelDepths[i]);
+            }
+            levelsOfDetail = new LevelOfDetail(levelDepths, errors);
+        }
+        return levelsOfDetail;
+    }
+
+    /**
+     * measures how far the faces of a sphere of radius 1 sink below its surface
+     * @param depth - the depth of the sphere
+     * @return - the largest distance between the sphere and the plane of one of its faces
+     */
+    private static float getUnitError(int depth) {
+        MeshBuffer unit = getUnitMesh(depth);
+        float[] p = unit.getPositions();
+        float error = 0;
+        for (int i = 0; i < unit.getTriangleCount() * 3; i += 3) {
+            int a = unit.getIndex(i) * 3, b = unit.getIndex(i + 1) * 3, c = unit.getIndex(i + 2) * 3;
+
+            // the distance from the center to the plane of the face is |n . a| / |n|, where n is the face normal
+            float ux = p[b] - p[a], uy = p[b + 1] - p[a + 1], uz = p[b + 2] - p[a + 2];
+            float vx = p[c] - p[a], vy = p[c + 1] - p[a + 1], vz = p[c + 2] - p[a + 2];
+            float nx = uy * vz - uz * vy;
+            float ny = uz * vx - ux * vz;
+            float nz = ux * vy - uy * vx;
+            float distance = Math.abs(nx * p[a] + ny * p[a + 1] + nz * p[a + 2]) / (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            error = Math.max(error, 1 - distance);
+        }
+        return error;
+    }
+
+    /**
+     * creates a copy of this sphere at a level of detail
+     * @param level - the level, from getLevelsOfDetail()
+     * @return - a new sphere with the depth of the level
+     */
+    public Sphere atLevel(int level) {
+        return new Sphere(position, radius, color, getLevelsOfDetail().getResolution(level), indexed);
+    }
+
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this sphere by at most a tolerance
+     * @param tolerance - the largest acceptable error, in the same units as the radius
+     * @return - the level
+     */
+    public int selectLevel(float tolerance) {
+        return getLevelsOfDetail().selectByError(radius, tolerance);
+    }
+
+    /**
+     * selects the coarsest level of detail that strays from the true surface of this sphere by at most a tolerance on screen
+     * @param distance - the distance from the camera to this sphere
+     * @param fovY - the vertical field of view of the camera in radians
+     * @param viewportHeight - the height of the viewport in pixels
+     * @param pixelTolerance - the largest acceptable error in pixels
+     * @return - the level
+     */
+    public int selectLevel(float distance, float fovY, int viewportHeight, float pixelTolerance) {
+        float projectedRadius = LevelOfDetail.getProjectedRadius(radius, distance, fovY, viewportHeight);
+        return getLevelsOfDetail().selectByScreenSize(projectedRadius, pixelTolerance);
     }
 
     /**
@@ -146,6 +547,284 @@ public class Sphere {
      * @return - the ArrayList of triangles
      */
     public ArrayList<Triangle> getFaces() {
+        if (this.faces == null) {
+            this.faces = getMesh().toTriangles();
+        }
         return this.faces;
     }
+
+    /**
+     * getter method
+     * @return - the mesh of this sphere, generating it the first time it is asked for
+     */
+    public MeshBuffer getMesh() {
+        if (this.mesh == null) {
+            generateTriangles();
+        }
+        return this.mesh;
+    }
+
+    /**
+     * discards the mesh of this sphere so that it is generated again the next time it is asked for
+     */
+    public void invalidate() {
+        this.mesh = null;
+        this.faces = null;
+        this.indexedMesh = null;
+    }
+
+    /**
+     * discards the mesh of this sphere and generates it again right away
+     */
+    public void regenerate() {
+        invalidate();
+        generateTriangles();
+    }
+
+    /**
+     * moves this sphere. a generated mesh is moved in place from the unit sphere without subdividing again, and its
+     * vertices are marked dirty
+     * @param position - the new position of the focus of this sphere
+     */
+    public void setPosition(Vector3f position) {
+        this.position = position;
+        update();
+    }
+
+    /**
+     * resizes this sphere. a generated mesh is scaled in place from the unit sphere without subdividing again, and its
+     * vertices are marked dirty
+     * @param radius - the new radius of this sphere
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+        update();
+    }
+
+    /**
+     * changes the amount of times faces are subdivided. the mesh is discarded and generated again when asked for, so
+     * it has to be uploaded again in full
+     * @param depth - the new depth, from 0 to 10
+     */
+    public void setDepth(int depth) {
+        checkDepth(depth);
+        if (depth != this.depth) {
+            this.depth = depth;
+            invalidate();
+        }
+    }
+
+    /**
+     * moves the generated meshes of this sphere to its current position and radius
+     */
+    private void update() {
+        this.faces = null;
+        Transform transform = Transform.translateScale(position, radius);
+        if (this.mesh != null) {
+            this.mesh.transformFrom(getUnit(), transform);
+        }
+        if (this.indexedMesh != null) {
+            this.indexedMesh.transformFrom(getUnitIndexedMesh(depth), transform);
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the position of the focus of this sphere
+     */
+    public Vector3f getPosition() {
+        return this.position;
+    }
+
+    /**
+     * getter method
+     * @return - the radius of this sphere
+     */
+    public float getRadius() {
+        return this.radius;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of times faces are subdivided
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * gets the amount of floats needed to write this sphere with writeInterleaved()
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public int getInterleavedLength(boolean normals) {
+        return MeshWriter.getLength(getMesh().getTriangleCount(), normals);
+    }
+
+    /**
+     * writes the mesh of this sphere into a buffer as interleaved vertices - position, color, and optionally normal
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(FloatBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * writes the mesh of this sphere into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeInterleaved(ByteBuffer buffer, boolean normals) {
+        MeshWriter.writeInterleaved(getMesh(), buffer, normals);
+    }
+
+    /**
+     * getter method
+     * @return - the indexed mesh of this sphere, generating it if this sphere was not built in indexed mode
+     */
+    public MeshBuffer getIndexedMesh() {
+        if (indexed) {
+            return getMesh();
+        }
+        if (this.indexedMesh == null) {
+            Vector3f c = new Vector3f(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f);
+            this.indexedMesh = getUnitIndexedMesh(depth).transformed(Transform.translateScale(position, radius), c);
+        }
+        return this.indexedMesh;
+    }
+
+    /**
+     * getter method
+     * @return - true if this sphere was generated as an indexed mesh
+     */
+    public boolean isIndexed() {
+        return this.indexed;
+    }
+
+    /**
+     * subdivides a triangle into its fixed range of the mesh, splitting deep subtrees into 4 smaller tasks
+     */
+    private static class SubdivideTask extends RecursiveAction {
+
+        // the mesh being filled
+        private final MeshBuffer unit;
+
+        // the packed x, y, z positions of the 3 vertices of the triangle to subdivide
+        private final float[] v;
+
+        // the remaining depth of recursion
+        private final int depth;
+
+        // the index in the mesh of the first triangle produced from this triangle
+        private final int triangle;
+
+        /**
+         * default constructor
+         */
+        private SubdivideTask(MeshBuffer unit, float[] v, int depth, int triangle) {
+            this.unit = unit;
+            this.v = v;
+            this.depth = depth;
+            this.triangle = triangle;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth <= sequentialDepth) {
+                // each sequential subtree gets its own scratch array, so tasks never share one
+                subdivide(unit, Arrays.copyOf(v, 9 + 9 * depth), 0, 3, 6, depth, triangle, 9);
+                return;
+            }
+
+            // same midpoints as subdivide(), split into one task per quarter of the range
+            float[] w = Arrays.copyOf(v, 18);
+            midpoint(w, 0, 3, 9);
+            midpoint(w, 3, 6, 12);
+            midpoint(w, 6, 0, 15);
+
+            int quarter = 1 << (2 * (depth - 1));
+            invokeAll(new SubdivideTask(unit, corners(w, 0, 9, 15), depth-1, triangle),
+                    new SubdivideTask(unit, corners(w, 3, 12, 9), depth-1, triangle + quarter),
+                    new SubdivideTask(unit, corners(w, 6, 15, 12), depth-1, triangle + 2 * quarter),
+                    new SubdivideTask(unit, corners(w, 9, 12, 15), depth-1, triangle + 3 * quarter));
+        }
+
+        /**
+         * copies 3 vertices into a new array
+         * @param w - the array holding the vertices
+         * @param a - the index of the first vertex
+         * @param b - the index of the second vertex
+         * @param c - the index of the third vertex
+         * @return - the packed x, y, z positions of the 3 vertices
+         */
+        private float[] corners(float[] w, int a, int b, int c) {
+            float[] corners = new float[9];
+            System.arraycopy(w, a, corners, 0, 3);
+            System.arraycopy(w, b, corners, 3, 3);
+            System.arraycopy(w, c, corners, 6, 3);
+            return corners;
+        }
+    }
+
+    /**
+     * an open-addressed cache from each edge of an indexed sphere to the index of its midpoint vertex
+     */
+    private static class EdgeCache {
+
+        // edge keys and midpoint indices - a key of 0 marks an empty slot
+        private final long[] edges;
+        private final int[] midpoints;
+        private final int mask;
+
+        /**
+         * default constructor
+         * @param numVertices - the amount of vertices the mesh will hold
+         */
+        private EdgeCache(int numVertices) {
+            // every vertex past the first 12 is the midpoint of exactly one edge - keep the table at most half full
+            int capacity = 16;
+            while (capacity < numVertices * 2) {
+                capacity <<= 1;
+            }
+            this.edges = new long[capacity];
+            this.midpoints = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * gets the midpoint of an edge, creating it and normalizing it to a length of 1 the first time it is asked for
+         * @param mesh - the mesh holding the vertices, centered on the origin
+         * @param a - the index of the first vertex of the edge
+         * @param b - the index of the second vertex of the edge
+         * @return - the index of the midpoint vertex
+         */
+        private int midpoint(MeshBuffer mesh, int a, int b) {
+            // the same key for both directions of the edge, never 0 since the larger index is at least 1
+            long key = a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+            long h = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (h ^ (h >>> 32)) & mask;
+            while (edges[slot] != 0) {
+                if (edges[slot] == key) {
+                    return midpoints[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            // same arithmetic as Vector3f.normalize() so positions match the non-indexed mesh
+            float[] p = mesh.getPositions();
+            float x = p[a * 3] + p[b * 3];
+            float y = p[a * 3 + 1] + p[b * 3 + 1];
+            float z = p[a * 3 + 2] + p[b * 3 + 2];
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            x /= length;
+            y /= length;
+            z /= length;
+            int index = mesh.addVertex(x, y, z, 0, 0, 0, x, y, z);
+
+            edges[slot] = key;
+            midpoints[slot] = index;
+            return index;
+        }
+    }
 }
\ No newline at end of file
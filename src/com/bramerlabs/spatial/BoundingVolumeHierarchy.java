@@ -0,0 +1,773 @@
+package com.bramerlabs.spatial;
+
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a tree of axis aligned boxes over the triangles of one or many meshes, for ray picking and overlap queries that
+ * visit a logarithmic amount of triangles rather than every one. the tree is split by the surface area heuristic and
+ * stored in flat arrays, with the triangles copied out of the meshes in the order the leaves use them, so it is not
+ * affected by later changes to the meshes
+ */
+public class BoundingVolumeHierarchy {
+
+    // nodes with at most this many triangles become leaves when the surface area heuristic says splitting doesn't pay
+    private static final int maxLeafSize = 16;
+
+    // the amount of candidate split planes tried along each axis
+    private static final int binCount = 16;
+
+    // the cost of visiting a node compared to testing a triangle
+    private static final float traversalCost = 1f;
+
+    // subtrees with more triangles than this are built as separate tasks
+    private static final int parallelSize = 1 << 12;
+
+    // the min x, y, z and max x, y, z of each node, the root first
+    private final float[] bounds;
+
+    // for a leaf, the index of its first triangle - for an inner node, the index of its first child, followed by the second
+    private final int[] first;
+
+    // the amount of triangles in each leaf, 0 for inner nodes
+    private final int[] count;
+
+    // the x, y, z of the 3 vertices of each triangle, in the order the leaves use them
+    private final float[] triangles;
+
+    // the mesh each triangle belongs to, and its index in that mesh
+    private final int[] shapes;
+    private final int[] shapeTriangles;
+
+    /**
+     * constructor for a built tree
+     * @param bounds - the bounds of each node
+     * @param first - the first triangle or child of each node
+     * @param count - the amount of triangles in each node
+     * @param triangles - the vertices of each triangle
+     * @param shapes - the mesh of each triangle
+     * @param shapeTriangles - the index of each triangle in its mesh
+     */
+    private BoundingVolumeHierarchy(float[] bounds, int[] first, int[] count, float[] triangles, int[] shapes,
+                                    int[] shapeTriangles) {
+        this.bounds = bounds;
+        this.first = first;
+        this.count = count;
+        this.triangles = triangles;
+        this.shapes = shapes;
+        this.shapeTriangles = shapeTriangles;
+    }
+
+    /**
+     * builds a tree over the triangles of meshes, in parallel in the common pool
+     * @param meshes - the meshes, such as the meshes of the shapes in a scene. hits refer to them by index in this list
+     * @return - the tree
+     */
+    public static BoundingVolumeHierarchy build(List<MeshBuffer> meshes) {
+        return build(meshes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * builds a tree over the triangles of meshes
+     * @param meshes - the meshes, such as the meshes of the shapes in a scene. hits refer to them by index in this list
+     * @param pool - the pool to build large subtrees in parallel with, or null to build on the calling thread
+     * @return - the tree
+     */
+    public static BoundingVolumeHierarchy build(List<MeshBuffer> meshes, ForkJoinPool pool) {
+        int n = 0;
+        for (MeshBuffer mesh : meshes) {
+            n += mesh.getTriangleCount();
+        }
+
+        // the vertices, bounds, and centroid of every triangle
+        float[] vertices = new float[n * 9];
+        float[] boxes = new float[n * 6];
+        float[] centroids = new float[n * 3];
+        int[] shapes = new int[n];
+        int[] shapeTriangles = new int[n];
+        int t = 0;
+        for (int s = 0; s < meshes.size(); s++) {
+            MeshBuffer mesh = meshes.get(s);
+            float[] p = mesh.getPositions();
+            for (int i = 0; i < mesh.getTriangleCount(); i++, t++) {
+                for (int corner = 0; corner < 3; corner++) {
+                    System.arraycopy(p, mesh.getIndex(i * 3 + corner) * 3, vertices, t * 9 + corner * 3, 3);
+                }
+                for (int axis = 0; axis < 3; axis++) {
+                    float a = vertices[t * 9 + axis], b = vertices[t * 9 + 3 + axis], c = vertices[t * 9 + 6 + axis];
+                    boxes[t * 6 + axis] = Math.min(a, Math.min(b, c));
+                    boxes[t * 6 + 3 + axis] = Math.max(a, Math.max(b, c));
+                    centroids[t * 3 + axis] = (a + b + c) / 3;
+                }
+                shapes[t] = s;
+                shapeTriangles[t] = i;
+            }
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Builder builder = new Builder(boxes, centroids, order, Math.max(1, 2 * n - 1));
+        if (n > 0) {
+            if (pool != null) {
+                pool.invoke(builder.new Task(0, 0, n));
+            } else {
+                builder.build(0, 0, n);
+            }
+        }
+
+        // lay the triangles out in the order of the leaves, so a leaf reads one contiguous block
+        float[] sorted = new float[n * 9];
+        int[] sortedShapes = new int[n];
+        int[] sortedTriangles = new int[n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(vertices, order[i] * 9, sorted, i * 9, 9);
+            sortedShapes[i] = shapes[order[i]];
+            sortedTriangles[i] = shapeTriangles[order[i]];
+        }
+
+        int nodeCount = n == 0 ? 0 : builder.nodes.get();
+        return new BoundingVolumeHierarchy(Arrays.copyOf(builder.bounds, nodeCount * 6),
+                Arrays.copyOf(builder.first, nodeCount), Arrays.copyOf(builder.count, nodeCount),
+                sorted, sortedShapes, sortedTriangles);
+    }
+
+    /**
+     * finds the nearest triangle hit by a ray. both sides of a triangle can be hit
+     * @param origin - the origin of the ray
+     * @param direction - the direction of the ray, which doesn't have to be normalized
+     * @return - the nearest hit, or null if nothing was hit
+     */
+    public RayHit intersect(Vector3f origin, Vector3f direction) {
+        return intersect(origin, direction, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * finds the nearest triangle hit by a ray within a distance. both sides of a triangle can be hit
+     * @param origin - the origin of the ray
+     * @param direction - the direction of the ray, which doesn't have to be normalized
+     * @param maxDistance - the furthest hit to look for, in lengths of the direction
+     * @return - the nearest hit, or null if nothing was hit
+     */
+    public RayHit intersect(Vector3f origin, Vector3f direction, float maxDistance) {
+        if (count.length == 0) {
+            return null;
+        }
+        float ox = origin.x, oy = origin.y, oz = origin.z;
+        float dx = direction.x, dy = direction.y, dz = direction.z;
+        float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+
+        float best = maxDistance, bestU = 0, bestV = 0;
+        int bestTriangle = -1;
+
+        // the nodes left to visit, and how far along the ray each one starts
+        int[] stack = new int[64];
+        float[] near = new float[64];
+        int size = 0;
+        float start = enter(0, ox, oy, oz, ix, iy, iz);
+        if (start < best) {
+            stack[size] = 0;
+            near[size++] = start;
+        }
+
+        while (size > 0) {
+            int node = stack[--size];
+            if (near[size] >= best) {
+                continue;
+            }
+
+            if (count[node] > 0) {
+                for (int i = first[node]; i < first[node] + count[node]; i++) {
+                    // Moller-Trumbore
+                    int t = i * 9;
+                    float ax = triangles[t], ay = triangles[t + 1], az = triangles[t + 2];
+                    float e1x = triangles[t + 3] - ax, e1y = triangles[t + 4] - ay, e1z = triangles[t + 5] - az;
+                    float e2x = triangles[t + 6] - ax, e2y = triangles[t + 7] - ay, e2z = triangles[t + 8] - az;
+                    float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+                    float det = e1x * px + e1y * py + e1z * pz;
+                    if (det == 0) {
+                        continue;
+                    }
+                    float inverse = 1 / det;
+                    float sx = ox - ax, sy = oy - ay, sz = oz - az;
+                    float u = (sx * px + sy * py + sz * pz) * inverse;
+                    if (u < 0 || u > 1) {
+                        continue;
+                    }
+                    float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+                    float v = (dx * qx + dy * qy + dz * qz) * inverse;
+                    if (v < 0 || u + v > 1) {
+                        continue;
+                    }
+                    float distance = (e2x * qx + e2y * qy + e2z * qz) * inverse;
+                    if (distance >= 0 && distance < best) {
+                        best = distance;
+                        bestU = u;
+                        bestV = v;
+                        bestTriangle = i;
+                    }
+                }
+                continue;
+            }
+
+            // visit the nearer child first by pushing it last
+            int a = first[node], b = a + 1;
+            float nearA = enter(a, ox, oy, oz, ix, iy, iz);
+            float nearB = enter(b, ox, oy, oz, ix, iy, iz);
+            if (nearA > nearB) {
+                int swap = a;
+                a = b;
+                b = swap;
+                float swapNear = nearA;
+                nearA = nearB;
+                nearB = swapNear;
+            }
+            if (size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                near = Arrays.copyOf(near, near.length * 2);
+            }
+            if (nearB < best) {
+                stack[size] = b;
+                near[size++] = nearB;
+            }
+            if (nearA < best) {
+                stack[size] = a;
+                near[size++] = nearA;
+            }
+        }
+
+        if (bestTriangle < 0) {
+            return null;
+        }
+        return new RayHit(shapes[bestTriangle], shapeTriangles[bestTriangle], best, bestU, bestV);
+    }
+
+    /**
+     * finds how far along a ray it enters the box of a node
+     * @param node - the node
+     * @param ox - the x position of the origin of the ray
+     * @param oy - the y position of the origin of the ray
+     * @param oz - the z position of the origin of the ray
+     * @param ix - 1 divided by the x component of the direction of the ray
+     * @param iy - 1 divided by the y component of the direction of the ray
+     * @param iz - 1 divided by the z component of the direction of the ray
+     * @return - the distance, 0 if the origin is inside the box, or infinity if the ray misses the box
+     */
+    private float enter(int node, float ox, float oy, float oz, float ix, float iy, float iz) {
+        int b = node * 6;
+        float t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+        float min = t1 < t2 ? t1 : t2, max = t1 < t2 ? t2 : t1;
+        t1 = (bounds[b + 1] - oy) * iy;
+        t2 = (bounds[b + 4] - oy) * iy;
+        min = Math.max(min, t1 < t2 ? t1 : t2);
+        max = Math.min(max, t1 < t2 ? t2 : t1);
+        t1 = (bounds[b + 2] - oz) * iz;
+        t2 = (bounds[b + 5] - oz) * iz;
+        min = Math.max(min, t1 < t2 ? t1 : t2);
+        max = Math.min(max, t1 < t2 ? t2 : t1);
+        min = Math.max(min, 0);
+        return max >= min ? min : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * finds every triangle that overlaps an axis aligned box
+     * @param min - the corner of the box with the smallest x, y, and z
+     * @param max - the corner of the box with the largest x, y, and z
+     * @param consumer - receives each triangle, or null to only count them
+     * @return - the amount of triangles found
+     */
+    public int overlapBox(Vector3f min, Vector3f max, HitConsumer consumer) {
+        float cx = (min.x + max.x) / 2, cy = (min.y + max.y) / 2, cz = (min.z + max.z) / 2;
+        float hx = (max.x - min.x) / 2, hy = (max.y - min.y) / 2, hz = (max.z - min.z) / 2;
+        float[] v = new float[9];
+        int found = 0;
+
+        int[] stack = new int[64];
+        int size = 0;
+        if (count.length > 0) {
+            stack[size++] = 0;
+        }
+        while (size > 0) {
+            int node = stack[--size];
+            int b = node * 6;
+            if (bounds[b] > max.x || bounds[b + 1] > max.y || bounds[b + 2] > max.z ||
+                    bounds[b + 3] < min.x || bounds[b + 4] < min.y || bounds[b + 5] < min.z) {
+                continue;
+            }
+
+            if (count[node] > 0) {
+                for (int i = first[node]; i < first[node] + count[node]; i++) {
+                    // move the triangle so the box is centered on the origin
+                    for (int j = 0; j < 9; j += 3) {
+                        v[j] = triangles[i * 9 + j] - cx;
+                        v[j + 1] = triangles[i * 9 + j + 1] - cy;
+                        v[j + 2] = triangles[i * 9 + j + 2] - cz;
+                    }
+                    if (overlapsBox(v, hx, hy, hz)) {
+                        found++;
+                        if (consumer != null) {
+                            consumer.accept(shapes[i], shapeTriangles[i]);
+                        }
+                    }
+                }
+                continue;
+            }
+
+            if (size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = first[node];
+            stack[size++] = first[node] + 1;
+        }
+        return found;
+    }
+
+    /**
+     * tests whether a triangle overlaps a box centered on the origin by looking for an axis that separates them -
+     * the 3 axes of the box, the normal of the triangle, and the 9 cross products of the axes and the edges
+     * @param v - the x, y, z of the 3 vertices of the triangle
+     * @param hx - half the size of the box along x
+     * @param hy - half the size of the box along y
+     * @param hz - half the size of the box along z
+     * @return - true if they overlap
+     */
+    private static boolean overlapsBox(float[] v, float hx, float hy, float hz) {
+        // the axes of the box
+        if (Math.min(v[0], Math.min(v[3], v[6])) > hx || Math.max(v[0], Math.max(v[3], v[6])) < -hx ||
+                Math.min(v[1], Math.min(v[4], v[7])) > hy || Math.max(v[1], Math.max(v[4], v[7])) < -hy ||
+                Math.min(v[2], Math.min(v[5], v[8])) > hz || Math.max(v[2], Math.max(v[5], v[8])) < -hz) {
+            return false;
+        }
+
+        // the cross products of the axes of the box and the edges of the triangle
+        for (int edge = 0; edge < 9; edge += 3) {
+            int next = (edge + 3) % 9;
+            float ex = v[next] - v[edge], ey = v[next + 1] - v[edge + 1], ez = v[next + 2] - v[edge + 2];
+            if (separates(v, 0, -ez, ey, hx, hy, hz) ||
+                    separates(v, ez, 0, -ex, hx, hy, hz) ||
+                    separates(v, -ey, ex, 0, hx, hy, hz)) {
+                return false;
+            }
+        }
+
+        // the normal of the triangle
+        float e1x = v[3] - v[0], e1y = v[4] - v[1], e1z = v[5] - v[2];
+        float e2x = v[6] - v[3], e2y = v[7] - v[4], e2z = v[8] - v[5];
+        float nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        float d = nx * v[0] + ny * v[1] + nz * v[2];
+        return Math.abs(d) <= hx * Math.abs(nx) + hy * Math.abs(ny) + hz * Math.abs(nz);
+    }
+
+    /**
+     * tests whether an axis separates a triangle from a box centered on the origin
+     * @param v - the x, y, z of the 3 vertices of the triangle
+     * @param ax - the x component of the axis
+     * @param ay - the y component of the axis
+     * @param az - the z component of the axis
+     * @param hx - half the size of the box along x
+     * @param hy - half the size of the box along y
+     * @param hz - half the size of the box along z
+     * @return - true if the projections of the triangle and the box onto the axis don't overlap
+     */
+    private static boolean separates(float[] v, float ax, float ay, float az, float hx, float hy, float hz) {
+        float p0 = ax * v[0] + ay * v[1] + az * v[2];
+        float p1 = ax * v[3] + ay * v[4] + az * v[5];
+        float p2 = ax * v[6] + ay * v[7] + az * v[8];
+        float r = hx * Math.abs(ax) + hy * Math.abs(ay) + hz * Math.abs(az);
+        return Math.min(p0, Math.min(p1, p2)) > r || Math.max(p0, Math.max(p1, p2)) < -r;
+    }
+
+    /**
+     * finds every triangle that overlaps a sphere
+     * @param center - the center of the sphere
+     * @param radius - the radius of the sphere
+     * @param consumer - receives each triangle, or null to only count them
+     * @return - the amount of triangles found
+     */
+    public int overlapSphere(Vector3f center, float radius, HitConsumer consumer) {
+        float px = center.x, py = center.y, pz = center.z;
+        float radiusSquared = radius * radius;
+        int found = 0;
+
+        int[] stack = new int[64];
+        int size = 0;
+        if (count.length > 0) {
+            stack[size++] = 0;
+        }
+        while (size > 0) {
+            int node = stack[--size];
+
+            // the distance from the center to the closest point in the box
+            int b = node * 6;
+            float dx = Math.max(0, Math.max(bounds[b] - px, px - bounds[b + 3]));
+            float dy = Math.max(0, Math.max(bounds[b + 1] - py, py - bounds[b + 4]));
+            float dz = Math.max(0, Math.max(bounds[b + 2] - pz, pz - bounds[b + 5]));
+            if (dx * dx + dy * dy + dz * dz > radiusSquared) {
+                continue;
+            }
+
+            if (count[node] > 0) {
+                for (int i = first[node]; i < first[node] + count[node]; i++) {
+                    if (distanceSquared(triangles, i * 9, px, py, pz) <= radiusSquared) {
+                        found++;
+                        if (consumer != null) {
+                            consumer.accept(shapes[i], shapeTriangles[i]);
+                        }
+                    }
+                }
+                continue;
+            }
+
+            if (size + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = first[node];
+            stack[size++] = first[node] + 1;
+        }
+        return found;
+    }
+
+    /**
+     * finds the squared distance from a point to the closest point on a triangle, by working out which vertex, edge,
+     * or the face of the triangle is closest
+     * @param t - the array holding the triangle
+     * @param o - the index in t of the x of the first vertex, followed by the other 8 coordinates
+     * @param px - the x position of the point
+     * @param py - the y position of the point
+     * @param pz - the z position of the point
+     * @return - the squared distance
+     */
+    private static float distanceSquared(float[] t, int o, float px, float py, float pz) {
+        float ax = t[o], ay = t[o + 1], az = t[o + 2];
+        float abx = t[o + 3] - ax, aby = t[o + 4] - ay, abz = t[o + 5] - az;
+        float acx = t[o + 6] - ax, acy = t[o + 7] - ay, acz = t[o + 8] - az;
+        float apx = px - ax, apy = py - ay, apz = pz - az;
+
+        // the closest point is a + v * ab + w * ac
+        float v, w;
+        float d1 = abx * apx + aby * apy + abz * apz;
+        float d2 = acx * apx + acy * apy + acz * apz;
+        float bpx = px - t[o + 3], bpy = py - t[o + 4], bpz = pz - t[o + 5];
+        float d3 = abx * bpx + aby * bpy + abz * bpz;
+        float d4 = acx * bpx + acy * bpy + acz * bpz;
+        float cpx = px - t[o + 6], cpy = py - t[o + 7], cpz = pz - t[o + 8];
+        float d5 = abx * cpx + aby * cpy + abz * cpz;
+        float d6 = acx * cpx + acy * cpy + acz * cpz;
+        float vc = d1 * d4 - d3 * d2;
+        float vb = d5 * d2 - d1 * d6;
+        float va = d3 * d6 - d5 * d4;
+        if (d1 <= 0 && d2 <= 0) {
+            v = 0;
+            w = 0;
+        } else if (d3 >= 0 && d4 <= d3) {
+            v = 1;
+            w = 0;
+        } else if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+            v = d1 / (d1 - d3);
+            w = 0;
+        } else if (d6 >= 0 && d5 <= d6) {
+            v = 0;
+            w = 1;
+        } else if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+            v = 0;
+            w = d2 / (d2 - d6);
+        } else if (va <= 0 && d4 - d3 >= 0 && d5 - d6 >= 0) {
+            w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            v = 1 - w;
+        } else {
+            float denominator = 1 / (va + vb + vc);
+            v = vb * denominator;
+            w = vc * denominator;
+        }
+
+        float dx = ax + abx * v + acx * w - px;
+        float dy = ay + aby * v + acy * w - py;
+        float dz = az + abz * v + acz * w - pz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * getter method
+     * @return - the corner of the bounds of every triangle with the smallest x, y, and z, or null if there are none
+     */
+    public Vector3f getMin() {
+        return count.length == 0 ? null : new Vector3f(bounds[0], bounds[1], bounds[2]);
+    }
+
+    /**
+     * getter method
+     * @return - the corner of the bounds of every triangle with the largest x, y, and z, or null if there are none
+     */
+    public Vector3f getMax() {
+        return count.length == 0 ? null : new Vector3f(bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * getter method
+     * @return - the amount of nodes in the tree
+     */
+    public int getNodeCount() {
+        return this.count.length;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles in the tree
+     */
+    public int getTriangleCount() {
+        return this.shapes.length;
+    }
+
+    /**
+     * splits nodes by the surface area heuristic, filling in the arrays of the tree
+     */
+    private static class Builder {
+
+        // the min x, y, z and max x, y, z of each triangle, and its centroid
+        private final float[] boxes;
+        private final float[] centroids;
+
+        // the triangles, reordered so that the triangles of each node are contiguous
+        private final int[] order;
+
+        // the arrays of the tree
+        private final float[] bounds;
+        private final int[] first;
+        private final int[] count;
+
+        // the amount of nodes used - children are taken in pairs, so tasks on different threads never share a node
+        private final AtomicInteger nodes = new AtomicInteger(1);
+
+        /**
+         * default constructor
+         * @param boxes - the bounds of each triangle
+         * @param centroids - the centroid of each triangle
+         * @param order - the triangles in their starting order
+         * @param maxNodes - the most nodes the tree can have
+         */
+        private Builder(float[] boxes, float[] centroids, int[] order, int maxNodes) {
+            this.boxes = boxes;
+            this.centroids = centroids;
+            this.order = order;
+            this.bounds = new float[maxNodes * 6];
+            this.first = new int[maxNodes];
+            this.count = new int[maxNodes];
+        }
+
+        /**
+         * builds the subtree under a node on the calling thread
+         * @param node - the node
+         * @param start - the index in order of the first triangle of the node
+         * @param end - the index in order after the last triangle of the node
+         */
+        private void build(int node, int start, int end) {
+            int middle = split(node, start, end);
+            if (middle >= 0) {
+                build(first[node], start, middle);
+                build(first[node] + 1, middle, end);
+            }
+        }
+
+        /**
+         * finds the bounds of a node and either makes it a leaf or splits its triangles between two new children
+         * @param node - the node
+         * @param start - the index in order of the first triangle of the node
+         * @param end - the index in order after the last triangle of the node
+         * @return - the index in order of the first triangle of the second child, or -1 if the node is a leaf
+         */
+        private int split(int node, int start, int end) {
+            float[] box = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+            float[] centers = box.clone();
+            for (int i = start; i < end; i++) {
+                int t = order[i];
+                grow(box, 0, boxes, t * 6);
+                for (int axis = 0; axis < 3; axis++) {
+                    float c = centroids[t * 3 + axis];
+                    if (c < centers[axis]) {
+                        centers[axis] = c;
+                    }
+                    if (c > centers[axis + 3]) {
+                        centers[axis + 3] = c;
+                    }
+                }
+            }
+            System.arraycopy(box, 0, bounds, node * 6, 6);
+
+            // try each plane between bins along each axis, sweeping from the right to know the area to the right of each.
+            // small nodes use fewer bins, since most of them would be empty
+            int n = end - start;
+            int bins = Math.min(binCount, n);
+            float[] scales = new float[3];
+            float[] binBoxes = new float[3 * bins * 6];
+            int[] binCounts = new int[3 * bins];
+            for (int b = 0; b < 3 * bins; b++) {
+                reset(binBoxes, b * 6);
+            }
+            for (int axis = 0; axis < 3; axis++) {
+                float extent = centers[axis + 3] - centers[axis];
+                scales[axis] = extent > 0 ? bins / extent : 0;
+            }
+            for (int i = start; i < end; i++) {
+                int t = order[i];
+                for (int axis = 0; axis < 3; axis++) {
+                    int b = axis * bins + bin(centroids[t * 3 + axis], centers[axis], scales[axis], bins);
+                    binCounts[b]++;
+                    grow(binBoxes, b * 6, boxes, t * 6);
+                }
+            }
+
+            float bestCost = Float.POSITIVE_INFINITY;
+            int bestAxis = -1, bestBin = 0;
+            float[] rightAreas = new float[bins];
+            float[] grown = new float[6];
+            for (int axis = 0; axis < 3 && n > 1; axis++) {
+                if (scales[axis] == 0) {
+                    continue;
+                }
+                int o = axis * bins;
+                reset(grown, 0);
+                for (int b = bins - 1; b > 0; b--) {
+                    if (binCounts[o + b] > 0) {
+                        grow(grown, 0, binBoxes, (o + b) * 6);
+                    }
+                    rightAreas[b] = area(grown);
+                }
+                reset(grown, 0);
+                int left = 0;
+                for (int b = 0; b < bins - 1; b++) {
+                    if (binCounts[o + b] == 0) {
+                        continue;
+                    }
+                    grow(grown, 0, binBoxes, (o + b) * 6);
+                    left += binCounts[o + b];
+                    if (left == n) {
+                        break;
+                    }
+                    float cost = area(grown) * left + rightAreas[b + 1] * (n - left);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestBin = b + 1;
+                    }
+                }
+            }
+
+            // compare the cost of testing every triangle with the cost of splitting
+            float splitCost = traversalCost + bestCost / area(box);
+            if (bestAxis < 0 || (n <= maxLeafSize && splitCost >= n)) {
+                first[node] = start;
+                count[node] = n;
+                return -1;
+            }
+
+            int i = start, j = end - 1;
+            while (i <= j) {
+                if (bin(centroids[order[i] * 3 + bestAxis], centers[bestAxis], scales[bestAxis], bins) < bestBin) {
+                    i++;
+                } else {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j--] = swap;
+                }
+            }
+
+            first[node] = nodes.getAndAdd(2);
+            count[node] = 0;
+            return i;
+        }
+
+        /**
+         * gets the bin of a centroid
+         * @param centroid - the coordinate of the centroid along the axis
+         * @param low - the smallest coordinate of any centroid in the node along the axis
+         * @param scale - the amount of bins divided by the extent of the centroids along the axis
+         * @param bins - the amount of bins
+         * @return - the bin
+         */
+        private static int bin(float centroid, float low, float scale, int bins) {
+            return Math.min(bins - 1, (int) ((centroid - low) * scale));
+        }
+
+        /**
+         * empties a box
+         * @param box - the array holding the box
+         * @param o - the index of the box in the array
+         */
+        private static void reset(float[] box, int o) {
+            box[o] = box[o + 1] = box[o + 2] = Float.MAX_VALUE;
+            box[o + 3] = box[o + 4] = box[o + 5] = -Float.MAX_VALUE;
+        }
+
+        /**
+         * grows a box to contain another box
+         * @param box - the array holding the box to grow
+         * @param o - the index of the box in its array
+         * @param other - the array holding the other box
+         * @param p - the index of the other box in its array
+         */
+        private static void grow(float[] box, int o, float[] other, int p) {
+            for (int i = 0; i < 3; i++) {
+                if (other[p + i] < box[o + i]) {
+                    box[o + i] = other[p + i];
+                }
+                if (other[p + 3 + i] > box[o + 3 + i]) {
+                    box[o + 3 + i] = other[p + 3 + i];
+                }
+            }
+        }
+
+        /**
+         * gets the surface area of a box
+         * @param box - the box, which may be empty
+         * @return - the surface area, 0 for an empty box
+         */
+        private static float area(float[] box) {
+            float x = box[3] - box[0], y = box[4] - box[1], z = box[5] - box[2];
+            if (x < 0) {
+                return 0;
+            }
+            return 2 * (x * y + y * z + z * x);
+        }
+
+        /**
+         * builds the subtree under a node, splitting large subtrees into one task per child
+         */
+        private class Task extends RecursiveAction {
+
+            // the node and the range of its triangles in order
+            private final int node, start, end;
+
+            /**
+             * default constructor
+             * @param node - the node
+             * @param start - the index in order of the first triangle of the node
+             * @param end - the index in order after the last triangle of the node
+             */
+            private Task(int node, int start, int end) {
+                this.node = node;
+                this.start = start;
+                this.end = end;
+            }
+
+            @Override
+            protected void compute() {
+                if (end - start <= parallelSize) {
+                    build(node, start, end);
+                    return;
+                }
+                int middle = split(node, start, end);
+                if (middle >= 0) {
+                    invokeAll(new Task(first[node], start, middle), new Task(first[node] + 1, middle, end));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.bramerlabs.spatial;
+
+public class DrawRange {
+
+    // the index of the mesh the range is in, in the order the meshes were given
+    private final int shape;
+
+    // the first triangle of the range in its mesh, and the amount of triangles
+    private final int firstTriangle, triangleCount;
+
+    /**
+     * default constructor
+     * @param shape - the index of the mesh the range is in
+     * @param firstTriangle - the first triangle of the range
+     * @param triangleCount - the amount of triangles in the range
+     */
+    public DrawRange(int shape, int firstTriangle, int triangleCount) {
+        this.shape = shape;
+        this.firstTriangle = firstTriangle;
+        this.triangleCount = triangleCount;
+    }
+
+    /**
+     * getter method
+     * @return - the index of the mesh the range is in
+     */
+    public int getShape() {
+        return this.shape;
+    }
+
+    /**
+     * getter method
+     * @return - the first triangle of the range in its mesh
+     */
+    public int getFirstTriangle() {
+        return this.firstTriangle;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles in the range
+     */
+    public int getTriangleCount() {
+        return this.triangleCount;
+    }
+
+    /**
+     * gets the first index or vertex to draw, for the first argument of glDrawElements or glDrawArrays
+     * @return - the first index of the range
+     */
+    public int getFirstIndex() {
+        return this.firstTriangle * 3;
+    }
+
+    /**
+     * gets the amount of indices or vertices to draw
+     * @return - the amount of indices in the range
+     */
+    public int getIndexCount() {
+        return this.triangleCount * 3;
+    }
+
+    @Override
+    public String toString() {
+        return "shape " + shape + ", triangles " + firstTriangle + " to " + (firstTriangle + triangleCount);
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.bramerlabs.spatial;
+
+import com.bramerlabs.support.Vector3f;
+
+/**
+ * the 6 planes bounding the volume a camera can see - left, right, bottom, top, near, and far
+ */
+public class Frustum {
+
+    // returned by testBox for a box entirely outside of the frustum
+    public static final int OUTSIDE = -1;
+
+    // the a, b, c, d of each plane, normalized and facing inwards, so points inside give ax + by + cz + d >= 0
+    private final float[] planes;
+
+    /**
+     * default constructor
+     * @param planes - the a, b, c, d of the 6 planes, facing inwards. they are copied and normalized
+     */
+    public Frustum(float[] planes) {
+        if (planes.length != 24) {
+            throw new IllegalArgumentException("a frustum has 6 planes of 4 values, not " + planes.length + " values");
+        }
+        this.planes = planes.clone();
+        for (int p = 0; p < 24; p += 4) {
+            float length = (float) Math.sqrt(this.planes[p] * this.planes[p] +
+                    this.planes[p + 1] * this.planes[p + 1] + this.planes[p + 2] * this.planes[p + 2]);
+            if (length > 0) {
+                for (int i = p; i < p + 4; i++) {
+                    this.planes[i] /= length;
+                }
+            }
+        }
+    }
+
+    /**
+     * creates the frustum of a view projection matrix in the OpenGL convention, where points are visible if each of
+     * their clip space x, y, and z is between -w and w
+     * @param m - the 16 values of the matrix, column by column as passed to glUniformMatrix4fv
+     * @return - the frustum
+     */
+    public static Frustum fromMatrix(float[] m) {
+        float[] planes = new float[24];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                // the rows of the matrix are m[i], m[4 + i], m[8 + i], m[12 + i]
+                planes[i * 8 + j] = m[j * 4 + 3] + m[j * 4 + i];
+                planes[i * 8 + 4 + j] = m[j * 4 + 3] - m[j * 4 + i];
+            }
+        }
+        return new Frustum(planes);
+    }
+
+    /**
+     * creates the frustum of a perspective camera
+     * @param eye - the position of the camera
+     * @param forward - the direction the camera looks in
+     * @param up - the up direction of the camera, which can't be parallel to forward
+     * @param fovY - the vertical field of view in radians
+     * @param aspect - the width of the viewport divided by its height
+     * @param near - the distance to the near plane
+     * @param far - the distance to the far plane
+     * @return - the frustum
+     */
+    public static Frustum perspective(Vector3f eye, Vector3f forward, Vector3f up, float fovY, float aspect,
+                                      float near, float far) {
+        Vector3f f = Vector3f.normalize(forward, new Vector3f(0, 0, 0));
+        Vector3f r = Vector3f.cross(f, up).normalize();
+        Vector3f u = Vector3f.cross(r, f);
+        float tanY = (float) Math.tan(fovY / 2), tanX = tanY * aspect;
+
+        // each side plane passes through the eye, tilted inwards by the half angle of the view
+        float[] planes = new float[24];
+        setPlane(planes, 0, r.x + f.x * tanX, r.y + f.y * tanX, r.z + f.z * tanX, eye);
+        setPlane(planes, 1, -r.x + f.x * tanX, -r.y + f.y * tanX, -r.z + f.z * tanX, eye);
+        setPlane(planes, 2, u.x + f.x * tanY, u.y + f.y * tanY, u.z + f.z * tanY, eye);
+        setPlane(planes, 3, -u.x + f.x * tanY, -u.y + f.y * tanY, -u.z + f.z * tanY, eye);
+        setPlane(planes, 4, f.x, f.y, f.z, new Vector3f(eye.x + f.x * near, eye.y + f.y * near, eye.z + f.z * near));
+        setPlane(planes, 5, -f.x, -f.y, -f.z, new Vector3f(eye.x + f.x * far, eye.y + f.y * far, eye.z + f.z * far));
+        return new Frustum(planes);
+    }
+
+    /**
+     * sets a plane from its normal and a point on it
+     * @param planes - the planes
+     * @param i - the index of the plane to set
+     * @param nx - the x component of the normal
+     * @param ny - the y component of the normal
+     * @param nz - the z component of the normal
+     * @param point - a point on the plane
+     */
+    private static void setPlane(float[] planes, int i, float nx, float ny, float nz, Vector3f point) {
+        planes[i * 4] = nx;
+        planes[i * 4 + 1] = ny;
+        planes[i * 4 + 2] = nz;
+        planes[i * 4 + 3] = -(nx * point.x + ny * point.y + nz * point.z);
+    }
+
+    /**
+     * tests an axis aligned box against the frustum
+     * @param box - the array holding the min x, y, z and max x, y, z of the box
+     * @param o - the index of the box in the array
+     * @return - OUTSIDE if the box is entirely outside, otherwise a mask with bit i set for each plane i that crosses
+     *           the box - 0 if the box is entirely inside
+     */
+    public int testBox(float[] box, int o) {
+        int crossed = 0;
+        for (int p = 0; p < 6; p++) {
+            float a = planes[p * 4], b = planes[p * 4 + 1], c = planes[p * 4 + 2], d = planes[p * 4 + 3];
+
+            // the corners of the box furthest along and furthest against the normal of the plane
+            float far = a * (a > 0 ? box[o + 3] : box[o]) + b * (b > 0 ? box[o + 4] : box[o + 1]) +
+                    c * (c > 0 ? box[o + 5] : box[o + 2]) + d;
+            if (far < 0) {
+                return OUTSIDE;
+            }
+            float near = a * (a > 0 ? box[o] : box[o + 3]) + b * (b > 0 ? box[o + 1] : box[o + 4]) +
+                    c * (c > 0 ? box[o + 2] : box[o + 5]) + d;
+            if (near < 0) {
+                crossed |= 1 << p;
+            }
+        }
+        return crossed;
+    }
+
+    /**
+     * tests whether an axis aligned box is at least partly inside the frustum. the test is conservative - a box near
+     * a corner of the frustum may be reported as inside when it isn't
+     * @param min - the corner of the box with the smallest x, y, and z
+     * @param max - the corner of the box with the largest x, y, and z
+     * @return - true if the box may be visible
+     */
+    public boolean intersectsBox(Vector3f min, Vector3f max) {
+        return testBox(new float[]{min.x, min.y, min.z, max.x, max.y, max.z}, 0) != OUTSIDE;
+    }
+
+    /**
+     * tests whether a triangle is entirely behind one of the planes of the frustum
+     * @param positions - the packed x, y, z positions of the vertices
+     * @param a - the index of the x of the first vertex
+     * @param b - the index of the x of the second vertex
+     * @param c - the index of the x of the third vertex
+     * @param planeMask - the planes to test, from testBox
+     * @return - true if the triangle can't be visible
+     */
+    public boolean excludesTriangle(float[] positions, int a, int b, int c, int planeMask) {
+        for (int p = 0; p < 6; p++) {
+            if ((planeMask & (1 << p)) == 0) {
+                continue;
+            }
+            float nx = planes[p * 4], ny = planes[p * 4 + 1], nz = planes[p * 4 + 2], d = planes[p * 4 + 3];
+            if (nx * positions[a] + ny * positions[a + 1] + nz * positions[a + 2] + d < 0 &&
+                    nx * positions[b] + ny * positions[b + 1] + nz * positions[b + 2] + d < 0 &&
+                    nx * positions[c] + ny * positions[c + 1] + nz * positions[c + 2] + d < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * getter method
+     * @return - a copy of the a, b, c, d of the 6 planes, normalized and facing inwards
+     */
+    public float[] getPlanes() {
+        return this.planes.clone();
+    }
+
+}
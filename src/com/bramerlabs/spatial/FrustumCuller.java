@@ -0,0 +1,301 @@
+package com.bramerlabs.spatial;
+
+import com.bramerlabs.support.MeshBuffer;
+import com.bramerlabs.support.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * filters the meshes of a scene down to the ranges of triangles that can be visible from a camera. each mesh is first
+ * tested by its bounds - meshes outside of the frustum are dropped and meshes inside of it are kept whole, so only the
+ * triangles of meshes crossing its planes are tested, and only against the planes they cross
+ */
+public class FrustumCuller {
+
+    // meshes with more triangles than this are tested in parallel chunks
+    private static final int chunkSize = 1 << 12;
+
+    // the meshes of the scene
+    private final List<MeshBuffer> meshes;
+
+    // the min x, y, z and max x, y, z of each mesh
+    private final float[] bounds;
+
+    /**
+     * default constructor - finds the bounds of every mesh
+     * @param meshes - the meshes of the scene. ranges refer to them by index in this list
+     */
+    public FrustumCuller(List<MeshBuffer> meshes) {
+        this.meshes = meshes;
+        this.bounds = new float[meshes.size() * 6];
+        for (int i = 0; i < meshes.size(); i++) {
+            updateBounds(i);
+        }
+    }
+
+    /**
+     * finds the bounds of a mesh again, after its vertices have been moved
+     * @param mesh - the index of the mesh
+     */
+    public void updateBounds(int mesh) {
+        MeshBuffer m = meshes.get(mesh);
+        float[] p = m.getPositions();
+        int o = mesh * 6;
+        bounds[o] = bounds[o + 1] = bounds[o + 2] = Float.POSITIVE_INFINITY;
+        bounds[o + 3] = bounds[o + 4] = bounds[o + 5] = Float.NEGATIVE_INFINITY;
+        for (int v = 0; v < m.getVertexCount() * 3; v += 3) {
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[o + axis] = Math.min(bounds[o + axis], p[v + axis]);
+                bounds[o + 3 + axis] = Math.max(bounds[o + 3 + axis], p[v + axis]);
+            }
+        }
+    }
+
+    /**
+     * finds the visible ranges of triangles, in parallel in the common pool
+     * @param frustum - the frustum of the camera
+     * @param camera - the position of the camera to reject triangles facing away from it, or null to keep them
+     * @return - the ranges, ordered by mesh and then by triangle
+     */
+    public List<DrawRange> cull(Frustum frustum, Vector3f camera) {
+        return cull(frustum, camera, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * finds the visible ranges of triangles. a triangle faces away from the camera when the normals of all 3 of its
+     * vertices do - meshes without normals are never culled by facing, since the winding of their triangles isn't
+     * consistent between shapes
+     * @param frustum - the frustum of the camera
+     * @param camera - the position of the camera to reject triangles facing away from it, or null to keep them
+     * @param pool - the pool to test the meshes in parallel with, or null to test them on the calling thread
+     * @return - the ranges, ordered by mesh and then by triangle
+     */
+    public List<DrawRange> cull(Frustum frustum, Vector3f camera, ForkJoinPool pool) {
+        // the first triangle and amount of triangles of each range, by mesh
+        int[][] runs = new int[meshes.size()][];
+        if (pool != null) {
+            pool.invoke(new MeshTask(frustum, camera, runs, 0, meshes.size()));
+        } else {
+            for (int i = 0; i < meshes.size(); i++) {
+                runs[i] = cullMesh(frustum, camera, i, false);
+            }
+        }
+
+        ArrayList<DrawRange> ranges = new ArrayList<>();
+        for (int i = 0; i < runs.length; i++) {
+            for (int r = 0; r < runs[i].length; r += 2) {
+                ranges.add(new DrawRange(i, runs[i][r], runs[i][r + 1]));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * finds the visible ranges of a mesh
+     * @param frustum - the frustum of the camera
+     * @param camera - the position of the camera, or null
+     * @param mesh - the index of the mesh
+     * @param parallel - true to split large meshes into tasks
+     * @return - the first triangle and amount of triangles of each range
+     */
+    private int[] cullMesh(Frustum frustum, Vector3f camera, int mesh, boolean parallel) {
+        MeshBuffer m = meshes.get(mesh);
+        int n = m.getTriangleCount();
+        int planes = frustum.testBox(bounds, mesh * 6);
+        if (n == 0 || planes == Frustum.OUTSIDE) {
+            return new int[0];
+        }
+        boolean facing = camera != null && m.hasNormals();
+        if (planes == 0 && !facing) {
+            return new int[]{0, n};
+        }
+        if (parallel && n > chunkSize) {
+            return new TriangleTask(frustum, camera, m, planes, 0, n).invoke();
+        }
+        return cullTriangles(frustum, camera, m, planes, 0, n);
+    }
+
+    /**
+     * tests a range of the triangles of a mesh
+     * @param frustum - the frustum of the camera
+     * @param camera - the position of the camera, or null
+     * @param mesh - the mesh
+     * @param planes - the planes of the frustum crossing the bounds of the mesh
+     * @param start - the first triangle to test
+     * @param end - the triangle after the last to test
+     * @return - the first triangle and amount of triangles of each visible range
+     */
+    private static int[] cullTriangles(Frustum frustum, Vector3f camera, MeshBuffer mesh, int planes, int start,
+                                       int end) {
+        float[] p = mesh.getPositions();
+        float[] normals = camera == null ? null : mesh.getNormals();
+        int[] runs = new int[8];
+        int size = 0;
+        int runStart = -1;
+        for (int t = start; t < end; t++) {
+            int a = mesh.getIndex(t * 3) * 3, b = mesh.getIndex(t * 3 + 1) * 3, c = mesh.getIndex(t * 3 + 2) * 3;
+            boolean visible = planes == 0 || !frustum.excludesTriangle(p, a, b, c, planes);
+            if (visible && normals != null) {
+                visible = facesCamera(p, normals, a, camera) || facesCamera(p, normals, b, camera) ||
+                        facesCamera(p, normals, c, camera);
+            }
+
+            // start a range on the first visible triangle after a hidden one, and end it on the next hidden one
+            if (visible && runStart < 0) {
+                runStart = t;
+            }
+            if (runStart >= 0 && (!visible || t == end - 1)) {
+                if (size + 2 > runs.length) {
+                    runs = Arrays.copyOf(runs, runs.length * 2);
+                }
+                runs[size++] = runStart;
+                runs[size++] = (visible ? t + 1 : t) - runStart;
+                runStart = -1;
+            }
+        }
+        return Arrays.copyOf(runs, size);
+    }
+
+    /**
+     * tests whether the normal of a vertex points towards the camera
+     * @param positions - the positions of the mesh
+     * @param normals - the normals of the mesh
+     * @param v - the index of the x of the vertex
+     * @param camera - the position of the camera
+     * @return - true if the vertex faces the camera
+     */
+    private static boolean facesCamera(float[] positions, float[] normals, int v, Vector3f camera) {
+        return normals[v] * (camera.x - positions[v]) + normals[v + 1] * (camera.y - positions[v + 1]) +
+                normals[v + 2] * (camera.z - positions[v + 2]) > 0;
+    }
+
+    /**
+     * joins the ranges of two neighbouring chunks of triangles, merging the last range of the first with the first
+     * range of the second if they touch
+     * @param a - the ranges of the first chunk
+     * @param b - the ranges of the second chunk
+     * @return - the joined ranges
+     */
+    private static int[] join(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        boolean touching = a[a.length - 2] + a[a.length - 1] == b[0];
+        int[] joined = Arrays.copyOf(a, a.length + b.length - (touching ? 2 : 0));
+        if (touching) {
+            joined[a.length - 1] += b[1];
+            System.arraycopy(b, 2, joined, a.length, b.length - 2);
+        } else {
+            System.arraycopy(b, 0, joined, a.length, b.length);
+        }
+        return joined;
+    }
+
+    /**
+     * getter method
+     * @param mesh - the index of the mesh
+     * @return - the min x, y, z and max x, y, z of the mesh, as of the last update
+     */
+    public float[] getBounds(int mesh) {
+        return Arrays.copyOfRange(bounds, mesh * 6, mesh * 6 + 6);
+    }
+
+    /**
+     * culls a range of meshes, splitting it in half until a single mesh is left
+     */
+    private class MeshTask extends RecursiveAction {
+
+        // the frustum and position of the camera
+        private final Frustum frustum;
+        private final Vector3f camera;
+
+        // the ranges of every mesh
+        private final int[][] runs;
+
+        // the meshes to cull
+        private final int start, end;
+
+        /**
+         * default constructor
+         * @param frustum - the frustum of the camera
+         * @param camera - the position of the camera, or null
+         * @param runs - the ranges of every mesh, filled in by the task
+         * @param start - the first mesh to cull
+         * @param end - the mesh after the last to cull
+         */
+        private MeshTask(Frustum frustum, Vector3f camera, int[][] runs, int start, int end) {
+            this.frustum = frustum;
+            this.camera = camera;
+            this.runs = runs;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new MeshTask(frustum, camera, runs, start, middle),
+                        new MeshTask(frustum, camera, runs, middle, end));
+            } else if (end > start) {
+                runs[start] = cullMesh(frustum, camera, start, true);
+            }
+        }
+    }
+
+    /**
+     * tests a range of the triangles of a large mesh, splitting it in half until it is at most a chunk
+     */
+    private static class TriangleTask extends RecursiveTask<int[]> {
+
+        // the frustum and position of the camera
+        private final Frustum frustum;
+        private final Vector3f camera;
+
+        // the mesh, and the planes crossing its bounds
+        private final MeshBuffer mesh;
+        private final int planes;
+
+        // the triangles to test
+        private final int start, end;
+
+        /**
+         * default constructor
+         * @param frustum - the frustum of the camera
+         * @param camera - the position of the camera, or null
+         * @param mesh - the mesh
+         * @param planes - the planes of the frustum crossing the bounds of the mesh
+         * @param start - the first triangle to test
+         * @param end - the triangle after the last to test
+         */
+        private TriangleTask(Frustum frustum, Vector3f camera, MeshBuffer mesh, int planes, int start, int end) {
+            this.frustum = frustum;
+            this.camera = camera;
+            this.mesh = mesh;
+            this.planes = planes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (end - start <= chunkSize) {
+                return cullTriangles(frustum, camera, mesh, planes, start, end);
+            }
+            int middle = (start + end) >>> 1;
+            TriangleTask second = new TriangleTask(frustum, camera, mesh, planes, middle, end);
+            second.fork();
+            int[] first = new TriangleTask(frustum, camera, mesh, planes, start, middle).compute();
+            return FrustumCuller.join(first, second.join());
+        }
+    }
+
+}
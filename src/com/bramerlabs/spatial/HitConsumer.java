@@ -0,0 +1,15 @@
+package com.bramerlabs.spatial;
+
+/**
+ * receives the triangles found by a query
+ */
+public interface HitConsumer {
+
+    /**
+     * receives one triangle
+     * @param shape - the index of the mesh the triangle belongs to, in the order the meshes were given
+     * @param triangle - the index of the triangle in its mesh
+     */
+    void accept(int shape, int triangle);
+
+}
@@ -0,0 +1,87 @@
+package com.bramerlabs.spatial;
+
+import com.bramerlabs.support.Vector3f;
+
+public class RayHit {
+
+    // the index of the mesh that was hit, in the order the meshes were given
+    private final int shape;
+
+    // the index of the triangle that was hit in its mesh
+    private final int triangle;
+
+    // the distance along the ray to the hit, in lengths of the direction of the ray
+    private final float distance;
+
+    // the barycentric coordinates of the hit - the weights of the second and third vertices of the triangle
+    private final float u, v;
+
+    /**
+     * default constructor
+     * @param shape - the index of the mesh that was hit
+     * @param triangle - the index of the triangle that was hit in its mesh
+     * @param distance - the distance along the ray to the hit
+     * @param u - the weight of the second vertex of the triangle at the hit
+     * @param v - the weight of the third vertex of the triangle at the hit
+     */
+    public RayHit(int shape, int triangle, float distance, float u, float v) {
+        this.shape = shape;
+        this.triangle = triangle;
+        this.distance = distance;
+        this.u = u;
+        this.v = v;
+    }
+
+    /**
+     * gets the point that was hit
+     * @param origin - the origin of the ray
+     * @param direction - the direction of the ray
+     * @return - a new vector holding the point
+     */
+    public Vector3f getPoint(Vector3f origin, Vector3f direction) {
+        return new Vector3f(origin.x + direction.x * distance,
+                origin.y + direction.y * distance,
+                origin.z + direction.z * distance);
+    }
+
+    /**
+     * getter method
+     * @return - the index of the mesh that was hit, in the order the meshes were given
+     */
+    public int getShape() {
+        return this.shape;
+    }
+
+    /**
+     * getter method
+     * @return - the index of the triangle that was hit in its mesh
+     */
+    public int getTriangle() {
+        return this.triangle;
+    }
+
+    /**
+     * getter method
+     * @return - the distance along the ray to the hit, in lengths of the direction of the ray
+     */
+    public float getDistance() {
+        return this.distance;
+    }
+
+    /**
+     * getter method
+     * @return - the weight of the second vertex of the triangle at the hit
+     */
+    public float getU() {
+        return this.u;
+    }
+
+    /**
+     * getter method
+     * @return - the weight of the third vertex of the triangle at the hit
+     */
+    public float getV() {
+        return this.v;
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.bramerlabs.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * collects the meshes of many shapes and packs them into draw batches. the color of each triangle is the color of its
+ * first vertex, as in MeshBuffer.toTriangles(), and equal colors share one entry of the palette
+ */
+public class BatchBuilder {
+
+    // the meshes added so far
+    private final ArrayList<MeshBuffer> meshes = new ArrayList<>();
+
+    /**
+     * adds the mesh of a shape to the batch - the mesh is copied when the batch is built, not now
+     * @param mesh - the mesh
+     * @return - the index of the mesh in the batch
+     */
+    public int add(MeshBuffer mesh) {
+        meshes.add(mesh);
+        return meshes.size() - 1;
+    }
+
+    /**
+     * adds the meshes of many shapes to the batch
+     * @param meshes - the meshes
+     */
+    public void addAll(Collection<MeshBuffer> meshes) {
+        this.meshes.addAll(meshes);
+    }
+
+    /**
+     * packs every mesh into a single batch
+     * @return - the batch
+     */
+    public DrawBatch build() {
+        return build(Integer.MAX_VALUE).get(0);
+    }
+
+    /**
+     * packs the meshes into batches of at most a certain amount of vertices, such as 65536 for 16 bit indices.
+     * meshes are never split between batches, and are put in batches in the order they were added
+     * @param maxVertices - the most vertices in a batch
+     * @return - the batches, which share one palette
+     */
+    public List<DrawBatch> build(int maxVertices) {
+        // give each triangle the index of its color, in the order the colors are first seen
+        HashMap<Long, Integer> ids = new HashMap<>();
+        ArrayList<Long> keys = new ArrayList<>();
+        ArrayList<Vector3f> colors = new ArrayList<>();
+        int[][] triangleColors = new int[meshes.size()][];
+        for (int m = 0; m < meshes.size(); m++) {
+            MeshBuffer mesh = meshes.get(m);
+            float[] c = mesh.getColors();
+            int[] ofMesh = new int[mesh.getTriangleCount()];
+            float r = Float.NaN, g = Float.NaN, b = Float.NaN;
+            int id = -1;
+            for (int t = 0; t < ofMesh.length; t++) {
+                // look the color up again only when it changes, which it doesn't within a shape
+                int v = mesh.getIndex(t * 3) * 3;
+                if (c[v] != r || c[v + 1] != g || c[v + 2] != b) {
+                    r = c[v];
+                    g = c[v + 1];
+                    b = c[v + 2];
+                    long key = getKey(r, g, b);
+                    Integer known = ids.putIfAbsent(key, colors.size());
+                    if (known == null) {
+                        keys.add(key);
+                        colors.add(new Vector3f(r, g, b));
+                        id = colors.size() - 1;
+                    } else {
+                        id = known;
+                    }
+                }
+                ofMesh[t] = id;
+            }
+            triangleColors[m] = ofMesh;
+        }
+
+        // sort the palette so the groups of every batch come out in the same order
+        Integer[] order = new Integer[colors.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(keys::get));
+        int[] paletteIndex = new int[colors.size()];
+        float[] palette = new float[colors.size() * 3];
+        for (int i = 0; i < order.length; i++) {
+            paletteIndex[order[i]] = i;
+            Vector3f color = colors.get(order[i]);
+            palette[i * 3] = color.x;
+            palette[i * 3 + 1] = color.y;
+            palette[i * 3 + 2] = color.z;
+        }
+
+        ArrayList<DrawBatch> batches = new ArrayList<>();
+        int start = 0;
+        while (start < meshes.size() || batches.isEmpty()) {
+            int end = start, vertices = 0;
+            while (end < meshes.size() && vertices + meshes.get(end).getVertexCount() <= maxVertices) {
+                vertices += meshes.get(end++).getVertexCount();
+            }
+            if (end == start && end < meshes.size()) {
+                throw new IllegalArgumentException("a mesh has " + meshes.get(end).getVertexCount() +
+                        " vertices, more than the " + maxVertices + " allowed in a batch");
+            }
+            batches.add(pack(start, end, vertices, triangleColors, paletteIndex, palette));
+            start = end;
+        }
+        return batches;
+    }
+
+    /**
+     * packs a range of the meshes into a batch
+     * @param start - the first mesh of the batch
+     * @param end - the mesh after the last mesh of the batch
+     * @param vertexCount - the amount of vertices in the meshes
+     * @param triangleColors - the color of each triangle of each mesh
+     * @param paletteIndex - the index in the palette of each color
+     * @param palette - the packed colors of the palette
+     * @return - the batch
+     */
+    private DrawBatch pack(int start, int end, int vertexCount, int[][] triangleColors, int[] paletteIndex,
+                           float[] palette) {
+        boolean normals = start < end;
+        int[] counts = new int[palette.length / 3];
+        for (int m = start; m < end; m++) {
+            normals &= meshes.get(m).hasNormals();
+            for (int color : triangleColors[m]) {
+                counts[paletteIndex[color]] += 3;
+            }
+        }
+
+        // lay the groups out one after another in palette order, skipping colors the batch doesn't use
+        int[] next = new int[counts.length];
+        int groupCount = 0, indexCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            next[i] = indexCount;
+            indexCount += counts[i];
+            if (counts[i] > 0) {
+                groupCount++;
+            }
+        }
+        int[] groups = new int[groupCount * DrawBatch.GROUP_STRIDE];
+        for (int i = 0, g = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                groups[g++] = i;
+                groups[g++] = next[i];
+                groups[g++] = counts[i];
+            }
+        }
+
+        float[] positions = new float[vertexCount * 3];
+        float[] batchNormals = normals ? new float[vertexCount * 3] : null;
+        int[] indices = new int[indexCount];
+        int base = 0;
+        for (int m = start; m < end; m++) {
+            MeshBuffer mesh = meshes.get(m);
+            System.arraycopy(mesh.getPositions(), 0, positions, base * 3, mesh.getVertexCount() * 3);
+            if (normals) {
+                System.arraycopy(mesh.getNormals(), 0, batchNormals, base * 3, mesh.getVertexCount() * 3);
+            }
+            int[] colors = triangleColors[m];
+            for (int t = 0; t < colors.length; t++) {
+                int i = next[paletteIndex[colors[t]]];
+                indices[i] = base + mesh.getIndex(t * 3);
+                indices[i + 1] = base + mesh.getIndex(t * 3 + 1);
+                indices[i + 2] = base + mesh.getIndex(t * 3 + 2);
+                next[paletteIndex[colors[t]]] = i + 3;
+            }
+            base += mesh.getVertexCount();
+        }
+        return new DrawBatch(positions, batchNormals, indices, palette, groups);
+    }
+
+    /**
+     * gets the key of a color in the palette. the channels are rounded to 16 bits, so a java.awt.Color converted to
+     * floats in slightly different ways by different shapes still gets one entry
+     * @param r - the red channel, from 0 to 1
+     * @param g - the green channel, from 0 to 1
+     * @param b - the blue channel, from 0 to 1
+     * @return - the key
+     */
+    private static long getKey(float r, float g, float b) {
+        return (long) Math.round(r * 65535) << 34 ^ (long) Math.round(g * 65535) << 17 ^ Math.round(b * 65535);
+    }
+
+    /**
+     * getter method
+     * @return - the amount of meshes added
+     */
+    public int getMeshCount() {
+        return this.meshes.size();
+    }
+
+    /**
+     * removes every mesh so the builder can be reused
+     */
+    public void clear() {
+        meshes.clear();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.bramerlabs.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.Consumer;
+
+public class ChunkedTriangleSink implements TriangleSink {
+
+    // the chunk being filled, in the native byte order, and a float view of it
+    private final ByteBuffer chunk;
+    private final FloatBuffer floats;
+
+    // true to write a normal with each vertex - the vertex normals if given, otherwise the face normal
+    private final boolean normals;
+
+    // receives each full chunk
+    private final Consumer<ByteBuffer> consumer;
+
+    // the amount of triangles received
+    private long triangleCount = 0;
+
+    /**
+     * default constructor - triangles are written as interleaved vertices in the layout of MeshWriter
+     * @param chunkTriangles - the amount of triangles in each chunk
+     * @param normals - true to include a normal with each vertex - the vertex normals if the triangle comes with
+     *                them, otherwise the face normal
+     * @param consumer - receives each chunk from position 0 to its limit. the chunk is reused once it returns
+     */
+    public ChunkedTriangleSink(int chunkTriangles, boolean normals, Consumer<ByteBuffer> consumer) {
+        this.chunk = ByteBuffer.allocateDirect(MeshWriter.getLength(chunkTriangles, normals) * Float.BYTES)
+                .order(ByteOrder.nativeOrder());
+        this.floats = chunk.asFloatBuffer();
+        this.normals = normals;
+        this.consumer = consumer;
+    }
+
+    /**
+     * creates a sink that writes each chunk to a channel, such as a file
+     * @param channel - the channel to write to
+     * @param chunkTriangles - the amount of triangles in each chunk
+     * @param normals - true to include a normal with each vertex - the vertex normals if the triangle comes with
+     *                them, otherwise the face normal
+     * @return - the sink, which throws UncheckedIOException if the channel fails
+     */
+    public static ChunkedTriangleSink toChannel(WritableByteChannel channel, int chunkTriangles, boolean normals) {
+        return new ChunkedTriangleSink(chunkTriangles, normals, chunk -> {
+            try {
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void triangle(float x1, float y1, float z1,
+                         float x2, float y2, float z2,
+                         float x3, float y3, float z3,
+                         float r, float g, float b) {
+        if (floats.remaining() < MeshWriter.getLength(1, normals)) {
+            flush();
+        }
+        MeshWriter.writeTriangle(floats, x1, y1, z1, x2, y2, z2, x3, y3, z3, r, g, b, normals);
+        triangleCount++;
+    }
+
+    /**
+     * writes a triangle with the given vertex normals, or without normals if this sink doesn't write them
+     */
+    @Override
+    public void triangle(float x1, float y1, float z1,
+                         float x2, float y2, float z2,
+                         float x3, float y3, float z3,
+                         float nx1, float ny1, float nz1,
+                         float nx2, float ny2, float nz2,
+                         float nx3, float ny3, float nz3,
+                         float r, float g, float b) {
+        if (!normals) {
+            triangle(x1, y1, z1, x2, y2, z2, x3, y3, z3, r, g, b);
+            return;
+        }
+        if (floats.remaining() < MeshWriter.getLength(1, true)) {
+            flush();
+        }
+        floats.put(x1).put(y1).put(z1).put(r).put(g).put(b).put(nx1).put(ny1).put(nz1);
+        floats.put(x2).put(y2).put(z2).put(r).put(g).put(b).put(nx2).put(ny2).put(nz2);
+        floats.put(x3).put(y3).put(z3).put(r).put(g).put(b).put(nx3).put(ny3).put(nz3);
+        triangleCount++;
+    }
+
+    /**
+     * passes the triangles written since the last chunk to the consumer, even if the chunk isn't full.
+     * call once the shapes are generated
+     */
+    public void flush() {
+        if (floats.position() == 0) {
+            return;
+        }
+        chunk.limit(floats.position() * Float.BYTES).position(0);
+        consumer.accept(chunk);
+        chunk.clear();
+        floats.clear();
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles received
+     */
+    public long getTriangleCount() {
+        return this.triangleCount;
+    }
+
+}
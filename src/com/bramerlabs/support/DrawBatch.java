@@ -0,0 +1,202 @@
+package com.bramerlabs.support;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * the meshes of many shapes packed into one vertex buffer and one index buffer, with the indices grouped by color so
+ * the whole batch is drawn with one call per color instead of one per shape. colors are kept in a palette rather than
+ * with each vertex, and are set once per group, such as with a uniform
+ */
+public class DrawBatch {
+
+    // values per group in the group table - the palette index, first index, and amount of indices
+    public static final int GROUP_STRIDE = 3;
+
+    // the packed x, y, z positions of every vertex
+    private final float[] positions;
+
+    // the packed x, y, z normals of every vertex, or null if not every mesh had normals
+    private final float[] normals;
+
+    // the indices of every triangle, grouped by color
+    private final int[] indices;
+
+    // the packed r, g, b of every color, shared by every batch built together
+    private final float[] palette;
+
+    // the palette index, first index, and amount of indices of each group
+    private final int[] groups;
+
+    /**
+     * default constructor
+     * @param positions - the packed positions of every vertex
+     * @param normals - the packed normals of every vertex, or null
+     * @param indices - the indices of every triangle, grouped by color
+     * @param palette - the packed colors of the palette
+     * @param groups - the palette index, first index, and amount of indices of each group
+     */
+    DrawBatch(float[] positions, float[] normals, int[] indices, float[] palette, int[] groups) {
+        this.positions = positions;
+        this.normals = normals;
+        this.indices = indices;
+        this.palette = palette;
+        this.groups = groups;
+    }
+
+    /**
+     * writes every vertex into a buffer as interleaved x, y, z and optionally nx, ny, nz
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeVertices(FloatBuffer buffer, boolean normals) {
+        if (normals && this.normals == null) {
+            throw new IllegalStateException("the batch has no normals");
+        }
+        if (!normals) {
+            if (buffer.remaining() < positions.length) {
+                throw new BufferOverflowException();
+            }
+            buffer.put(positions);
+            return;
+        }
+        if (buffer.remaining() < positions.length * 2) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < positions.length; i += 3) {
+            buffer.put(positions, i, 3).put(this.normals, i, 3);
+        }
+    }
+
+    /**
+     * writes every vertex into a byte buffer, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex
+     */
+    public void writeVertices(ByteBuffer buffer, boolean normals) {
+        FloatBuffer view = buffer.asFloatBuffer();
+        writeVertices(view, normals);
+        buffer.position(buffer.position() + view.position() * Float.BYTES);
+    }
+
+    /**
+     * writes every index into a buffer, group after group
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeIndices(IntBuffer buffer) {
+        buffer.put(indices);
+    }
+
+    /**
+     * writes every index into a byte buffer, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeIndices(ByteBuffer buffer) {
+        IntBuffer view = buffer.asIntBuffer();
+        writeIndices(view);
+        buffer.position(buffer.position() + view.position() * Integer.BYTES);
+    }
+
+    /**
+     * getter method
+     * @return - true if every vertex has a normal
+     */
+    public boolean hasNormals() {
+        return this.normals != null;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of vertices in the batch
+     */
+    public int getVertexCount() {
+        return this.positions.length / 3;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of indices in the batch
+     */
+    public int getIndexCount() {
+        return this.indices.length;
+    }
+
+    /**
+     * getter method
+     * @return - the packed x, y, z positions of every vertex
+     */
+    public float[] getPositions() {
+        return this.positions;
+    }
+
+    /**
+     * getter method
+     * @return - the packed x, y, z normals of every vertex, or null if the batch has no normals
+     */
+    public float[] getNormals() {
+        return this.normals;
+    }
+
+    /**
+     * getter method
+     * @return - the indices of every triangle, grouped by color
+     */
+    public int[] getIndices() {
+        return this.indices;
+    }
+
+    /**
+     * getter method - the palette is shared by every batch built together
+     * @return - the packed r, g, b of every color
+     */
+    public float[] getPalette() {
+        return this.palette;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of groups, which is the amount of draw calls needed for the batch
+     */
+    public int getGroupCount() {
+        return this.groups.length / GROUP_STRIDE;
+    }
+
+    /**
+     * getter method - the groups are sorted by palette index
+     * @return - the palette index, first index, and amount of indices of each group
+     */
+    public int[] getGroups() {
+        return this.groups;
+    }
+
+    /**
+     * gets the color of a group
+     * @param group - the index of the group
+     * @return - a new vector holding the color
+     */
+    public Vector3f getGroupColor(int group) {
+        int c = groups[group * GROUP_STRIDE] * 3;
+        return new Vector3f(palette[c], palette[c + 1], palette[c + 2]);
+    }
+
+    /**
+     * getter method
+     * @param group - the index of the group
+     * @return - the index of the first index of the group, for glDrawElements
+     */
+    public int getGroupFirstIndex(int group) {
+        return this.groups[group * GROUP_STRIDE + 1];
+    }
+
+    /**
+     * getter method
+     * @param group - the index of the group
+     * @return - the amount of indices in the group
+     */
+    public int getGroupIndexCount(int group) {
+        return this.groups[group * GROUP_STRIDE + 2];
+    }
+
+}
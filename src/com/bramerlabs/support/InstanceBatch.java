@@ -0,0 +1,152 @@
+package com.bramerlabs.support;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+public class InstanceBatch {
+
+    // floats per instance - the 12 values of the 3x4 transform row by row, followed by r, g, b
+    public static final int STRIDE = 15;
+
+    // the mesh shared by every instance, in the unit space of its shape
+    private final MeshBuffer base;
+
+    // the packed transform and color of each instance
+    private final float[] instances;
+
+    // the amount of instances
+    private final int count;
+
+    /**
+     * default constructor - every instance starts out with a zero transform and black color
+     * @param base - the mesh shared by every instance, which must not be modified
+     * @param count - the amount of instances
+     */
+    public InstanceBatch(MeshBuffer base, int count) {
+        this.base = base;
+        this.count = count;
+        this.instances = new float[count * STRIDE];
+    }
+
+    /**
+     * sets the transform and color of an instance
+     * @param i - the index of the instance
+     * @param transform - the transform from the base mesh to the instance
+     * @param color - the color of the instance
+     */
+    public void setInstance(int i, Transform transform, Vector3f color) {
+        int offset = i * STRIDE;
+        System.arraycopy(transform.getMatrix(), 0, instances, offset, 12);
+        instances[offset + 12] = color.x;
+        instances[offset + 13] = color.y;
+        instances[offset + 14] = color.z;
+    }
+
+    /**
+     * gets the transform of an instance
+     * @param i - the index of the instance
+     * @return - a new transform holding a copy of the matrix of the instance
+     */
+    public Transform getTransform(int i) {
+        return new Transform(Arrays.copyOfRange(instances, i * STRIDE, i * STRIDE + 12));
+    }
+
+    /**
+     * gets the color of an instance
+     * @param i - the index of the instance
+     * @return - a new vector holding the color
+     */
+    public Vector3f getColor(int i) {
+        int offset = i * STRIDE + 12;
+        return new Vector3f(instances[offset], instances[offset + 1], instances[offset + 2]);
+    }
+
+    /**
+     * writes the packed transform and color of every instance into a buffer, for use as per-instance vertex attributes
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeInstances(FloatBuffer buffer) {
+        if (buffer.remaining() < instances.length) {
+            throw new BufferOverflowException();
+        }
+        buffer.put(instances);
+    }
+
+    /**
+     * writes the packed transform and color of every instance into a byte buffer, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeInstances(ByteBuffer buffer) {
+        FloatBuffer view = buffer.asFloatBuffer();
+        writeInstances(view);
+        buffer.position(buffer.position() + view.position() * Float.BYTES);
+    }
+
+    /**
+     * builds a single mesh holding every instance, for drawing without instancing.
+     * the mesh is allocated once at its final size and each instance is written straight into its own range
+     * @return - the merged mesh, indexed if the base mesh is
+     */
+    public MeshBuffer toMesh() {
+        int numVertices = base.getVertexCount();
+        int numIndices = base.getIndexCount();
+        float[] basePositions = base.getPositions();
+        int[] baseIndices = base.getIndices();
+
+        float[] positions = new float[count * numVertices * 3];
+        float[] colors = new float[count * numVertices * 3];
+        float[] normals = base.hasNormals() ? new float[count * numVertices * 3] : null;
+        int[] indices = base.isIndexed() ? new int[count * numIndices] : null;
+
+        for (int i = 0; i < count; i++) {
+            int offset = i * STRIDE;
+            int v = i * numVertices * 3;
+            Transform.apply(instances, offset, basePositions, 0, positions, v, numVertices);
+            if (normals != null) {
+                Transform.applyToNormals(instances, offset, base.getNormals(), 0, normals, v, numVertices);
+            }
+
+            float r = instances[offset + 12], g = instances[offset + 13], b = instances[offset + 14];
+            for (int j = v; j < v + numVertices * 3; j += 3) {
+                colors[j] = r;
+                colors[j + 1] = g;
+                colors[j + 2] = b;
+            }
+
+            if (indices != null) {
+                int first = i * numVertices;
+                for (int j = 0; j < numIndices; j++) {
+                    indices[i * numIndices + j] = baseIndices[j] + first;
+                }
+            }
+        }
+        return new MeshBuffer(positions, colors, normals, indices);
+    }
+
+    /**
+     * getter method
+     * @return - the mesh shared by every instance
+     */
+    public MeshBuffer getBase() {
+        return this.base;
+    }
+
+    /**
+     * getter method
+     * @return - the packed transform and color of each instance, STRIDE floats per instance
+     */
+    public float[] getInstances() {
+        return this.instances;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of instances
+     */
+    public int getInstanceCount() {
+        return this.count;
+    }
+
+}
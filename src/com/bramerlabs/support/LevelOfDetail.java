@@ -0,0 +1,110 @@
+package com.bramerlabs.support;
+
+public class LevelOfDetail {
+
+    // the resolution of each level, such as the depth of a sphere, from coarsest to finest
+    private final int[] resolutions;
+
+    // the geometric error of each level for a radius of 1 - the furthest the mesh strays from the true surface
+    private final float[] errors;
+
+    /**
+     * default constructor
+     * @param resolutions - the resolution of each level, from coarsest to finest
+     * @param errors - the geometric error of each level for a radius of 1, decreasing with each level
+     */
+    public LevelOfDetail(int[] resolutions, float[] errors) {
+        this.resolutions = resolutions;
+        this.errors = errors;
+    }
+
+    /**
+     * creates the levels of detail for shapes made of rings of vertices, such as circles, cylinders, and cones
+     * @param segments - the amount of segments in the ring of each level, from coarsest to finest
+     * @return - the levels of detail
+     */
+    public static LevelOfDetail forRings(int... segments) {
+        float[] errors = new float[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            errors[i] = getRingError(segments[i]);
+        }
+        return new LevelOfDetail(segments, errors);
+    }
+
+    /**
+     * gets the geometric error of a ring of vertices on a circle of radius 1 - the distance from the
+     * middle of a segment to the circle
+     * @param segments - the amount of segments in the ring
+     * @return - the error
+     */
+    public static float getRingError(int segments) {
+        return (float) (1 - Math.cos(Math.PI / segments));
+    }
+
+    /**
+     * gets the radius of a sphere in pixels once it is projected onto the screen
+     * @param radius - the radius of the sphere
+     * @param distance - the distance from the camera to the center of the sphere
+     * @param fovY - the vertical field of view of the camera in radians
+     * @param viewportHeight - the height of the viewport in pixels
+     * @return - the projected radius in pixels
+     */
+    public static float getProjectedRadius(float radius, float distance, float fovY, float viewportHeight) {
+        if (distance <= radius) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return (float) (radius / (distance * Math.tan(fovY / 2)) * viewportHeight / 2);
+    }
+
+    /**
+     * selects the coarsest level whose error is within a tolerance
+     * @param radius - the radius of the shape
+     * @param tolerance - the largest acceptable error, in the same units as the radius
+     * @return - the level, or the finest level if none are within the tolerance
+     */
+    public int selectByError(float radius, float tolerance) {
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] * radius <= tolerance) {
+                return i;
+            }
+        }
+        return errors.length - 1;
+    }
+
+    /**
+     * selects the coarsest level whose error on screen is within a tolerance
+     * @param projectedRadius - the radius of the shape on screen in pixels
+     * @param pixelTolerance - the largest acceptable error in pixels
+     * @return - the level, or the finest level if none are within the tolerance
+     */
+    public int selectByScreenSize(float projectedRadius, float pixelTolerance) {
+        return selectByError(projectedRadius, pixelTolerance);
+    }
+
+    /**
+     * getter method
+     * @return - the amount of levels
+     */
+    public int getLevelCount() {
+        return this.resolutions.length;
+    }
+
+    /**
+     * getter method
+     * @param level - the level
+     * @return - the resolution of the level
+     */
+    public int getResolution(int level) {
+        return this.resolutions[level];
+    }
+
+    /**
+     * getter method
+     * @param level - the level
+     * @return - the geometric error of the level for a radius of 1
+     */
+    public float getError(int level) {
+        return this.errors[level];
+    }
+
+}
@@ -0,0 +1,635 @@
+package com.bramerlabs.support;
+
+import com.bramerlabs.shapes2d.Triangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MeshBuffer {
+
+    // packed x, y, z position of each vertex
+    private float[] positions;
+
+    // packed r, g, b color of each vertex, with components between 0 and 1
+    private float[] colors;
+
+    // packed x, y, z unit normal of each vertex - null if the mesh has no normals
+    private float[] normals;
+
+    // indices into the vertices, three per triangle - null if every 3 consecutive vertices form a triangle
+    private int[] indices;
+
+    // the amount of vertices and indices in use
+    private int vertexCount = 0;
+    private int indexCount = 0;
+
+    // the vertices changed in place since the dirty range was last cleared - the first, and the one after the last
+    private int dirtyStart = 0;
+    private int dirtyEnd = 0;
+
+    /**
+     * constructor for a triangle list, where every 3 consecutive vertices form a triangle
+     * @param vertexCapacity - the amount of vertices to allocate room for
+     */
+    public MeshBuffer(int vertexCapacity) {
+        this.positions = new float[vertexCapacity * 3];
+        this.colors = new float[vertexCapacity * 3];
+    }
+
+    /**
+     * constructor for an indexed mesh, where vertices are shared between triangles
+     * @param vertexCapacity - the amount of vertices to allocate room for
+     * @param indexCapacity - the amount of indices to allocate room for
+     */
+    public MeshBuffer(int vertexCapacity, int indexCapacity) {
+        this(vertexCapacity);
+        this.indices = new int[indexCapacity];
+    }
+
+    /**
+     * constructor wrapping existing arrays
+     * @param positions - packed x, y, z positions
+     * @param colors - packed r, g, b colors, the same length as positions
+     * @param indices - the triangle indices, or null for a triangle list
+     */
+    public MeshBuffer(float[] positions, float[] colors, int[] indices) {
+        this(positions, colors, null, indices);
+    }
+
+    /**
+     * constructor wrapping existing arrays, with normals
+     * @param positions - packed x, y, z positions
+     * @param colors - packed r, g, b colors, the same length as positions
+     * @param normals - packed x, y, z unit normals, the same length as positions, or null for no normals
+     * @param indices - the triangle indices, or null for a triangle list
+     */
+    public MeshBuffer(float[] positions, float[] colors, float[] normals, int[] indices) {
+        this.positions = positions;
+        this.colors = colors;
+        this.normals = normals;
+        this.indices = indices;
+        this.vertexCount = positions.length / 3;
+        this.indexCount = indices == null ? 0 : indices.length;
+    }
+
+    /**
+     * adds a vertex to this mesh
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     * @param r - the red component of the color
+     * @param g - the green component of the color
+     * @param b - the blue component of the color
+     * @return - the index of the new vertex
+     */
+    public int addVertex(float x, float y, float z, float r, float g, float b) {
+        ensureVertexCapacity(vertexCount + 1);
+        int i = vertexCount * 3;
+        positions[i] = x;
+        positions[i + 1] = y;
+        positions[i + 2] = z;
+        colors[i] = r;
+        colors[i + 1] = g;
+        colors[i + 2] = b;
+        return vertexCount++;
+    }
+
+    /**
+     * adds a vertex with a normal to this mesh, giving the mesh normals if it doesn't have them
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     * @param r - the red component of the color
+     * @param g - the green component of the color
+     * @param b - the blue component of the color
+     * @param nx - the x component of the unit normal
+     * @param ny - the y component of the unit normal
+     * @param nz - the z component of the unit normal
+     * @return - the index of the new vertex
+     */
+    public int addVertex(float x, float y, float z, float r, float g, float b, float nx, float ny, float nz) {
+        if (normals == null) {
+            enableNormals();
+        }
+        int i = addVertex(x, y, z, r, g, b) * 3;
+        normals[i] = nx;
+        normals[i + 1] = ny;
+        normals[i + 2] = nz;
+        return i / 3;
+    }
+
+    /**
+     * adds a vertex to this mesh
+     * @param position - the position of the vertex
+     * @param color - the color of the vertex
+     * @return - the index of the new vertex
+     */
+    public int addVertex(Vector3f position, Vector3f color) {
+        return addVertex(position.x, position.y, position.z, color.x, color.y, color.z);
+    }
+
+    /**
+     * adds a vertex with a normal to this mesh, giving the mesh normals if it doesn't have them
+     * @param position - the position of the vertex
+     * @param color - the color of the vertex
+     * @param normal - the unit normal of the vertex
+     * @return - the index of the new vertex
+     */
+    public int addVertex(Vector3f position, Vector3f color, Vector3f normal) {
+        return addVertex(position.x, position.y, position.z, color.x, color.y, color.z, normal.x, normal.y, normal.z);
+    }
+
+    /**
+     * writes a vertex at a fixed index without changing the amount of vertices in use.
+     * different threads may write different vertices at the same time
+     * @param i - the index of the vertex, less than the vertex count
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     * @param r - the red component of the color
+     * @param g - the green component of the color
+     * @param b - the blue component of the color
+     */
+    public void setVertex(int i, float x, float y, float z, float r, float g, float b) {
+        int v = i * 3;
+        positions[v] = x;
+        positions[v + 1] = y;
+        positions[v + 2] = z;
+        colors[v] = r;
+        colors[v + 1] = g;
+        colors[v + 2] = b;
+    }
+
+    /**
+     * writes a vertex with a normal at a fixed index without changing the amount of vertices in use.
+     * different threads may write different vertices at the same time, so the mesh must already have normals
+     * @param i - the index of the vertex, less than the vertex count
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     * @param r - the red component of the color
+     * @param g - the green component of the color
+     * @param b - the blue component of the color
+     * @param nx - the x component of the unit normal
+     * @param ny - the y component of the unit normal
+     * @param nz - the z component of the unit normal
+     */
+    public void setVertex(int i, float x, float y, float z, float r, float g, float b, float nx, float ny, float nz) {
+        if (normals == null) {
+            throw new IllegalStateException("the mesh has no normals - call enableNormals() first");
+        }
+        setVertex(i, x, y, z, r, g, b);
+        int v = i * 3;
+        normals[v] = nx;
+        normals[v + 1] = ny;
+        normals[v + 2] = nz;
+    }
+
+    /**
+     * gives this mesh normals if it doesn't have them. vertices that are already in the mesh get a normal of 0
+     * @return - this mesh
+     */
+    public MeshBuffer enableNormals() {
+        if (normals == null) {
+            normals = new float[positions.length];
+        }
+        return this;
+    }
+
+    /**
+     * sets the amount of vertices in use, growing the vertex arrays if needed.
+     * used to reserve room for vertices that are written later with setVertex()
+     * @param vertexCount - the new amount of vertices
+     */
+    public void setVertexCount(int vertexCount) {
+        ensureVertexCapacity(vertexCount);
+        this.vertexCount = vertexCount;
+    }
+
+    /**
+     * adds a triangle made of existing vertices to an indexed mesh
+     * @param i1 - the index of the first vertex
+     * @param i2 - the index of the second vertex
+     * @param i3 - the index of the third vertex
+     */
+    public void addTriangle(int i1, int i2, int i3) {
+        if (indices == null) {
+            throw new IllegalStateException("triangles can only be added by index to an indexed mesh");
+        }
+        ensureIndexCapacity(indexCount + 3);
+        indices[indexCount++] = i1;
+        indices[indexCount++] = i2;
+        indices[indexCount++] = i3;
+    }
+
+    /**
+     * adds a triangle made of three new vertices
+     * @param v1 - the first vertex
+     * @param v2 - the second vertex
+     * @param v3 - the third vertex
+     * @param color - the color of the triangle
+     */
+    public void addTriangle(Vector3f v1, Vector3f v2, Vector3f v3, Vector3f color) {
+        int i1 = addVertex(v1, color);
+        int i2 = addVertex(v2, color);
+        int i3 = addVertex(v3, color);
+        if (indices != null) {
+            addTriangle(i1, i2, i3);
+        }
+    }
+
+    /**
+     * appends the vertices and triangles of another mesh to this mesh
+     * @param other - the mesh to append
+     */
+    public void append(MeshBuffer other) {
+        // normals are kept if either mesh has them, and the vertices of the mesh without them get a normal of 0
+        if (other.normals != null) {
+            enableNormals();
+        }
+
+        // a triangle list can't share vertices, so an indexed mesh is expanded into it
+        if (indices == null && other.indices != null) {
+            ensureVertexCapacity(vertexCount + other.indexCount);
+            for (int i = 0; i < other.indexCount; i++) {
+                int v = other.indices[i] * 3;
+                if (normals != null) {
+                    Arrays.fill(normals, vertexCount * 3, vertexCount * 3 + 3, 0);
+                    if (other.normals != null) {
+                        System.arraycopy(other.normals, v, normals, vertexCount * 3, 3);
+                    }
+                }
+                addVertex(other.positions[v], other.positions[v + 1], other.positions[v + 2],
+                        other.colors[v], other.colors[v + 1], other.colors[v + 2]);
+            }
+            return;
+        }
+
+        int offset = vertexCount;
+        ensureVertexCapacity(vertexCount + other.vertexCount);
+        System.arraycopy(other.positions, 0, positions, offset * 3, other.vertexCount * 3);
+        System.arraycopy(other.colors, 0, colors, offset * 3, other.vertexCount * 3);
+        if (other.normals != null) {
+            System.arraycopy(other.normals, 0, normals, offset * 3, other.vertexCount * 3);
+        } else if (normals != null) {
+            Arrays.fill(normals, offset * 3, (offset + other.vertexCount) * 3, 0);
+        }
+        vertexCount += other.vertexCount;
+
+        if (indices != null) {
+            int count = other.indices == null ? other.vertexCount : other.indexCount;
+            ensureIndexCapacity(indexCount + count);
+            for (int i = 0; i < count; i++) {
+                indices[indexCount++] = offset + (other.indices == null ? i : other.indices[i]);
+            }
+        }
+    }
+
+    /**
+     * creates a copy of this mesh with every vertex transformed and given the same color
+     * @param transform - the transform to apply to the positions and normals
+     * @param color - the color of every vertex
+     * @return - the new mesh
+     */
+    public MeshBuffer transformed(Transform transform, Vector3f color) {
+        float[] p = new float[vertexCount * 3];
+        float[] c = new float[vertexCount * 3];
+        transform.apply(positions, 0, p, 0, vertexCount);
+        for (int i = 0; i < c.length; i += 3) {
+            c[i] = color.x;
+            c[i + 1] = color.y;
+            c[i + 2] = color.z;
+        }
+        float[] n = null;
+        if (normals != null) {
+            n = new float[vertexCount * 3];
+            transform.applyToNormals(normals, 0, n, 0, vertexCount);
+        }
+        return new MeshBuffer(p, c, n, indices == null ? null : Arrays.copyOf(indices, indexCount));
+    }
+
+    /**
+     * transforms the positions and normals of this mesh in place, such as to re-pose or re-scale generated geometry
+     * @param transform - the transform to apply to the positions and normals
+     * @return - this mesh
+     */
+    public MeshBuffer transform(Transform transform) {
+        transform.apply(positions, 0, positions, 0, vertexCount);
+        if (normals != null) {
+            transform.applyToNormals(normals, 0, normals, 0, vertexCount);
+        }
+        markDirty(0, vertexCount);
+        return this;
+    }
+
+    /**
+     * overwrites the positions and normals of this mesh with those of another mesh with the same vertices after a
+     * transform, such as a unit mesh moved to where its shape now is. the colors and indices are left as they are
+     * @param source - the mesh to transform, with the same amount of vertices as this mesh
+     * @param transform - the transform to apply to the positions and normals
+     * @return - this mesh
+     */
+    public MeshBuffer transformFrom(MeshBuffer source, Transform transform) {
+        if (source.vertexCount != vertexCount) {
+            throw new IllegalArgumentException("the source mesh has " + source.vertexCount + " vertices, not " +
+                    vertexCount);
+        }
+        transform.apply(source.positions, 0, positions, 0, vertexCount);
+        if (normals != null && source.normals != null) {
+            transform.applyToNormals(source.normals, 0, normals, 0, vertexCount);
+        }
+        markDirty(0, vertexCount);
+        return this;
+    }
+
+    /**
+     * moves a vertex in place, adding it to the dirty range
+     * @param i - the index of the vertex, less than the vertex count
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     */
+    public void setPosition(int i, float x, float y, float z) {
+        int v = i * 3;
+        positions[v] = x;
+        positions[v + 1] = y;
+        positions[v + 2] = z;
+        markDirty(i, 1);
+    }
+
+    /**
+     * adds vertices to the dirty range, the vertices that have to be uploaded again. the range grows to cover every
+     * vertex marked since it was last cleared. setPosition(), transform(), and transformFrom() mark the vertices they
+     * change, but setVertex() doesn't, since it is used to fill new meshes from many threads
+     * @param first - the first vertex changed
+     * @param count - the amount of vertices changed
+     */
+    public void markDirty(int first, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (dirtyStart == dirtyEnd) {
+            dirtyStart = first;
+            dirtyEnd = first + count;
+        } else {
+            dirtyStart = Math.min(dirtyStart, first);
+            dirtyEnd = Math.max(dirtyEnd, first + count);
+        }
+    }
+
+    /**
+     * empties the dirty range, such as once the changed vertices have been uploaded
+     */
+    public void clearDirty() {
+        dirtyStart = dirtyEnd = 0;
+    }
+
+    /**
+     * getter method
+     * @return - true if vertices have been changed since the dirty range was last cleared
+     */
+    public boolean isDirty() {
+        return dirtyEnd > dirtyStart;
+    }
+
+    /**
+     * getter method
+     * @return - the first vertex in the dirty range
+     */
+    public int getDirtyStart() {
+        return this.dirtyStart;
+    }
+
+    /**
+     * getter method
+     * @return - the vertex after the last vertex in the dirty range, equal to the start if nothing is dirty
+     */
+    public int getDirtyEnd() {
+        return this.dirtyEnd;
+    }
+
+    /**
+     * gets where the dirty range starts in a buffer with one entry per vertex, such as the positions alone
+     * (3 * Float.BYTES), or a mesh without indices written by MeshWriter (MeshWriter.getStride() * Float.BYTES)
+     * @param bytesPerVertex - the size of each vertex in the buffer
+     * @return - the offset in bytes, for glBufferSubData
+     */
+    public long getDirtyByteOffset(int bytesPerVertex) {
+        return (long) dirtyStart * bytesPerVertex;
+    }
+
+    /**
+     * gets the length of the dirty range in a buffer with one entry per vertex
+     * @param bytesPerVertex - the size of each vertex in the buffer
+     * @return - the length in bytes, 0 if nothing is dirty
+     */
+    public long getDirtyByteLength(int bytesPerVertex) {
+        return (long) (dirtyEnd - dirtyStart) * bytesPerVertex;
+    }
+
+    /**
+     * makes sure there is room for an amount of vertices, growing the vertex arrays if needed
+     * @param capacity - the amount of vertices
+     */
+    public void ensureVertexCapacity(int capacity) {
+        if (capacity * 3 > positions.length) {
+            int length = Math.max(capacity * 3, positions.length * 2);
+            positions = Arrays.copyOf(positions, length);
+            colors = Arrays.copyOf(colors, length);
+            if (normals != null) {
+                normals = Arrays.copyOf(normals, length);
+            }
+        }
+    }
+
+    /**
+     * makes sure there is room for an amount of indices, growing the index array if needed
+     * @param capacity - the amount of indices
+     */
+    public void ensureIndexCapacity(int capacity) {
+        if (capacity > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(capacity, indices.length * 2));
+        }
+    }
+
+    /**
+     * shrinks the backing arrays to the amount of data in use
+     * @return - this mesh
+     */
+    public MeshBuffer trim() {
+        if (positions.length != vertexCount * 3) {
+            positions = Arrays.copyOf(positions, vertexCount * 3);
+            colors = Arrays.copyOf(colors, vertexCount * 3);
+            if (normals != null) {
+                normals = Arrays.copyOf(normals, vertexCount * 3);
+            }
+        }
+        if (indices != null && indices.length != indexCount) {
+            indices = Arrays.copyOf(indices, indexCount);
+        }
+        return this;
+    }
+
+    /**
+     * getter method
+     * @return - true if this mesh has an index buffer
+     */
+    public boolean isIndexed() {
+        return this.indices != null;
+    }
+
+    /**
+     * getter method
+     * @return - true if this mesh has a normal for each vertex
+     */
+    public boolean hasNormals() {
+        return this.normals != null;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of vertices in this mesh
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of indices in this mesh, 0 for a triangle list
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles in this mesh
+     */
+    public int getTriangleCount() {
+        return (indices == null ? vertexCount : indexCount) / 3;
+    }
+
+    /**
+     * gets the vertex used by a corner of a triangle
+     * @param i - the corner, 3 * triangle + 0, 1, or 2
+     * @return - the index of the vertex
+     */
+    public int getIndex(int i) {
+        return indices == null ? i : indices[i];
+    }
+
+    /**
+     * getter method - the array may be longer than the amount of vertices in use
+     * @return - the packed x, y, z positions of this mesh
+     */
+    public float[] getPositions() {
+        return this.positions;
+    }
+
+    /**
+     * getter method - the array may be longer than the amount of vertices in use
+     * @return - the packed r, g, b colors of this mesh
+     */
+    public float[] getColors() {
+        return this.colors;
+    }
+
+    /**
+     * getter method - the array may be longer than the amount of vertices in use
+     * @return - the packed x, y, z unit normals of this mesh, or null if it has no normals
+     */
+    public float[] getNormals() {
+        return this.normals;
+    }
+
+    /**
+     * getter method - the array may be longer than the amount of indices in use
+     * @return - the index buffer of this mesh, or null for a triangle list
+     */
+    public int[] getIndices() {
+        return this.indices;
+    }
+
+    /**
+     * gets the position of a vertex
+     * @param i - the index of the vertex
+     * @return - a new vector holding the position
+     */
+    public Vector3f getPosition(int i) {
+        return new Vector3f(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+    }
+
+    /**
+     * gets the color of a vertex
+     * @param i - the index of the vertex
+     * @return - a new vector holding the color
+     */
+    public Vector3f getColor(int i) {
+        return new Vector3f(colors[i * 3], colors[i * 3 + 1], colors[i * 3 + 2]);
+    }
+
+    /**
+     * gets the normal of a vertex
+     * @param i - the index of the vertex
+     * @return - a new vector holding the unit normal, or null if this mesh has no normals
+     */
+    public Vector3f getNormal(int i) {
+        if (normals == null) {
+            return null;
+        }
+        return new Vector3f(normals[i * 3], normals[i * 3 + 1], normals[i * 3 + 2]);
+    }
+
+    /**
+     * passes every triangle of this mesh to a sink, expanding the index buffer if it has one, with the normal of each
+     * vertex if this mesh has normals
+     * @param sink - the sink to pass the triangles to
+     */
+    public void stream(TriangleSink sink) {
+        for (int i = 0; i < getTriangleCount() * 3; i += 3) {
+            int a = getIndex(i) * 3, b = getIndex(i + 1) * 3, d = getIndex(i + 2) * 3;
+            if (normals != null) {
+                sink.triangle(positions[a], positions[a + 1], positions[a + 2],
+                        positions[b], positions[b + 1], positions[b + 2],
+                        positions[d], positions[d + 1], positions[d + 2],
+                        normals[a], normals[a + 1], normals[a + 2],
+                        normals[b], normals[b + 1], normals[b + 2],
+                        normals[d], normals[d + 1], normals[d + 2],
+                        colors[a], colors[a + 1], colors[a + 2]);
+            } else {
+                sink.triangle(positions[a], positions[a + 1], positions[a + 2],
+                        positions[b], positions[b + 1], positions[b + 2],
+                        positions[d], positions[d + 1], positions[d + 2],
+                        colors[a], colors[a + 1], colors[a + 2]);
+            }
+        }
+    }
+
+    /**
+     * builds a list of triangles from this mesh
+     * triangles that share a vertex also share the Vector3f for that vertex
+     * @return - an ArrayList of triangles making up this mesh
+     */
+    public ArrayList<Triangle> toTriangles() {
+        Vector3f[] v = new Vector3f[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            v[i] = getPosition(i);
+        }
+
+        ArrayList<Triangle> triangles = new ArrayList<>(getTriangleCount());
+        Vector3f color = null;
+        for (int i = 0; i < getTriangleCount() * 3; i += 3) {
+            int i1 = getIndex(i);
+
+            // the color of a triangle is the color of its first vertex - reuse it while it stays the same
+            int c = i1 * 3;
+            if (color == null || color.x != colors[c] || color.y != colors[c + 1] || color.z != colors[c + 2]) {
+                color = getColor(i1);
+            }
+            triangles.add(new Triangle(v[i1], v[getIndex(i + 1)], v[getIndex(i + 2)], color));
+        }
+        return triangles;
+    }
+
+}
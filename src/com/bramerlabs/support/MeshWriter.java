@@ -0,0 +1,179 @@
+package com.bramerlabs.support;
+
+import com.bramerlabs.shapes2d.Triangle;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.List;
+
+public class MeshWriter {
+
+    // floats per vertex for the position and color layout
+    public static final int STRIDE = 6;
+
+    // floats per vertex for the position, color, and normal layout
+    public static final int STRIDE_WITH_NORMALS = 9;
+
+    /**
+     * gets the amount of floats written per vertex
+     * @param normals - true if normals are included
+     * @return - the stride of the layout in floats
+     */
+    public static int getStride(boolean normals) {
+        return normals ? STRIDE_WITH_NORMALS : STRIDE;
+    }
+
+    /**
+     * gets the amount of floats needed to write a list of triangles
+     * @param numTriangles - the amount of triangles
+     * @param normals - true if normals are included
+     * @return - the amount of floats
+     */
+    public static int getLength(int numTriangles, boolean normals) {
+        return numTriangles * 3 * getStride(normals);
+    }
+
+    /**
+     * writes triangles into a buffer as interleaved vertices - x, y, z, r, g, b and optionally nx, ny, nz
+     * @param faces - the triangles to write
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the face normal with each vertex
+     */
+    public static void writeInterleaved(List<Triangle> faces, FloatBuffer buffer, boolean normals) {
+        if (buffer.remaining() < getLength(faces.size(), normals)) {
+            throw new BufferOverflowException();
+        }
+        for (Triangle t : faces) {
+            Vector3f v1 = t.getV1(), v2 = t.getV2(), v3 = t.getV3(), c = t.getColor();
+            writeTriangle(buffer, v1.x, v1.y, v1.z, v2.x, v2.y, v2.z, v3.x, v3.y, v3.z, c.x, c.y, c.z, normals);
+        }
+    }
+
+    /**
+     * writes triangles into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param faces - the triangles to write
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the face normal with each vertex
+     */
+    public static void writeInterleaved(List<Triangle> faces, ByteBuffer buffer, boolean normals) {
+        FloatBuffer view = buffer.asFloatBuffer();
+        writeInterleaved(faces, view, normals);
+        buffer.position(buffer.position() + view.position() * Float.BYTES);
+    }
+
+    /**
+     * writes the triangles of a mesh into a buffer as interleaved vertices, expanding the index buffer if it has one
+     * @param mesh - the mesh to write
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include a normal with each vertex - the normal of the vertex if the mesh has normals,
+     *                otherwise the face normal of its triangle
+     */
+    public static void writeInterleaved(MeshBuffer mesh, FloatBuffer buffer, boolean normals) {
+        int numTriangles = mesh.getTriangleCount();
+        if (buffer.remaining() < getLength(numTriangles, normals)) {
+            throw new BufferOverflowException();
+        }
+        float[] v = mesh.getPositions();
+        float[] c = mesh.getColors();
+        if (normals && mesh.hasNormals()) {
+            float[] n = mesh.getNormals();
+            for (int i = 0; i < numTriangles * 3; i++) {
+                int a = mesh.getIndex(i) * 3;
+                buffer.put(v[a]).put(v[a + 1]).put(v[a + 2]).put(c[a]).put(c[a + 1]).put(c[a + 2])
+                        .put(n[a]).put(n[a + 1]).put(n[a + 2]);
+            }
+            return;
+        }
+        for (int i = 0; i < numTriangles * 3; i += 3) {
+            int a = mesh.getIndex(i) * 3, b = mesh.getIndex(i + 1) * 3, d = mesh.getIndex(i + 2) * 3;
+            writeTriangle(buffer, v[a], v[a + 1], v[a + 2], v[b], v[b + 1], v[b + 2], v[d], v[d + 1], v[d + 2],
+                    c[a], c[a + 1], c[a + 2], normals);
+        }
+    }
+
+    /**
+     * writes the triangles of a mesh into a byte buffer as interleaved vertices, using the byte order of the buffer
+     * @param mesh - the mesh to write
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include a normal with each vertex - the normal of the vertex if the mesh has normals,
+     *                otherwise the face normal of its triangle
+     */
+    public static void writeInterleaved(MeshBuffer mesh, ByteBuffer buffer, boolean normals) {
+        FloatBuffer view = buffer.asFloatBuffer();
+        writeInterleaved(mesh, view, normals);
+        buffer.position(buffer.position() + view.position() * Float.BYTES);
+    }
+
+    /**
+     * writes every vertex of a mesh once into a buffer as interleaved vertices, for drawing with an index buffer such
+     * as the indices of a PrimitiveBuffer
+     * @param mesh - the mesh to write
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex, which the mesh must have
+     */
+    public static void writeVertices(MeshBuffer mesh, FloatBuffer buffer, boolean normals) {
+        if (normals && !mesh.hasNormals()) {
+            throw new IllegalStateException("the mesh has no normals");
+        }
+        int numVertices = mesh.getVertexCount();
+        if (buffer.remaining() < numVertices * getStride(normals)) {
+            throw new BufferOverflowException();
+        }
+        float[] v = mesh.getPositions();
+        float[] c = mesh.getColors();
+        float[] n = mesh.getNormals();
+        for (int a = 0; a < numVertices * 3; a += 3) {
+            buffer.put(v[a]).put(v[a + 1]).put(v[a + 2]).put(c[a]).put(c[a + 1]).put(c[a + 2]);
+            if (normals) {
+                buffer.put(n[a]).put(n[a + 1]).put(n[a + 2]);
+            }
+        }
+    }
+
+    /**
+     * writes every vertex of a mesh once into a byte buffer, using the byte order of the buffer
+     * @param mesh - the mesh to write
+     * @param buffer - the buffer to write to, starting at its current position
+     * @param normals - true to include the normal of each vertex, which the mesh must have
+     */
+    public static void writeVertices(MeshBuffer mesh, ByteBuffer buffer, boolean normals) {
+        FloatBuffer view = buffer.asFloatBuffer();
+        writeVertices(mesh, view, normals);
+        buffer.position(buffer.position() + view.position() * Float.BYTES);
+    }
+
+    /**
+     * writes the three vertices of a single triangle
+     */
+    static void writeTriangle(FloatBuffer buffer,
+                              float x1, float y1, float z1,
+                              float x2, float y2, float z2,
+                              float x3, float y3, float z3,
+                              float r, float g, float b, boolean normals) {
+        if (!normals) {
+            buffer.put(x1).put(y1).put(z1).put(r).put(g).put(b);
+            buffer.put(x2).put(y2).put(z2).put(r).put(g).put(b);
+            buffer.put(x3).put(y3).put(z3).put(r).put(g).put(b);
+            return;
+        }
+
+        // face normal - (v2 - v1) x (v3 - v1), left at 0 for degenerate triangles
+        float ax = x2 - x1, ay = y2 - y1, az = z2 - z1;
+        float bx = x3 - x1, by = y3 - y1, bz = z3 - z1;
+        float nx = ay * bz - az * by;
+        float ny = az * bx - ax * bz;
+        float nz = ax * by - ay * bx;
+        float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length > 0) {
+            nx /= length;
+            ny /= length;
+            nz /= length;
+        }
+
+        buffer.put(x1).put(y1).put(z1).put(r).put(g).put(b).put(nx).put(ny).put(nz);
+        buffer.put(x2).put(y2).put(z2).put(r).put(g).put(b).put(nx).put(ny).put(nz);
+        buffer.put(x3).put(y3).put(z3).put(r).put(g).put(b).put(nx).put(ny).put(nz);
+    }
+
+}
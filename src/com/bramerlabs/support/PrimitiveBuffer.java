@@ -0,0 +1,218 @@
+package com.bramerlabs.support;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * the vertices of a mesh with the indices of the triangle strips or fans that draw it, for glDrawElements with
+ * GL_TRIANGLE_STRIP or GL_TRIANGLE_FAN. strips are separated by a restart index, so every strip of a shape is drawn
+ * with one call once primitive restart is enabled. a strip of n indices draws n - 2 triangles, where a triangle list
+ * needs 3 indices per triangle. every triangle is wound counter-clockwise seen from outside the shape, following the
+ * OpenGL rule that every other triangle of a strip is drawn with its first two vertices swapped
+ */
+public class PrimitiveBuffer {
+
+    // the mode of a buffer of triangle strips, the same as GL_TRIANGLE_STRIP
+    public static final int TRIANGLE_STRIP = 0x0005;
+
+    // the mode of a buffer of triangle fans, the same as GL_TRIANGLE_FAN
+    public static final int TRIANGLE_FAN = 0x0006;
+
+    // the index ending one primitive and starting the next - all bits set, as GL_PRIMITIVE_RESTART_FIXED_INDEX expects
+    public static final int RESTART_INDEX = -1;
+
+    // the restart index when the indices are written as 16 bit values
+    public static final short SHORT_RESTART_INDEX = (short) 0xFFFF;
+
+    // the mesh holding the vertices - its own indices are not used
+    private final MeshBuffer vertices;
+
+    // TRIANGLE_STRIP or TRIANGLE_FAN
+    private final int mode;
+
+    // the indices of every primitive, separated by RESTART_INDEX
+    private int[] indices;
+
+    // the amount of indices in use
+    private int indexCount = 0;
+
+    /**
+     * default constructor
+     * @param vertices - the mesh holding the vertices the indices refer to
+     * @param mode - TRIANGLE_STRIP or TRIANGLE_FAN
+     * @param indexCapacity - the amount of indices to allocate room for
+     */
+    public PrimitiveBuffer(MeshBuffer vertices, int mode, int indexCapacity) {
+        if (mode != TRIANGLE_STRIP && mode != TRIANGLE_FAN) {
+            throw new IllegalArgumentException("unknown primitive mode " + mode);
+        }
+        this.vertices = vertices;
+        this.mode = mode;
+        this.indices = new int[Math.max(indexCapacity, 4)];
+    }
+
+    /**
+     * adds an index to the current primitive
+     * @param index - the index of the vertex
+     */
+    public void add(int index) {
+        if (indexCount == indices.length) {
+            indices = Arrays.copyOf(indices, indices.length * 2);
+        }
+        indices[indexCount++] = index;
+    }
+
+    /**
+     * ends the current primitive, so the next index starts a new one. does nothing if there is no current primitive
+     */
+    public void restart() {
+        if (indexCount > 0 && indices[indexCount - 1] != RESTART_INDEX) {
+            add(RESTART_INDEX);
+        }
+    }
+
+    /**
+     * expands the primitives into an indexed triangle list over a copy of the vertices, with every triangle wound the
+     * way it is drawn. triangles that repeat an index draw nothing and are left out, but triangles between different
+     * vertices at the same position are kept
+     * @return - the triangle list
+     */
+    public MeshBuffer toTriangleList() {
+        int[] triangles = new int[getTriangleCount() * 3];
+        int size = 0;
+        int start = 0;
+        for (int i = 0; i <= indexCount; i++) {
+            if (i < indexCount && indices[i] != RESTART_INDEX) {
+                continue;
+            }
+
+            // the primitive runs from start to i
+            for (int k = 0; k + 2 < i - start; k++) {
+                int a, b, c;
+                if (mode == TRIANGLE_FAN) {
+                    a = indices[start];
+                    b = indices[start + k + 1];
+                    c = indices[start + k + 2];
+                } else if (k % 2 == 0) {
+                    a = indices[start + k];
+                    b = indices[start + k + 1];
+                    c = indices[start + k + 2];
+                } else {
+                    a = indices[start + k + 1];
+                    b = indices[start + k];
+                    c = indices[start + k + 2];
+                }
+                if (a != b && b != c && c != a) {
+                    triangles[size++] = a;
+                    triangles[size++] = b;
+                    triangles[size++] = c;
+                }
+            }
+            start = i + 1;
+        }
+
+        int n = vertices.getVertexCount() * 3;
+        float[] normals = vertices.hasNormals() ? Arrays.copyOf(vertices.getNormals(), n) : null;
+        return new MeshBuffer(Arrays.copyOf(vertices.getPositions(), n), Arrays.copyOf(vertices.getColors(), n),
+                normals, Arrays.copyOf(triangles, size));
+    }
+
+    /**
+     * writes every index into a buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeIndices(IntBuffer buffer) {
+        buffer.put(indices, 0, indexCount);
+    }
+
+    /**
+     * writes every index into a byte buffer as 32 bit values, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeIndices(ByteBuffer buffer) {
+        IntBuffer view = buffer.asIntBuffer();
+        writeIndices(view);
+        buffer.position(buffer.position() + view.position() * Integer.BYTES);
+    }
+
+    /**
+     * writes every index into a buffer as 16 bit values, for GL_UNSIGNED_SHORT indices. restarts are written as
+     * SHORT_RESTART_INDEX, so the mesh must have fewer than 65535 vertices
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeShortIndices(ShortBuffer buffer) {
+        if (vertices.getVertexCount() >= 0xFFFF) {
+            throw new IllegalStateException("a mesh with " + vertices.getVertexCount() +
+                    " vertices can't be drawn with 16 bit indices");
+        }
+        if (buffer.remaining() < indexCount) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < indexCount; i++) {
+            buffer.put(indices[i] == RESTART_INDEX ? SHORT_RESTART_INDEX : (short) indices[i]);
+        }
+    }
+
+    /**
+     * writes every index into a byte buffer as 16 bit values, using the byte order of the buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeShortIndices(ByteBuffer buffer) {
+        ShortBuffer view = buffer.asShortBuffer();
+        writeShortIndices(view);
+        buffer.position(buffer.position() + view.position() * Short.BYTES);
+    }
+
+    /**
+     * gets the amount of triangles drawn, counting those that repeat an index and draw nothing
+     * @return - the amount of triangles
+     */
+    public int getTriangleCount() {
+        int triangles = 0;
+        int length = 0;
+        for (int i = 0; i < indexCount; i++) {
+            if (indices[i] == RESTART_INDEX) {
+                length = 0;
+            } else if (++length >= 3) {
+                triangles++;
+            }
+        }
+        return triangles;
+    }
+
+    /**
+     * getter method
+     * @return - the mesh holding the vertices the indices refer to
+     */
+    public MeshBuffer getVertices() {
+        return this.vertices;
+    }
+
+    /**
+     * getter method
+     * @return - TRIANGLE_STRIP or TRIANGLE_FAN
+     */
+    public int getMode() {
+        return this.mode;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of indices, including restarts
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the index array, which may be longer than getIndexCount()
+     */
+    public int[] getIndices() {
+        return this.indices;
+    }
+
+}
@@ -0,0 +1,351 @@
+package com.bramerlabs.support;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * a mesh with its vertices packed into 12 bytes each instead of the 24 or 36 bytes of floats in a MeshBuffer. each
+ * vertex is laid out as
+ * <pre>
+ *   bytes 0 - 5    x, y, z      unsigned 16 bit, normalized within the bounds of the mesh
+ *   bytes 6 - 7    normal       two signed 8 bit values, the normal folded onto an octahedron
+ *   bytes 8 - 11   r, g, b, a   unsigned 8 bit
+ * </pre>
+ * so it can be drawn straight from the packed data with glVertexAttribPointer and normalized attributes, with the
+ * shader scaling and moving positions back out of the bounds. positions are off by about 1 / 131070 of the size of the
+ * bounds on each axis, normals by less than a degree, and colors not at all for colors from java.awt.Color
+ */
+public class QuantizedMesh {
+
+    // bytes per vertex
+    public static final int STRIDE = 12;
+
+    // the offset of the position of a vertex, 3 GL_UNSIGNED_SHORT
+    public static final int POSITION_OFFSET = 0;
+
+    // the offset of the normal of a vertex, 2 GL_BYTE - 0 if the mesh has no normals
+    public static final int NORMAL_OFFSET = 6;
+
+    // the offset of the color of a vertex, 4 GL_UNSIGNED_BYTE
+    public static final int COLOR_OFFSET = 8;
+
+    // the packed vertices, in the native byte order
+    private final ByteBuffer vertices;
+
+    // the amount of vertices
+    private final int vertexCount;
+
+    // the triangle indices in the native byte order, 16 bit if every vertex can be reached with 16 bits, or null for
+    // a triangle list
+    private final ByteBuffer indices;
+
+    // the amount of indices
+    private final int indexCount;
+
+    // whether the normals were packed
+    private final boolean normals;
+
+    // the min x, y, z of the bounds, and the size of a step of the packed positions on each axis
+    private final float[] min, scale;
+
+    /**
+     * default constructor
+     * @param vertices - the packed vertices
+     * @param vertexCount - the amount of vertices
+     * @param indices - the packed triangle indices, or null for a triangle list
+     * @param indexCount - the amount of indices
+     * @param normals - whether the normals were packed
+     * @param min - the min x, y, z of the bounds
+     * @param scale - the size of a step of the packed positions on each axis
+     */
+    private QuantizedMesh(ByteBuffer vertices, int vertexCount, ByteBuffer indices, int indexCount, boolean normals,
+                          float[] min, float[] scale) {
+        this.vertices = vertices;
+        this.vertexCount = vertexCount;
+        this.indices = indices;
+        this.indexCount = indexCount;
+        this.normals = normals;
+        this.min = min;
+        this.scale = scale;
+    }
+
+    /**
+     * packs the vertices of a mesh. colors are rounded to 8 bits per channel and given an alpha of 255, and indices
+     * are packed into 16 bits when the mesh has at most 65536 vertices
+     * @param mesh - the mesh to pack, which is not changed
+     * @return - the packed mesh
+     */
+    public static QuantizedMesh encode(MeshBuffer mesh) {
+        int vertexCount = mesh.getVertexCount();
+        float[] p = mesh.getPositions(), c = mesh.getColors(), n = mesh.getNormals();
+
+        // the bounds of the mesh, divided into 65535 steps on each axis
+        float[] min = new float[3], scale = new float[3];
+        for (int axis = 0; axis < 3; axis++) {
+            float low = Float.POSITIVE_INFINITY, high = Float.NEGATIVE_INFINITY;
+            for (int v = axis; v < vertexCount * 3; v += 3) {
+                low = Math.min(low, p[v]);
+                high = Math.max(high, p[v]);
+            }
+            min[axis] = vertexCount == 0 ? 0 : low;
+            scale[axis] = vertexCount == 0 ? 0 : (high - low) / 65535;
+        }
+
+        ByteBuffer vertices = ByteBuffer.allocateDirect(vertexCount * STRIDE).order(ByteOrder.nativeOrder());
+        for (int v = 0; v < vertexCount * 3; v += 3) {
+            for (int axis = 0; axis < 3; axis++) {
+                int q = scale[axis] > 0 ? Math.round((p[v + axis] - min[axis]) / scale[axis]) : 0;
+                vertices.putShort((short) Math.min(Math.max(q, 0), 65535));
+            }
+            vertices.putShort(n == null ? 0 : encodeOctahedral(n[v], n[v + 1], n[v + 2]));
+            vertices.put(toByte(c[v])).put(toByte(c[v + 1])).put(toByte(c[v + 2])).put((byte) 255);
+        }
+        vertices.flip();
+
+        ByteBuffer indices = null;
+        int indexCount = mesh.getIndexCount();
+        if (mesh.isIndexed()) {
+            int[] source = mesh.getIndices();
+            int size = getIndexSize(vertexCount);
+            indices = ByteBuffer.allocateDirect(indexCount * size).order(ByteOrder.nativeOrder());
+            for (int i = 0; i < indexCount; i++) {
+                if (size == Short.BYTES) {
+                    indices.putShort((short) source[i]);
+                } else {
+                    indices.putInt(source[i]);
+                }
+            }
+            indices.flip();
+        }
+        return new QuantizedMesh(vertices, vertexCount, indices, indexCount, n != null, min, scale);
+    }
+
+    /**
+     * unpacks the vertices into a new mesh of floats
+     * @return - the mesh
+     */
+    public MeshBuffer decode() {
+        float[] positions = new float[vertexCount * 3], colors = new float[vertexCount * 3];
+        float[] n = normals ? new float[vertexCount * 3] : null;
+        for (int v = 0; v < vertexCount; v++) {
+            int b = v * STRIDE;
+            for (int axis = 0; axis < 3; axis++) {
+                int q = vertices.getShort(b + POSITION_OFFSET + axis * 2) & 0xFFFF;
+                positions[v * 3 + axis] = min[axis] + q * scale[axis];
+                colors[v * 3 + axis] = (vertices.get(b + COLOR_OFFSET + axis) & 0xFF) / 255f;
+            }
+            if (normals) {
+                decodeOctahedral(vertices.getShort(b + NORMAL_OFFSET), n, v * 3);
+            }
+        }
+        return new MeshBuffer(positions, colors, n, indices == null ? null : getIndices());
+    }
+
+    /**
+     * gets the size of the indices of a mesh
+     * @param vertexCount - the amount of vertices in the mesh
+     * @return - Short.BYTES if every vertex can be reached with 16 bits, otherwise Integer.BYTES
+     */
+    public static int getIndexSize(int vertexCount) {
+        return vertexCount <= 0x10000 ? Short.BYTES : Integer.BYTES;
+    }
+
+    /**
+     * folds a unit vector onto an octahedron and packs it into 2 signed bytes, the x in the low byte. of the 4
+     * nearest packed values, the one that unpacks closest to the vector is chosen
+     * @param x - the x of the vector
+     * @param y - the y of the vector
+     * @param z - the z of the vector
+     * @return - the packed vector
+     */
+    public static short encodeOctahedral(float x, float y, float z) {
+        float l1 = Math.abs(x) + Math.abs(y) + Math.abs(z);
+        if (l1 == 0) {
+            return 0;
+        }
+        float u = x / l1, v = y / l1;
+        if (z < 0) {
+            float fu = (1 - Math.abs(v)) * sign(u), fv = (1 - Math.abs(u)) * sign(v);
+            u = fu;
+            v = fv;
+        }
+
+        float[] decoded = new float[3];
+        short best = 0;
+        float bestDot = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < 4; i++) {
+            int qu = (int) ((i & 1) == 0 ? Math.floor(u * 127) : Math.ceil(u * 127));
+            int qv = (int) ((i & 2) == 0 ? Math.floor(v * 127) : Math.ceil(v * 127));
+            short packed = (short) ((qu & 0xFF) | (qv & 0xFF) << 8);
+            decodeOctahedral(packed, decoded, 0);
+            float dot = decoded[0] * x + decoded[1] * y + decoded[2] * z;
+            if (dot > bestDot) {
+                best = packed;
+                bestDot = dot;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * unpacks a vector packed with encodeOctahedral()
+     * @param packed - the packed vector
+     * @param dest - the array to write the unit vector to
+     * @param offset - the index in dest to write the x to
+     */
+    public static void decodeOctahedral(short packed, float[] dest, int offset) {
+        float u = Math.max((byte) packed / 127f, -1), v = Math.max((byte) (packed >> 8) / 127f, -1);
+        float z = 1 - Math.abs(u) - Math.abs(v);
+        if (z < 0) {
+            float fu = (1 - Math.abs(v)) * sign(u), fv = (1 - Math.abs(u)) * sign(v);
+            u = fu;
+            v = fv;
+        }
+        float length = (float) Math.sqrt(u * u + v * v + z * z);
+        dest[offset] = u / length;
+        dest[offset + 1] = v / length;
+        dest[offset + 2] = z / length;
+    }
+
+    /**
+     * gets the sign of a value, counting 0 as positive so vectors on the axes fold onto the right side
+     * @param value - the value
+     * @return - -1 or 1
+     */
+    private static float sign(float value) {
+        return value < 0 ? -1 : 1;
+    }
+
+    /**
+     * rounds a color channel to 8 bits
+     * @param channel - the channel, from 0 to 1
+     * @return - the channel as an unsigned byte
+     */
+    private static byte toByte(float channel) {
+        return (byte) Math.round(Math.min(Math.max(channel, 0), 1) * 255);
+    }
+
+    /**
+     * writes the packed vertices into a buffer
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeVertices(ByteBuffer buffer) {
+        if (buffer.remaining() < vertexCount * STRIDE) {
+            throw new BufferOverflowException();
+        }
+        buffer.put(vertices.duplicate());
+    }
+
+    /**
+     * writes the packed indices into a buffer, to be drawn as GL_UNSIGNED_SHORT or GL_UNSIGNED_INT depending on
+     * getIndexSize()
+     * @param buffer - the buffer to write to, starting at its current position
+     */
+    public void writeIndices(ByteBuffer buffer) {
+        if (indices == null) {
+            throw new IllegalStateException("the mesh is a triangle list");
+        }
+        if (buffer.remaining() < indices.remaining()) {
+            throw new BufferOverflowException();
+        }
+        buffer.put(indices.duplicate());
+    }
+
+    /**
+     * getter method
+     * @return - a read only view of the packed vertices, in the native byte order
+     */
+    public ByteBuffer getVertexData() {
+        return vertices.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * getter method
+     * @return - the amount of vertices
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * unpacks the triangle indices
+     * @return - a new array of the indices, or null for a triangle list
+     */
+    public int[] getIndices() {
+        if (indices == null) {
+            return null;
+        }
+        int[] unpacked = new int[indexCount];
+        boolean small = getIndexSize() == Short.BYTES;
+        for (int i = 0; i < indexCount; i++) {
+            unpacked[i] = small ? indices.getShort(i * Short.BYTES) & 0xFFFF : indices.getInt(i * Integer.BYTES);
+        }
+        return unpacked;
+    }
+
+    /**
+     * getter method
+     * @return - a read only view of the packed indices in the native byte order, or null for a triangle list
+     */
+    public ByteBuffer getIndexData() {
+        return indices == null ? null : indices.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * getter method
+     * @return - the amount of indices, 0 for a triangle list
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the size of each packed index in bytes
+     */
+    public int getIndexSize() {
+        return getIndexSize(vertexCount);
+    }
+
+    /**
+     * getter method
+     * @return - true if the mesh has an index buffer
+     */
+    public boolean isIndexed() {
+        return this.indices != null;
+    }
+
+    /**
+     * getter method
+     * @return - true if the normals were packed
+     */
+    public boolean hasNormals() {
+        return this.normals;
+    }
+
+    /**
+     * gets the position a packed position of 0 stands for, to add to the scaled positions in the shader
+     * @return - the min x, y, z of the bounds of the mesh
+     */
+    public Vector3f getPositionOffset() {
+        return new Vector3f(min[0], min[1], min[2]);
+    }
+
+    /**
+     * gets what to scale normalized positions by in the shader, where the packed position 65535 becomes 1
+     * @return - the size of the bounds of the mesh on each axis
+     */
+    public Vector3f getPositionScale() {
+        return new Vector3f(scale[0] * 65535, scale[1] * 65535, scale[2] * 65535);
+    }
+
+    /**
+     * gets the amount of memory used by the vertices and indices
+     * @return - the amount of bytes
+     */
+    public long getByteSize() {
+        return (long) vertexCount * STRIDE + (indices == null ? 0 : (long) indexCount * getIndexSize());
+    }
+
+}
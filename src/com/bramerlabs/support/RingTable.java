@@ -0,0 +1,145 @@
+package com.bramerlabs.support;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class RingTable {
+
+    // the most tables kept at once - the least recently used table is dropped past this
+    private static final int maxTables = 64;
+
+    // cached tables by amount of segments, least recently used first
+    private static final LinkedHashMap<Integer, float[]> tables = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * gets the cosine and sine of the angle of each vertex in a ring, computing them the first time they are asked for.
+     * vertex i is at angle i * 2pi / segments. the table is shared and must not be modified
+     * @param segments - the amount of segments in the ring
+     * @return - the packed cos, sin pair of each vertex
+     */
+    public static float[] get(int segments) {
+        synchronized (tables) {
+            float[] table = tables.get(segments);
+            if (table == null) {
+                table = generate(segments);
+                tables.put(segments, table);
+                if (tables.size() > maxTables) {
+                    Iterator<float[]> it = tables.values().iterator();
+                    it.next();
+                    it.remove();
+                }
+            }
+            return table;
+        }
+    }
+
+    /**
+     * computes the cosine and sine of the angle of each vertex in a ring
+     * @param segments - the amount of segments in the ring
+     * @return - the packed cos, sin pair of each vertex
+     */
+    private static float[] generate(int segments) {
+        float[] table = new float[segments * 2];
+
+        // determine the change in t corresponding to the amount of segments required
+        float dt = ((float)Math.PI * 2)/segments;
+        for (int i = 0; i < segments; i++) {
+            table[i * 2] = (float) Math.cos(i * dt);
+            table[i * 2 + 1] = (float) Math.sin(i * dt);
+        }
+        return table;
+    }
+
+    /**
+     * adds a ring of vertices to a mesh using the cached table, with no trigonometry once the table exists.
+     * vertex i is at center + cos(t) * u + sin(t) * v, where t = i * 2pi / segments
+     * @param mesh - the mesh to add the vertices to
+     * @param segments - the amount of vertices in the ring
+     * @param center - the center of the ring
+     * @param u - the vector from the center to the first vertex
+     * @param v - the vector from the center to the vertex a quarter turn from the first
+     * @param color - the color of the vertices
+     * @return - the index of the first vertex of the ring
+     */
+    public static int addRing(MeshBuffer mesh, int segments, Vector3f center, Vector3f u, Vector3f v, Vector3f color) {
+        float[] table = get(segments);
+        int first = mesh.getVertexCount();
+        mesh.ensureVertexCapacity(first + segments);
+        for (int i = 0; i < segments * 2; i += 2) {
+            float cos = table[i], sin = table[i + 1];
+            mesh.addVertex(center.x + cos * u.x + sin * v.x,
+                    center.y + cos * u.y + sin * v.y,
+                    center.z + cos * u.z + sin * v.z,
+                    color.x, color.y, color.z);
+        }
+        return first;
+    }
+
+    /**
+     * adds a ring of vertices to a mesh in the same way as addRing(), with the same normal for every vertex
+     * @param mesh - the mesh to add the vertices to
+     * @param segments - the amount of vertices in the ring
+     * @param center - the center of the ring
+     * @param u - the vector from the center to the first vertex
+     * @param v - the vector from the center to the vertex a quarter turn from the first
+     * @param color - the color of every vertex
+     * @param normal - the unit normal of every vertex
+     * @return - the index of the first vertex of the ring
+     */
+    public static int addRing(MeshBuffer mesh, int segments, Vector3f center, Vector3f u, Vector3f v, Vector3f color,
+                              Vector3f normal) {
+        float[] table = get(segments);
+        int first = mesh.getVertexCount();
+        mesh.ensureVertexCapacity(first + segments);
+        for (int i = 0; i < segments * 2; i += 2) {
+            float cos = table[i], sin = table[i + 1];
+            mesh.addVertex(center.x + cos * u.x + sin * v.x,
+                    center.y + cos * u.y + sin * v.y,
+                    center.z + cos * u.z + sin * v.z,
+                    color.x, color.y, color.z, normal.x, normal.y, normal.z);
+        }
+        return first;
+    }
+
+    /**
+     * adds a ring of vertices to a mesh in the same way as addRing(), with normals pointing away from the center.
+     * the normal of each vertex is the direction from the center to the vertex plus a tilt, normalized - no tilt
+     * gives the sides of a cylinder, and a tilt along the axis gives the sides of a cone
+     * @param mesh - the mesh to add the vertices to
+     * @param segments - the amount of vertices in the ring
+     * @param center - the center of the ring
+     * @param u - the vector from the center to the first vertex
+     * @param v - the vector from the center to the vertex a quarter turn from the first
+     * @param tilt - added to the direction from the center to each vertex
+     * @param color - the color of every vertex
+     * @return - the index of the first vertex of the ring
+     */
+    public static int addRadialRing(MeshBuffer mesh, int segments, Vector3f center, Vector3f u, Vector3f v,
+                                    Vector3f tilt, Vector3f color) {
+        float[] table = get(segments);
+        int first = mesh.getVertexCount();
+        mesh.ensureVertexCapacity(first + segments);
+        for (int i = 0; i < segments * 2; i += 2) {
+            float cos = table[i], sin = table[i + 1];
+            float dx = cos * u.x + sin * v.x, dy = cos * u.y + sin * v.y, dz = cos * u.z + sin * v.z;
+            float nx = dx + tilt.x, ny = dy + tilt.y, nz = dz + tilt.z;
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            mesh.addVertex(center.x + cos * u.x + sin * v.x,
+                    center.y + cos * u.y + sin * v.y,
+                    center.z + cos * u.z + sin * v.z,
+                    color.x, color.y, color.z, nx / length, ny / length, nz / length);
+        }
+        return first;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of tables cached
+     */
+    public static int size() {
+        synchronized (tables) {
+            return tables.size();
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.bramerlabs.support;
+
+/**
+ * transforms one position at a time - used when the Vector API is not available
+ */
+class ScalarTransformKernel implements TransformKernel {
+
+    @Override
+    public void affine(float[] m, int mOffset, float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        float m0 = m[mOffset],     m1 = m[mOffset + 1], m2  = m[mOffset + 2],  m3  = m[mOffset + 3];
+        float m4 = m[mOffset + 4], m5 = m[mOffset + 5], m6  = m[mOffset + 6],  m7  = m[mOffset + 7];
+        float m8 = m[mOffset + 8], m9 = m[mOffset + 9], m10 = m[mOffset + 10], m11 = m[mOffset + 11];
+        for (int i = 0; i < count * 3; i += 3) {
+            float x = src[srcOffset + i];
+            float y = src[srcOffset + i + 1];
+            float z = src[srcOffset + i + 2];
+            dst[dstOffset + i]     = m0 * x + m1 * y + m2  * z + m3;
+            dst[dstOffset + i + 1] = m4 * x + m5 * y + m6  * z + m7;
+            dst[dstOffset + i + 2] = m8 * x + m9 * y + m10 * z + m11;
+        }
+    }
+
+    @Override
+    public void scaleTranslate(float sx, float sy, float sz, float tx, float ty, float tz,
+                               float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        for (int i = 0; i < count * 3; i += 3) {
+            dst[dstOffset + i]     = sx * src[srcOffset + i]     + tx;
+            dst[dstOffset + i + 1] = sy * src[srcOffset + i + 1] + ty;
+            dst[dstOffset + i + 2] = sz * src[srcOffset + i + 2] + tz;
+        }
+    }
+
+}
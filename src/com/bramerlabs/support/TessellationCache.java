@@ -0,0 +1,209 @@
+package com.bramerlabs.support;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class TessellationCache {
+
+    // the cache used by the shape constructors - 64 MB by default
+    private static final TessellationCache shared = new TessellationCache(64L << 20);
+
+    // cached meshes, least recently used first
+    private final LinkedHashMap<Key, MeshBuffer> meshes = new LinkedHashMap<>(16, 0.75f, true);
+
+    // the most bytes the cached meshes may take up, and the bytes they take up now
+    private long maxBytes;
+    private long bytes = 0;
+
+    // lookup statistics
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * default constructor
+     * @param maxBytes - the most bytes the cached meshes may take up before the least recently used are evicted
+     */
+    public TessellationCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * getter method
+     * @return - the cache shared by the shape constructors
+     */
+    public static TessellationCache getShared() {
+        return shared;
+    }
+
+    /**
+     * gets a canonical mesh, generating and caching it if it is not cached.
+     * the mesh is shared between callers and must not be modified
+     * @param type - the type of shape, such as "sphere"
+     * @param resolution - the resolution of the mesh, such as the depth of a sphere
+     * @param generator - generates the mesh if it is not cached
+     * @return - the mesh
+     */
+    public MeshBuffer get(String type, int resolution, Supplier<MeshBuffer> generator) {
+        Key key = new Key(type, resolution);
+        synchronized (this) {
+            MeshBuffer mesh = meshes.get(key);
+            if (mesh != null) {
+                hits++;
+                return mesh;
+            }
+            misses++;
+        }
+
+        // generate outside of the lock so other shapes aren't held up by a slow tessellation
+        MeshBuffer mesh = generator.get().trim();
+        long size = sizeOf(mesh);
+
+        synchronized (this) {
+            // another thread may have generated the same mesh in the meantime
+            MeshBuffer existing = meshes.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (size > maxBytes) {
+                return mesh;
+            }
+            meshes.put(key, mesh);
+            bytes += size;
+            evict();
+        }
+        return mesh;
+    }
+
+    /**
+     * evicts the least recently used meshes until the cache fits in its size limit
+     */
+    private void evict() {
+        Iterator<MeshBuffer> it = meshes.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= sizeOf(it.next());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * estimates the bytes taken up by a mesh
+     * @param mesh - the mesh
+     * @return - the size of the backing arrays in bytes
+     */
+    private static long sizeOf(MeshBuffer mesh) {
+        long size = (long) (mesh.getPositions().length + mesh.getColors().length) * Float.BYTES;
+        if (mesh.hasNormals()) {
+            size += (long) mesh.getNormals().length * Float.BYTES;
+        }
+        if (mesh.isIndexed()) {
+            size += (long) mesh.getIndices().length * Integer.BYTES;
+        }
+        return size;
+    }
+
+    /**
+     * changes the size limit of this cache, evicting meshes if it no longer fits
+     * @param maxBytes - the most bytes the cached meshes may take up
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * removes every mesh from this cache, leaving the statistics
+     */
+    public synchronized void clear() {
+        meshes.clear();
+        bytes = 0;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of meshes in this cache
+     */
+    public synchronized int size() {
+        return meshes.size();
+    }
+
+    /**
+     * getter method
+     * @return - the bytes taken up by the meshes in this cache
+     */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * getter method
+     * @return - the most bytes the cached meshes may take up
+     */
+    public synchronized long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of lookups that found a cached mesh
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of lookups that had to generate a mesh
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of meshes evicted to stay in the size limit
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * generates a string with the statistics of this cache
+     * @return - the string
+     */
+    public synchronized String toString() {
+        return "TessellationCache[meshes=" + meshes.size() + ", bytes=" + bytes + "/" + maxBytes +
+                ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    /**
+     * the type and resolution of a cached mesh
+     */
+    private static class Key {
+
+        private final String type;
+        private final int resolution;
+
+        private Key(String type, int resolution) {
+            this.type = type;
+            this.resolution = resolution;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return resolution == key.resolution && type.equals(key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + resolution;
+        }
+    }
+
+}
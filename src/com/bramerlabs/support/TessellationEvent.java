@@ -0,0 +1,50 @@
+package com.bramerlabs.support;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * a JDK Flight Recorder event for the generation of the mesh of one shape, or the tessellation of the triangles it is
+ * built from, committed by TessellationMetrics.end() or endTessellation(). the event is disabled unless a recording
+ * enables it, such as with -XX:StartFlightRecording:settings=profile or jcmd pid JFR.start, and costs almost nothing
+ * while it is disabled
+ */
+@Name("com.bramerlabs.Tessellation")
+@Label("Tessellation")
+@Category({"Bramerlabs", "Shapes"})
+@Description("The generation of the mesh of a shape")
+public class TessellationEvent extends Event {
+
+    // the type of shape, such as "sphere"
+    @Label("Shape Type")
+    String shapeType;
+
+    // the resolution the shape was generated with
+    @Label("Resolution")
+    @Description("The depth, frequency, smoothness, or triangle count of the shape, 0 for shapes without one")
+    int resolution;
+
+    // the amount of triangles generated
+    @Label("Triangles")
+    long triangles;
+
+    // whether the triangles were computed from scratch rather than moved into place from a cached unit mesh
+    @Label("Tessellated")
+    @Description("True for a unit mesh computed on a cache miss, or a shape without a unit mesh. The event of a shape "
+            + "built from a unit mesh that wasn't cached encloses the event of the tessellation")
+    boolean tessellated;
+
+    // the bytes allocated by the generating thread, -1 if the JVM doesn't measure them
+    @Label("Bytes Allocated")
+    @DataAmount
+    long bytesAllocated;
+
+    // when the generation started, for the counters and the allocation measurement - not recorded
+    transient long startNanos;
+    transient long startBytes;
+
+}
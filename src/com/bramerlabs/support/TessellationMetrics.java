@@ -0,0 +1,258 @@
+package com.bramerlabs.support;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * cumulative counts of the shapes generated, the triangles generated, and the time spent generating them for one type
+ * of shape. most shapes are built by moving a cached unit mesh into place, so the tessellations - unit meshes computed
+ * on a cache miss, and triangles computed from scratch by shapes without a unit mesh - are counted separately. the time
+ * of a shape includes the tessellation it waited for. every shape type has one set of counters, shared by every
+ * thread, so the counting costs a couple of System.nanoTime() calls and uncontended adds per shape. each shape and
+ * each tessellation is also recorded as a TessellationEvent when a flight recording has it enabled
+ */
+public class TessellationMetrics {
+
+    // the counters of every type of shape, by type
+    private static final ConcurrentHashMap<String, TessellationMetrics> registry = new ConcurrentHashMap<>();
+
+    // measures the bytes allocated by a thread, or null if the JVM can't
+    private static final com.sun.management.ThreadMXBean threads = getThreadBean();
+
+    // the type of shape, such as "sphere"
+    private final String type;
+
+    // the amount of shapes generated, the triangles generated, and the nanoseconds spent generating them
+    private final LongAdder shapes = new LongAdder();
+    private final LongAdder triangles = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    // the amount of tessellations, the triangles computed by them, and the nanoseconds spent computing them
+    private final LongAdder tessellations = new LongAdder();
+    private final LongAdder tessellatedTriangles = new LongAdder();
+    private final LongAdder tessellationNanos = new LongAdder();
+
+    /**
+     * default constructor
+     * @param type - the type of shape
+     */
+    private TessellationMetrics(String type) {
+        this.type = type;
+    }
+
+    /**
+     * gets the counters of a type of shape, registering them the first time they are asked for. shapes keep the
+     * counters in a static field rather than looking them up for every mesh
+     * @param type - the type of shape, such as "sphere"
+     * @return - the counters
+     */
+    public static TessellationMetrics forType(String type) {
+        return registry.computeIfAbsent(type, TessellationMetrics::new);
+    }
+
+    /**
+     * gets the counters of every type of shape registered so far
+     * @return - a new list of the counters, the type with the most time spent generating first
+     */
+    public static List<TessellationMetrics> getAll() {
+        List<TessellationMetrics> all = new ArrayList<>(registry.values());
+        all.sort(Comparator.comparingLong(TessellationMetrics::getNanos).reversed());
+        return all;
+    }
+
+    /**
+     * sets the counters of every type of shape back to 0
+     */
+    public static void resetAll() {
+        for (TessellationMetrics metrics : registry.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * gets a summary of the counters of every type of shape, one line per type
+     * @return - the summary, the type with the most time spent generating first
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (TessellationMetrics metrics : getAll()) {
+            report.append(metrics).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    /**
+     * starts timing the generation of a shape or a tessellation
+     * @return - the event to pass to end() or endTessellation() once the triangles are generated
+     */
+    public TessellationEvent start() {
+        TessellationEvent event = new TessellationEvent();
+        if (event.isEnabled()) {
+            event.startBytes = getAllocatedBytes();
+            event.begin();
+        }
+        event.startNanos = System.nanoTime();
+        return event;
+    }
+
+    /**
+     * adds a generated or streamed shape to the counters and commits its event if a recording has it enabled
+     * @param event - the event returned by start()
+     * @param resolution - the depth, frequency, smoothness, or triangle count of the shape, 0 for shapes without one
+     * @param triangles - the amount of triangles generated
+     */
+    public void end(TessellationEvent event, int resolution, long triangles) {
+        long elapsed = System.nanoTime() - event.startNanos;
+        this.shapes.increment();
+        this.triangles.add(triangles);
+        this.nanos.add(elapsed);
+        commit(event, resolution, triangles, false);
+    }
+
+    /**
+     * adds a tessellation to the counters and commits its event if a recording has it enabled
+     * @param event - the event returned by start()
+     * @param resolution - the depth, frequency, smoothness, or triangle count of the shape, 0 for shapes without one
+     * @param triangles - the amount of triangles computed
+     */
+    public void endTessellation(TessellationEvent event, int resolution, long triangles) {
+        long elapsed = System.nanoTime() - event.startNanos;
+        this.tessellations.increment();
+        this.tessellatedTriangles.add(triangles);
+        this.tessellationNanos.add(elapsed);
+        commit(event, resolution, triangles, true);
+    }
+
+    /**
+     * commits an event if a recording has it enabled
+     * @param event - the event returned by start()
+     * @param resolution - the depth, frequency, smoothness, or triangle count of the shape
+     * @param triangles - the amount of triangles
+     * @param tessellated - true if the triangles were computed from scratch
+     */
+    private void commit(TessellationEvent event, int resolution, long triangles, boolean tessellated) {
+        if (event.isEnabled()) {
+            event.end();
+            if (event.shouldCommit()) {
+                long bytes = getAllocatedBytes();
+                event.shapeType = type;
+                event.resolution = resolution;
+                event.triangles = triangles;
+                event.tessellated = tessellated;
+                event.bytesAllocated = bytes < 0 || event.startBytes < 0 ? -1 : bytes - event.startBytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * sets the counters of this type of shape back to 0
+     */
+    public void reset() {
+        shapes.reset();
+        triangles.reset();
+        nanos.reset();
+        tessellations.reset();
+        tessellatedTriangles.reset();
+        tessellationNanos.reset();
+    }
+
+    /**
+     * gets the bytes allocated by the current thread so far
+     * @return - the amount of bytes, or -1 if the JVM doesn't measure them
+     */
+    private static long getAllocatedBytes() {
+        return threads == null ? -1 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * gets the thread bean of the JVM if it can measure the bytes allocated by a thread
+     * @return - the bean, or null
+     */
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+        } catch (LinkageError e) {
+            // the jdk.management module isn't in this runtime
+        }
+        return null;
+    }
+
+    /**
+     * getter method
+     * @return - the type of shape
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * getter method
+     * @return - the amount of shapes generated
+     */
+    public long getShapeCount() {
+        return this.shapes.sum();
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles generated
+     */
+    public long getTriangleCount() {
+        return this.triangles.sum();
+    }
+
+    /**
+     * getter method
+     * @return - the nanoseconds spent generating
+     */
+    public long getNanos() {
+        return this.nanos.sum();
+    }
+
+    /**
+     * getter method
+     * @return - the amount of tessellations
+     */
+    public long getTessellationCount() {
+        return this.tessellations.sum();
+    }
+
+    /**
+     * getter method
+     * @return - the amount of triangles computed by tessellations
+     */
+    public long getTessellatedTriangleCount() {
+        return this.tessellatedTriangles.sum();
+    }
+
+    /**
+     * getter method
+     * @return - the nanoseconds spent tessellating
+     */
+    public long getTessellationNanos() {
+        return this.tessellationNanos.sum();
+    }
+
+    /**
+     * gets the counters as text
+     * @return - the type, shapes, triangles, and time spent generating, then the same for tessellations
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %d shapes, %d triangles, %.3f ms - %d tessellated, %d triangles, %.3f ms", type,
+                getShapeCount(), getTriangleCount(), getNanos() / 1e6, getTessellationCount(),
+                getTessellatedTriangleCount(), getTessellationNanos() / 1e6);
+    }
+
+}
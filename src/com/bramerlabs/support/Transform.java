@@ -0,0 +1,186 @@
+package com.bramerlabs.support;
+
+public class Transform {
+
+    // the rows of a 3x4 affine matrix - x' = m[0] * x + m[1] * y + m[2] * z + m[3], and so on for y' and z'
+    private final float[] m;
+
+    // the kernel used for bulk transforms of packed positions
+    private static final TransformKernel kernel = loadKernel();
+
+    /**
+     * constructor for a 3x4 affine matrix
+     * @param m - the 12 values of the matrix, row by row
+     */
+    public Transform(float[] m) {
+        this.m = m;
+    }
+
+    /**
+     * creates a transform that scales and then translates
+     * @param translation - the translation, applied after scaling
+     * @param scale - the scale factor
+     * @return - the transform
+     */
+    public static Transform translateScale(Vector3f translation, float scale) {
+        return new Transform(new float[]{
+                scale, 0, 0, translation.x,
+                0, scale, 0, translation.y,
+                0, 0, scale, translation.z
+        });
+    }
+
+    /**
+     * creates a transform that maps the unit axes onto a new frame
+     * @param origin - where (0, 0, 0) is mapped to
+     * @param x - where the x axis is mapped to, relative to the origin
+     * @param y - where the y axis is mapped to, relative to the origin
+     * @param z - where the z axis is mapped to, relative to the origin
+     * @return - the transform
+     */
+    public static Transform frame(Vector3f origin, Vector3f x, Vector3f y, Vector3f z) {
+        return new Transform(new float[]{
+                x.x, y.x, z.x, origin.x,
+                x.y, y.y, z.y, origin.y,
+                x.z, y.z, z.z, origin.z
+        });
+    }
+
+    /**
+     * transforms packed x, y, z positions
+     * @param src - the positions to transform
+     * @param srcOffset - the index in src of the first position
+     * @param dst - where to write the transformed positions, may be the same array as src
+     * @param dstOffset - the index in dst of the first position
+     * @param count - the amount of positions
+     */
+    public void apply(float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        apply(m, 0, src, srcOffset, dst, dstOffset, count);
+    }
+
+    /**
+     * transforms packed x, y, z positions by a matrix stored inside a larger array, such as a buffer of instances
+     * @param m - the array holding the 12 values of the matrix, row by row
+     * @param mOffset - the index in m of the first value of the matrix
+     * @param src - the positions to transform
+     * @param srcOffset - the index in src of the first position
+     * @param dst - where to write the transformed positions, may be the same array as src
+     * @param dstOffset - the index in dst of the first position
+     * @param count - the amount of positions
+     */
+    public static void apply(float[] m, int mOffset, float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        // a matrix with nothing off the diagonal only scales and translates, which needs a third of the multiplications
+        if (m[mOffset + 1] == 0 && m[mOffset + 2] == 0 && m[mOffset + 4] == 0 &&
+                m[mOffset + 6] == 0 && m[mOffset + 8] == 0 && m[mOffset + 9] == 0) {
+            kernel.scaleTranslate(m[mOffset], m[mOffset + 5], m[mOffset + 10], m[mOffset + 3], m[mOffset + 7], m[mOffset + 11],
+                    src, srcOffset, dst, dstOffset, count);
+        } else {
+            kernel.affine(m, mOffset, src, srcOffset, dst, dstOffset, count);
+        }
+    }
+
+    /**
+     * transforms packed x, y, z unit normals by the inverse transpose of this transform, so they stay perpendicular
+     * to the transformed surface, and normalizes them again
+     * @param src - the normals to transform
+     * @param srcOffset - the index in src of the first normal
+     * @param dst - where to write the transformed normals, may be the same array as src
+     * @param dstOffset - the index in dst of the first normal
+     * @param count - the amount of normals
+     */
+    public void applyToNormals(float[] src, int srcOffset, float[] dst, int dstOffset, int count) {
+        applyToNormals(m, 0, src, srcOffset, dst, dstOffset, count);
+    }
+
+    /**
+     * transforms packed x, y, z unit normals by a matrix stored inside a larger array, such as a buffer of instances
+     * @param m - the array holding the 12 values of the matrix, row by row
+     * @param mOffset - the index in m of the first value of the matrix
+     * @param src - the normals to transform
+     * @param srcOffset - the index in src of the first normal
+     * @param dst - where to write the transformed normals, may be the same array as src
+     * @param dstOffset - the index in dst of the first normal
+     * @param count - the amount of normals
+     */
+    public static void applyToNormals(float[] m, int mOffset, float[] src, int srcOffset, float[] dst, int dstOffset,
+                                      int count) {
+        float a0 = m[mOffset],     a1 = m[mOffset + 1], a2 = m[mOffset + 2];
+        float b0 = m[mOffset + 4], b1 = m[mOffset + 5], b2 = m[mOffset + 6];
+        float c0 = m[mOffset + 8], c1 = m[mOffset + 9], c2 = m[mOffset + 10];
+
+        // a uniform scale doesn't turn normals at all
+        if (a1 == 0 && a2 == 0 && b0 == 0 && b2 == 0 && c0 == 0 && c1 == 0 && a0 == b1 && a0 == c2 && a0 > 0) {
+            if (src != dst || srcOffset != dstOffset) {
+                System.arraycopy(src, srcOffset, dst, dstOffset, count * 3);
+            }
+            return;
+        }
+
+        // the rows of the inverse transpose are the cross products of the rows of the matrix, divided by its
+        // determinant - only the sign of the determinant matters since the normals are normalized anyway
+        float r0 = b1 * c2 - b2 * c1, r1 = b2 * c0 - b0 * c2, r2 = b0 * c1 - b1 * c0;
+        float s0 = c1 * a2 - c2 * a1, s1 = c2 * a0 - c0 * a2, s2 = c0 * a1 - c1 * a0;
+        float t0 = a1 * b2 - a2 * b1, t1 = a2 * b0 - a0 * b2, t2 = a0 * b1 - a1 * b0;
+        float sign = a0 * r0 + a1 * r1 + a2 * r2 < 0 ? -1 : 1;
+
+        for (int i = 0; i < count * 3; i += 3) {
+            float x = src[srcOffset + i], y = src[srcOffset + i + 1], z = src[srcOffset + i + 2];
+            float nx = r0 * x + r1 * y + r2 * z;
+            float ny = s0 * x + s1 * y + s2 * z;
+            float nz = t0 * x + t1 * y + t2 * z;
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            float scale = length > 0 ? sign / length : 0;
+            dst[dstOffset + i] = nx * scale;
+            dst[dstOffset + i + 1] = ny * scale;
+            dst[dstOffset + i + 2] = nz * scale;
+        }
+    }
+
+    /**
+     * loads the kernel used for bulk transforms - the Vector API kernel if the jdk.incubator.vector module is
+     * present, otherwise the scalar kernel. the Vector API kernel can be turned off with -Dcom.bramerlabs.simd=false
+     * @return - the kernel
+     */
+    private static TransformKernel loadKernel() {
+        if (Boolean.parseBoolean(System.getProperty("com.bramerlabs.simd", "true")) &&
+                ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // compiled for Java 17 in a separate source set, so it is only ever loaded by name
+                Class<?> type = Class.forName("com.bramerlabs.support.VectorTransformKernel");
+                return (TransformKernel) type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // not built into this jar, or running on a java version that can't load it
+            }
+        }
+        return new ScalarTransformKernel();
+    }
+
+    /**
+     * getter method
+     * @return - true if bulk transforms use the Vector API
+     */
+    public static boolean isVectorized() {
+        return !(kernel instanceof ScalarTransformKernel);
+    }
+
+    /**
+     * transforms a vector
+     * @param v - the vector
+     * @return - a new transformed vector
+     */
+    public Vector3f apply(Vector3f v) {
+        return new Vector3f(
+                m[0] * v.x + m[1] * v.y + m[2]  * v.z + m[3],
+                m[4] * v.x + m[5] * v.y + m[6]  * v.z + m[7],
+                m[8] * v.x + m[9] * v.y + m[10] * v.z + m[11]);
+    }
+
+    /**
+     * getter method
+     * @return - the 12 values of the matrix, row by row
+     */
+    public float[] getMatrix() {
+        return this.m;
+    }
+
+}
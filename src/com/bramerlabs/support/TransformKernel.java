@@ -0,0 +1,37 @@
+package com.bramerlabs.support;
+
+/**
+ * bulk transforms of packed x, y, z positions - see Transform for the matrix layout
+ */
+interface TransformKernel {
+
+    /**
+     * transforms positions by a 3x4 affine matrix
+     * @param m - the array holding the 12 values of the matrix, row by row
+     * @param mOffset - the index in m of the first value of the matrix
+     * @param src - the positions to transform
+     * @param srcOffset - the index in src of the first position
+     * @param dst - where to write the transformed positions, may be the same array as src
+     * @param dstOffset - the index in dst of the first position
+     * @param count - the amount of positions
+     */
+    void affine(float[] m, int mOffset, float[] src, int srcOffset, float[] dst, int dstOffset, int count);
+
+    /**
+     * scales and then translates positions, one component at a time
+     * @param sx - the x scale factor
+     * @param sy - the y scale factor
+     * @param sz - the z scale factor
+     * @param tx - the x translation
+     * @param ty - the y translation
+     * @param tz - the z translation
+     * @param src - the positions to transform
+     * @param srcOffset - the index in src of the first position
+     * @param dst - where to write the transformed positions, may be the same array as src
+     * @param dstOffset - the index in dst of the first position
+     * @param count - the amount of positions
+     */
+    void scaleTranslate(float sx, float sy, float sz, float tx, float ty, float tz,
+                        float[] src, int srcOffset, float[] dst, int dstOffset, int count);
+
+}
@@ -0,0 +1,109 @@
+package com.bramerlabs.support;
+
+/**
+ * receives triangles one at a time as a shape generates them, so the shape never has to be held in memory
+ */
+public interface TriangleSink {
+
+    /**
+     * receives one triangle
+     * @param x1 - the x position of the first vertex
+     * @param y1 - the y position of the first vertex
+     * @param z1 - the z position of the first vertex
+     * @param x2 - the x position of the second vertex
+     * @param y2 - the y position of the second vertex
+     * @param z2 - the z position of the second vertex
+     * @param x3 - the x position of the third vertex
+     * @param y3 - the y position of the third vertex
+     * @param z3 - the z position of the third vertex
+     * @param r - the red component of the color of the triangle
+     * @param g - the green component of the color of the triangle
+     * @param b - the blue component of the color of the triangle
+     */
+    void triangle(float x1, float y1, float z1,
+                  float x2, float y2, float z2,
+                  float x3, float y3, float z3,
+                  float r, float g, float b);
+
+    /**
+     * receives one triangle with a unit normal at each vertex. sinks that don't use normals can leave this to pass
+     * the triangle on without them
+     * @param x1 - the x position of the first vertex
+     * @param y1 - the y position of the first vertex
+     * @param z1 - the z position of the first vertex
+     * @param x2 - the x position of the second vertex
+     * @param y2 - the y position of the second vertex
+     * @param z2 - the z position of the second vertex
+     * @param x3 - the x position of the third vertex
+     * @param y3 - the y position of the third vertex
+     * @param z3 - the z position of the third vertex
+     * @param nx1 - the x of the normal of the first vertex
+     * @param ny1 - the y of the normal of the first vertex
+     * @param nz1 - the z of the normal of the first vertex
+     * @param nx2 - the x of the normal of the second vertex
+     * @param ny2 - the y of the normal of the second vertex
+     * @param nz2 - the z of the normal of the second vertex
+     * @param nx3 - the x of the normal of the third vertex
+     * @param ny3 - the y of the normal of the third vertex
+     * @param nz3 - the z of the normal of the third vertex
+     * @param r - the red component of the color of the triangle
+     * @param g - the green component of the color of the triangle
+     * @param b - the blue component of the color of the triangle
+     */
+    default void triangle(float x1, float y1, float z1,
+                          float x2, float y2, float z2,
+                          float x3, float y3, float z3,
+                          float nx1, float ny1, float nz1,
+                          float nx2, float ny2, float nz2,
+                          float nx3, float ny3, float nz3,
+                          float r, float g, float b) {
+        triangle(x1, y1, z1, x2, y2, z2, x3, y3, z3, r, g, b);
+    }
+
+    /**
+     * creates a sink that transforms each triangle and gives it a color before passing it on to this sink. normals
+     * are passed on turned the same way as the surface. the returned sink is not thread safe
+     * @param transform - the transform to apply to the positions
+     * @param color - the color of every triangle
+     * @return - the new sink
+     */
+    default TriangleSink transformed(Transform transform, Vector3f color) {
+        TriangleSink target = this;
+        float[] v = new float[18];
+        float r = color.x, g = color.y, b = color.z;
+        return new TriangleSink() {
+            @Override
+            public void triangle(float x1, float y1, float z1,
+                                 float x2, float y2, float z2,
+                                 float x3, float y3, float z3,
+                                 float r0, float g0, float b0) {
+                v[0] = x1; v[1] = y1; v[2] = z1;
+                v[3] = x2; v[4] = y2; v[5] = z2;
+                v[6] = x3; v[7] = y3; v[8] = z3;
+                transform.apply(v, 0, v, 0, 3);
+                target.triangle(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8], r, g, b);
+            }
+
+            @Override
+            public void triangle(float x1, float y1, float z1,
+                                 float x2, float y2, float z2,
+                                 float x3, float y3, float z3,
+                                 float nx1, float ny1, float nz1,
+                                 float nx2, float ny2, float nz2,
+                                 float nx3, float ny3, float nz3,
+                                 float r0, float g0, float b0) {
+                v[0] = x1; v[1] = y1; v[2] = z1;
+                v[3] = x2; v[4] = y2; v[5] = z2;
+                v[6] = x3; v[7] = y3; v[8] = z3;
+                v[9] = nx1; v[10] = ny1; v[11] = nz1;
+                v[12] = nx2; v[13] = ny2; v[14] = nz2;
+                v[15] = nx3; v[16] = ny3; v[17] = nz3;
+                transform.apply(v, 0, v, 0, 3);
+                transform.applyToNormals(v, 9, v, 9, 3);
+                target.triangle(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8],
+                        v[9], v[10], v[11], v[12], v[13], v[14], v[15], v[16], v[17], r, g, b);
+            }
+        };
+    }
+
+}
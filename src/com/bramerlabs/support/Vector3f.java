@@ -1,7 +1,5 @@
 package com.bramerlabs.support;
 
-import java.util.Objects;
-
 public class Vector3f {
 
     // x, y, z position
@@ -51,6 +49,29 @@ public class Vector3f {
         this.z = v.z;
     }
 
+    /**
+     * sets the position of this vector
+     * @param x - x position
+     * @param y - y position
+     * @param z - z position
+     * @return - this vector
+     */
+    public Vector3f set(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * sets the position of this vector to the position of another vector
+     * @param v - the vector to be copied
+     * @return - this vector
+     */
+    public Vector3f set(Vector3f v) {
+        return set(v.x, v.y, v.z);
+    }
+
     /**
      * adds two vectors
      * @param v - the vector to be added
@@ -75,6 +96,43 @@ public class Vector3f {
         return this;
     }
 
+    /**
+     * adds two vectors without allocating
+     * @param v - vector 1
+     * @param u - vector 2
+     * @param dest - the vector to store the sum in, may be v or u
+     * @return - dest
+     */
+    public static Vector3f add(Vector3f v, Vector3f u, Vector3f dest) {
+        return dest.set(v.x + u.x, v.y + u.y, v.z + u.z);
+    }
+
+    /**
+     * adds two vectors packed in float arrays
+     * @param a - the array holding vector 1
+     * @param aOffset - the index of the x value of vector 1
+     * @param b - the array holding vector 2
+     * @param bOffset - the index of the x value of vector 2
+     * @param dest - the array to store the sum in, may overlap either vector
+     * @param destOffset - the index to store the x value of the sum at
+     */
+    public static void add(float[] a, int aOffset, float[] b, int bOffset, float[] dest, int destOffset) {
+        dest[destOffset] = a[aOffset] + b[bOffset];
+        dest[destOffset + 1] = a[aOffset + 1] + b[bOffset + 1];
+        dest[destOffset + 2] = a[aOffset + 2] + b[bOffset + 2];
+    }
+
+    /**
+     * subtracts two vectors without allocating
+     * @param v - vector 1
+     * @param u - vector 2
+     * @param dest - the vector to store the difference in, may be v or u
+     * @return - dest
+     */
+    public static Vector3f subtract(Vector3f v, Vector3f u, Vector3f dest) {
+        return dest.set(v.x - u.x, v.y - u.y, v.z - u.z);
+    }
+
     /**
      * adds a float array to a vector
      * @param val - a float array containing values to be added
@@ -101,6 +159,38 @@ public class Vector3f {
         return new Vector3f(x, y, z);
     }
 
+    /**
+     * takes the cross product of two vectors without allocating
+     * @param v - vector 1
+     * @param u - vector 2
+     * @param dest - the vector to store the result in, may be v or u
+     * @return - dest
+     */
+    public static Vector3f cross(Vector3f v, Vector3f u, Vector3f dest) {
+        float x = v.y * u.z - v.z * u.y;
+        float y = v.z * u.x - v.x * u.z;
+        float z = v.x * u.y - v.y * u.x;
+        return dest.set(x, y, z);
+    }
+
+    /**
+     * takes the cross product of two vectors packed in float arrays
+     * @param a - the array holding vector 1
+     * @param aOffset - the index of the x value of vector 1
+     * @param b - the array holding vector 2
+     * @param bOffset - the index of the x value of vector 2
+     * @param dest - the array to store the result in, may overlap either vector
+     * @param destOffset - the index to store the x value of the result at
+     */
+    public static void cross(float[] a, int aOffset, float[] b, int bOffset, float[] dest, int destOffset) {
+        float x = a[aOffset + 1] * b[bOffset + 2] - a[aOffset + 2] * b[bOffset + 1];
+        float y = a[aOffset + 2] * b[bOffset]     - a[aOffset]     * b[bOffset + 2];
+        float z = a[aOffset]     * b[bOffset + 1] - a[aOffset + 1] * b[bOffset];
+        dest[destOffset] = x;
+        dest[destOffset + 1] = y;
+        dest[destOffset + 2] = z;
+    }
+
     /**
      * takes the scalar product of two vectors
      * @param v - vector 1
@@ -162,6 +252,32 @@ public class Vector3f {
         return this;
     }
 
+    /**
+     * normalizes a vector to a length of 1 without allocating
+     * @param v - the vector to normalize, left unchanged unless it is dest
+     * @param dest - the vector to store the result in, may be v
+     * @return - dest
+     */
+    public static Vector3f normalize(Vector3f v, Vector3f dest) {
+        float length = (float)Math.sqrt(v.x * v.x + v.y * v.y + v.z * v.z);
+        return dest.set(v.x / length, v.y / length, v.z / length);
+    }
+
+    /**
+     * normalizes a vector packed in a float array to a length of 1
+     * @param v - the array holding the vector
+     * @param offset - the index of the x value of the vector
+     * @param dest - the array to store the result in, may be v
+     * @param destOffset - the index to store the x value of the result at
+     */
+    public static void normalize(float[] v, int offset, float[] dest, int destOffset) {
+        float x = v[offset], y = v[offset + 1], z = v[offset + 2];
+        float length = (float)Math.sqrt(x * x + y * y + z * z);
+        dest[destOffset] = x / length;
+        dest[destOffset + 1] = y / length;
+        dest[destOffset + 2] = z / length;
+    }
+
     /**
      * inverts the x value
      */
@@ -233,7 +349,10 @@ public class Vector3f {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, z);
+        // the same value as Objects.hash(x, y, z), without boxing the floats into a varargs array
+        int result = 31 + Float.hashCode(x);
+        result = 31 * result + Float.hashCode(y);
+        return 31 * result + Float.hashCode(z);
     }
 
     /**
@@ -244,6 +363,19 @@ public class Vector3f {
         return new float[]{this.x, this.y, this.z};
     }
 
+    /**
+     * copies this Vector3f into an array of floats without allocating
+     * @param dest - the array to copy into
+     * @param offset - the index to store the x value at
+     * @return - dest
+     */
+    public float[] toFloats(float[] dest, int offset) {
+        dest[offset] = this.x;
+        dest[offset + 1] = this.y;
+        dest[offset + 2] = this.z;
+        return dest;
+    }
+
     /**
      * generates a string based off of the x, y, z position of this vector
      * @return - the string
@@ -0,0 +1,331 @@
+package com.bramerlabs.support;
+
+import java.util.Arrays;
+
+/**
+ * reorders the triangles and vertices of meshes so the GPU transforms fewer vertices. a GPU keeps the last few
+ * vertices it transformed in a small cache, so triangles sharing vertices should be drawn close together, and it fetches
+ * vertices from memory, so vertices should be stored in the order they are first used. the triangles are reordered with
+ * Tipsify (Sander, Nehab, and Barczak, "Fast Triangle Reordering for Vertex Locality and Reduced Overdraw", 2007), which
+ * runs in linear time. the result is measured by the ACMR, the average amount of vertices transformed per triangle -
+ * 3 when nothing is shared, around 0.5 to 0.7 for a well ordered closed mesh
+ */
+public class VertexCacheOptimizer {
+
+    // the amount of vertices in the post-transform cache of most GPUs
+    public static final int DEFAULT_CACHE_SIZE = 16;
+
+    /**
+     * reorders a mesh for a cache of the default size
+     * @param mesh - the mesh
+     * @return - a new indexed mesh drawing the same triangles
+     */
+    public static MeshBuffer optimize(MeshBuffer mesh) {
+        return optimize(mesh, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * reorders the triangles of a mesh for the vertex cache, and then its vertices in the order the triangles use them.
+     * a triangle list is first indexed by merging vertices with the same position, color, and normal. the triangles
+     * keep their winding, and the mesh itself is not changed
+     * @param mesh - the mesh
+     * @param cacheSize - the amount of vertices in the cache
+     * @return - a new indexed mesh drawing the same triangles
+     */
+    public static MeshBuffer optimize(MeshBuffer mesh, int cacheSize) {
+        MeshBuffer indexed = mesh.isIndexed() ? mesh : weld(mesh);
+        int[] indices = reorderTriangles(indexed.getIndices(), indexed.getIndexCount(), indexed.getVertexCount(),
+                cacheSize);
+        return reorderVertices(indexed, indices);
+    }
+
+    /**
+     * indexes a triangle list, merging vertices whose position, color, and normal are exactly the same
+     * @param mesh - the mesh
+     * @return - a new indexed mesh, or the mesh itself if it is already indexed
+     */
+    public static MeshBuffer weld(MeshBuffer mesh) {
+        if (mesh.isIndexed()) {
+            return mesh;
+        }
+        int vertexCount = mesh.getVertexCount();
+        float[] p = mesh.getPositions(), c = mesh.getColors(), n = mesh.getNormals();
+
+        // an open addressing table of the first vertex with each set of attributes, holding the unique index + 1
+        int capacity = Integer.highestOneBit(Math.max(vertexCount, 1) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        int[] remap = new int[vertexCount];
+        int[] first = new int[vertexCount];
+        int uniqueCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int slot = hash(p, c, n, v * 3) & (capacity - 1);
+            while (table[slot] != 0 && !same(p, c, n, first[table[slot] - 1] * 3, v * 3)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (table[slot] == 0) {
+                first[uniqueCount] = v;
+                table[slot] = ++uniqueCount;
+            }
+            remap[v] = table[slot] - 1;
+        }
+
+        float[] positions = new float[uniqueCount * 3], colors = new float[uniqueCount * 3];
+        float[] normals = n == null ? null : new float[uniqueCount * 3];
+        for (int u = 0; u < uniqueCount; u++) {
+            System.arraycopy(p, first[u] * 3, positions, u * 3, 3);
+            System.arraycopy(c, first[u] * 3, colors, u * 3, 3);
+            if (n != null) {
+                System.arraycopy(n, first[u] * 3, normals, u * 3, 3);
+            }
+        }
+        return new MeshBuffer(positions, colors, normals, remap);
+    }
+
+    /**
+     * hashes the attributes of a vertex bit for bit
+     * @param p - the positions
+     * @param c - the colors
+     * @param n - the normals, or null
+     * @param a - the index of the x of the vertex
+     * @return - the hash
+     */
+    private static int hash(float[] p, float[] c, float[] n, int a) {
+        int hash = 1;
+        for (int i = a; i < a + 3; i++) {
+            hash = hash * 31 + Float.floatToIntBits(p[i]);
+            hash = hash * 31 + Float.floatToIntBits(c[i]);
+            if (n != null) {
+                hash = hash * 31 + Float.floatToIntBits(n[i]);
+            }
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * checks whether two vertices have the same attributes, bit for bit
+     * @param p - the positions
+     * @param c - the colors
+     * @param n - the normals, or null
+     * @param a - the index of the x of the first vertex
+     * @param b - the index of the x of the second vertex
+     * @return - true if every attribute is the same
+     */
+    private static boolean same(float[] p, float[] c, float[] n, int a, int b) {
+        for (int i = 0; i < 3; i++) {
+            if (Float.floatToIntBits(p[a + i]) != Float.floatToIntBits(p[b + i]) ||
+                    Float.floatToIntBits(c[a + i]) != Float.floatToIntBits(c[b + i]) ||
+                    n != null && Float.floatToIntBits(n[a + i]) != Float.floatToIntBits(n[b + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * reorders triangles with Tipsify. it fans around one vertex at a time, emitting all of its remaining triangles,
+     * and then moves on to the oldest vertex of those triangles that would still be in the cache after fanning around
+     * it, falling back to the most recently used vertex with triangles left once none would be
+     * @param indices - the indices of the triangles
+     * @param indexCount - the amount of indices in use
+     * @param vertexCount - the amount of vertices
+     * @param cacheSize - the amount of vertices in the cache
+     * @return - a new array with the indices of the triangles in their new order
+     */
+    public static int[] reorderTriangles(int[] indices, int indexCount, int vertexCount, int cacheSize) {
+        if (cacheSize < 3) {
+            throw new IllegalArgumentException("a vertex cache needs room for at least 3 vertices, not " + cacheSize);
+        }
+        int triangleCount = indexCount / 3;
+
+        // the triangles using each vertex, vertex v's from adjacency[offsets[v]] to adjacency[offsets[v + 1]]
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < triangleCount * 3; i++) {
+            offsets[indices[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] adjacency = new int[triangleCount * 3];
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < triangleCount * 3; i++) {
+            adjacency[fill[indices[i]]++] = i / 3;
+        }
+
+        // the amount of triangles left to emit for each vertex, and the time each vertex last entered the cache
+        int[] live = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            live[v] = offsets[v + 1] - offsets[v];
+        }
+        int[] cacheTime = new int[vertexCount];
+        boolean[] emitted = new boolean[triangleCount];
+
+        // the vertices of the emitted triangles, most recent last - where to look once the cache has nothing to offer
+        int[] deadEnd = new int[triangleCount * 3];
+        int deadEndSize = 0;
+
+        // the vertices of the triangles emitted around the current vertex
+        int[] candidates = new int[16];
+
+        int[] result = new int[triangleCount * 3];
+        int size = 0;
+        int time = cacheSize + 1;
+        int cursor = 0;
+        int fanning = triangleCount > 0 ? 0 : -1;
+        while (fanning >= 0) {
+            int candidateCount = 0;
+            for (int a = offsets[fanning]; a < offsets[fanning + 1]; a++) {
+                int t = adjacency[a];
+                if (emitted[t]) {
+                    continue;
+                }
+                emitted[t] = true;
+                for (int k = 0; k < 3; k++) {
+                    int v = indices[t * 3 + k];
+                    result[size++] = v;
+                    deadEnd[deadEndSize++] = v;
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidates.length * 2);
+                    }
+                    candidates[candidateCount++] = v;
+                    live[v]--;
+
+                    // a vertex not in the cache enters it, pushing the oldest vertex out
+                    if (time - cacheTime[v] > cacheSize) {
+                        cacheTime[v] = time++;
+                    }
+                }
+            }
+
+            // the oldest candidate that stays in the cache while its remaining triangles add up to 2 vertices each
+            int best = -1, bestPriority = -1;
+            for (int i = 0; i < candidateCount; i++) {
+                int v = candidates[i];
+                if (live[v] > 0) {
+                    int age = time - cacheTime[v];
+                    int priority = age + 2 * live[v] <= cacheSize ? age : 0;
+                    if (priority > bestPriority) {
+                        best = v;
+                        bestPriority = priority;
+                    }
+                }
+            }
+            if (best < 0) {
+                while (deadEndSize > 0 && best < 0) {
+                    int v = deadEnd[--deadEndSize];
+                    if (live[v] > 0) {
+                        best = v;
+                    }
+                }
+            }
+            if (best < 0) {
+                while (cursor < vertexCount && live[cursor] == 0) {
+                    cursor++;
+                }
+                best = cursor < vertexCount ? cursor : -1;
+            }
+            fanning = best;
+        }
+        return result;
+    }
+
+    /**
+     * reorders the vertices of a mesh in the order a list of indices first uses them, so the GPU fetches them from
+     * memory in order. vertices no triangle uses are kept, after the others
+     * @param mesh - the mesh holding the vertices
+     * @param indices - the indices of the triangles, such as from reorderTriangles()
+     * @return - a new indexed mesh with the vertices reordered and the indices renumbered
+     */
+    public static MeshBuffer reorderVertices(MeshBuffer mesh, int[] indices) {
+        int vertexCount = mesh.getVertexCount();
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        int[] renumbered = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            if (remap[v] < 0) {
+                remap[v] = next++;
+            }
+            renumbered[i] = remap[v];
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            if (remap[v] < 0) {
+                remap[v] = next++;
+            }
+        }
+
+        float[] p = mesh.getPositions(), c = mesh.getColors(), n = mesh.getNormals();
+        float[] positions = new float[vertexCount * 3], colors = new float[vertexCount * 3];
+        float[] normals = mesh.hasNormals() ? new float[vertexCount * 3] : null;
+        for (int v = 0; v < vertexCount; v++) {
+            System.arraycopy(p, v * 3, positions, remap[v] * 3, 3);
+            System.arraycopy(c, v * 3, colors, remap[v] * 3, 3);
+            if (normals != null) {
+                System.arraycopy(n, v * 3, normals, remap[v] * 3, 3);
+            }
+        }
+        return new MeshBuffer(positions, colors, normals, renumbered);
+    }
+
+    /**
+     * gets the ACMR of a mesh - the average amount of vertices transformed per triangle with a FIFO cache of the
+     * default size
+     * @param mesh - the mesh
+     * @return - the ACMR, from about 0.5 to 3
+     */
+    public static float getAcmr(MeshBuffer mesh) {
+        return getAcmr(mesh, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * gets the ACMR of a mesh by drawing its triangles through a simulated FIFO cache. a triangle list has no shared
+     * vertices, so its ACMR is always 3
+     * @param mesh - the mesh
+     * @param cacheSize - the amount of vertices in the cache
+     * @return - the ACMR, or 0 if the mesh has no triangles
+     */
+    public static float getAcmr(MeshBuffer mesh, int cacheSize) {
+        int triangleCount = mesh.getTriangleCount();
+        if (triangleCount == 0) {
+            return 0;
+        }
+        return (float) getCacheMisses(mesh, cacheSize) / triangleCount;
+    }
+
+    /**
+     * gets the ATVR of a mesh - the average amount of times each vertex is transformed, 1 at best
+     * @param mesh - the mesh
+     * @param cacheSize - the amount of vertices in the cache
+     * @return - the ATVR, or 0 if the mesh has no vertices
+     */
+    public static float getAtvr(MeshBuffer mesh, int cacheSize) {
+        int vertexCount = mesh.getVertexCount();
+        if (vertexCount == 0) {
+            return 0;
+        }
+        return (float) getCacheMisses(mesh, cacheSize) / vertexCount;
+    }
+
+    /**
+     * counts the vertices transformed when drawing a mesh through a simulated FIFO cache
+     * @param mesh - the mesh
+     * @param cacheSize - the amount of vertices in the cache
+     * @return - the amount of cache misses
+     */
+    private static int getCacheMisses(MeshBuffer mesh, int cacheSize) {
+        // the time each vertex entered the cache - a vertex is in the cache if fewer than cacheSize entered after it
+        int[] entered = new int[mesh.getVertexCount()];
+        Arrays.fill(entered, Integer.MIN_VALUE / 2);
+        int time = 0;
+        int misses = 0;
+        for (int i = 0; i < mesh.getTriangleCount() * 3; i++) {
+            int v = mesh.getIndex(i);
+            if (time - entered[v] >= cacheSize) {
+                entered[v] = ++time;
+                misses++;
+            }
+        }
+        return misses;
+    }
+
+}